@@ -0,0 +1,12 @@
+package com.meli.auth_server.beans;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita la caché de Spring (Caffeine, ver spring.cache en application.yml).
+ */
+@Configuration
+@EnableCaching
+public class CacheBean {
+}
@@ -2,14 +2,20 @@ package com.meli.auth_server.controllers;
 
 import com.meli.auth_server.dtos.TokenDto;
 import com.meli.auth_server.dtos.UserDto;
+import com.meli.auth_server.dtos.UserInfoDto;
 import com.meli.auth_server.exceptions.MeliException;
 import com.meli.auth_server.services.AuthService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Controlador REST para la gestión de autenticación.
  * 
@@ -84,4 +90,49 @@ public class AuthController {
             return ResponseEntity.status(ex.getHttpStatus()).body(ex.toMeliExceptionDto());
         }
     }
+
+    /**
+     * Obtiene el perfil del usuario dueño del access token.
+     * 
+     * Complementa los tokens compactos (application.jwt.profile: compact), que
+     * ya no incluyen los datos del usuario. La respuesta es cacheable por el cliente.
+     * 
+     * @param authorization Header Authorization con el formato "Bearer &lt;access token&gt;"
+     * @return ResponseEntity con UserInfoDto.
+     *         HTTP 200 si el token es válido, HTTP 401 si es inválido o no es un access token.
+     */
+    @GetMapping(path = "userinfo")
+    public ResponseEntity<?> userInfo(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try {
+            if (authorization == null) {
+                throw new MeliException(HttpStatus.UNAUTHORIZED, null, "AUTH010");
+            }
+            final var chunks = authorization.split(" ");
+            if (chunks.length != 2 || !chunks[0].equals("Bearer")) {
+                throw new MeliException(HttpStatus.UNAUTHORIZED, null, "AUTH010");
+            }
+            UserInfoDto userInfo = this.authService.userInfo(chunks[1]);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate())
+                    .body(userInfo);
+        } catch (MeliException ex) {
+            log.error("User info request failed - Error: {}", ex.getMessage());
+            return ResponseEntity.status(ex.getHttpStatus()).body(ex.toMeliExceptionDto());
+        }
+    }
+
+    /**
+     * Publica las llaves públicas de verificación (JWKS, RFC 7517).
+     * 
+     * Permite que gateway y demás servicios validen tokens ES256 localmente
+     * seleccionando la llave por el header kid. Respuesta cacheable.
+     * 
+     * @return ResponseEntity con el JWK Set. HTTP 200; lista vacía si se firma con HMAC.
+     */
+    @GetMapping(path = ".well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(this.authService.getJsonWebKeySet());
+    }
 }
@@ -0,0 +1,40 @@
+package com.meli.auth_server.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el perfil del usuario autenticado (respuesta de /auth/userinfo).
+ * 
+ * Conserva los nombres de los claims que antes viajaban dentro del access token.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserInfoDto {
+
+    private Long id;
+    private String username;
+    private String nombre;
+    private String apellido;
+    private String email;
+    private String telefono;
+    private String direccion;
+    private String rol;
+    private String cargo;
+
+    @JsonProperty("ml_id")
+    private String mlId;
+
+    private String estado;
+
+    @JsonProperty("fecha_registro")
+    private String fechaRegistro;
+}
@@ -0,0 +1,76 @@
+package com.meli.auth_server.helpers;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilidad para llaves EC P-256 usadas en la firma ES256 de tokens.
+ *
+ * Decodifica las llaves publicadas por el config-server (Base64 PKCS#8 / X.509),
+ * genera pares efímeros para desarrollo y representa llaves públicas como JWK
+ * (RFC 7517/7518) para el endpoint JWKS.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class EcKeyHelper {
+
+    private static final String ALGORITHM = "EC";
+    private static final String CURVE = "secp256r1";
+    private static final int COORDINATE_SIZE = 32;
+
+    private EcKeyHelper() {
+    }
+
+    public static PrivateKey decodePrivateKey(String base64Pkcs8) throws Exception {
+        final var spec = new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(base64Pkcs8));
+        return KeyFactory.getInstance(ALGORITHM).generatePrivate(spec);
+    }
+
+    public static PublicKey decodePublicKey(String base64X509) throws Exception {
+        final var spec = new X509EncodedKeySpec(Base64.getMimeDecoder().decode(base64X509));
+        return KeyFactory.getInstance(ALGORITHM).generatePublic(spec);
+    }
+
+    public static KeyPair generateKeyPair() throws Exception {
+        final var generator = KeyPairGenerator.getInstance(ALGORITHM);
+        generator.initialize(new ECGenParameterSpec(CURVE));
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Representa una llave pública P-256 como JWK de verificación ES256.
+     */
+    public static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+        final var point = ((ECPublicKey) publicKey).getW();
+        final var jwk = new LinkedHashMap<String, Object>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("kid", keyId);
+        jwk.put("x", encodeCoordinate(point.getAffineX()));
+        jwk.put("y", encodeCoordinate(point.getAffineY()));
+        return jwk;
+    }
+
+    // Coordenada sin signo, rellenada a 32 bytes y en Base64URL sin padding
+    private static String encodeCoordinate(BigInteger value) {
+        final var bytes = value.toByteArray();
+        final var fixed = new byte[COORDINATE_SIZE];
+        final var length = Math.min(bytes.length, COORDINATE_SIZE);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_SIZE - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
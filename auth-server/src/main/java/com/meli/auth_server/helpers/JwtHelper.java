@@ -3,17 +3,32 @@ package com.meli.auth_server.helpers;
 import com.meli.auth_server.dtos.TokenDto;
 import com.meli.auth_server.exceptions.MeliException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Helper para manejo de tokens JWT.
@@ -21,22 +36,53 @@ import java.util.function.Function;
  * Proporciona funcionalidades para crear y validar tokens JWT
  * con manejo de excepciones personalizado.
  * 
+ * La llave de firma y los parsers se construyen una sola vez y se
+ * reconstruyen al rotar {@code application.jwt.secret} en el config-server
+ * (las llaves anteriores se declaran en {@code application.jwt.previous-secrets}
+ * para seguir validando los tokens emitidos antes de la rotación).
+ * 
+ * Con {@code application.jwt.algorithm: ES256} los tokens se firman con una
+ * llave privada EC P-256 identificada por {@code kid}; las llaves públicas se
+ * publican en /auth/.well-known/jwks.json para que otros servicios validen
+ * localmente sin conocer el secreto de firma.
+ * 
  * @author Osneider Manuel Acevedo Naranjo
  * @version 1.0.0
  */
 @Component
 @Slf4j
-public class JwtHelper {
+public class JwtHelper implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final String JWT_PROPERTIES_PREFIX = "application.jwt.";
+    private static final String SECRET_PROPERTY = "application.jwt.secret";
+    private static final String PREVIOUS_SECRETS_PROPERTY = "application.jwt.previous-secrets";
+    private static final String ALGORITHM_PROPERTY = "application.jwt.algorithm";
+    private static final String KEY_ID_PROPERTY = "application.jwt.key-id";
+    private static final String PRIVATE_KEY_PROPERTY = "application.jwt.private-key";
+    private static final String PUBLIC_KEY_PROPERTY = "application.jwt.public-key";
+    private static final String PREVIOUS_PUBLIC_KEYS_PROPERTY = "application.jwt.previous-public-keys";
+    private static final String COMPACT_PROFILE = "compact";
 
-    @Value("${application.jwt.secret}")
-    private String jwtSecret;
+    private final Environment environment;
+
+    // Material criptográfico inmutable: se reemplaza completo en cada rotación
+    private volatile SigningKeys signingKeys;
 
     @Value("${application.expirationTime}")
     private Integer jwtExpirationInMs;
+
+    // Perfil del access token: full (datos del usuario en claims) o compact
+    @Value("${application.jwt.profile:full}")
+    private String tokenProfile;
     
     // Refresh token expira en 7 días (7 * 24 * 60 * 60 * 1000)
     private static final long REFRESH_TOKEN_EXPIRATION = 604800000L;
 
+    public JwtHelper(Environment environment) {
+        this.environment = environment;
+        this.signingKeys = this.buildSigningKeys();
+    }
+
     /**
      * Crea un TokenDto completo con access token y refresh token.
      */
@@ -60,16 +106,30 @@ public class JwtHelper {
     }
 
     /**
-     * Crea un access token JWT con todos los datos del usuario como claims.
+     * Crea un access token JWT.
+     * 
+     * Perfil full: todos los datos del usuario como claims (comportamiento original).
+     * Perfil compact: solo sub, rol, exp, iat, jti y kid en el header; el perfil
+     * del usuario se consulta en /auth/userinfo.
      */
     private String createAccessToken(com.meli.auth_server.entities.UserEntity user) {
+        final var keys = this.signingKeys;
         final var now = new Date();
         final var expirationDate = new Date(now.getTime() + jwtExpirationInMs);
-        return Jwts
+        final var builder = Jwts
                 .builder()
+                    .setHeaderParam(JwsHeader.KEY_ID, keys.keyId())
                     .setSubject(user.getUsername())
                     .setIssuedAt(now)
-                    .setExpiration(expirationDate)
+                    .setExpiration(expirationDate);
+        if (COMPACT_PROFILE.equalsIgnoreCase(this.tokenProfile)) {
+            return builder
+                    .setId(UUID.randomUUID().toString())
+                    .claim("rol", user.getRol())
+                    .signWith(keys.signingKey(), keys.algorithm())
+                .compact();
+        }
+        return builder
                     .claim("type", "access_token")
                     .claim("id", user.getId())
                     .claim("nombre", user.getNombre())
@@ -82,7 +142,7 @@ public class JwtHelper {
                     .claim("ml_id", user.getMlId())
                     .claim("estado", user.getEstado())
                     .claim("fecha_registro", user.getFechaRegistro())
-                    .signWith(this.getSecretKey())
+                    .signWith(keys.signingKey(), keys.algorithm())
                 .compact();
     }
     
@@ -90,6 +150,7 @@ public class JwtHelper {
      * Crea un refresh token JWT.
      */
     private String createRefreshToken(String username) {
+        final var keys = this.signingKeys;
         final var now = new Date();
         final var expirationDate = new Date(now.getTime() + REFRESH_TOKEN_EXPIRATION);
         return Jwts
@@ -98,62 +159,191 @@ public class JwtHelper {
                     .setIssuedAt(now)
                     .setExpiration(expirationDate)
                     .claim("type", "refresh_token")
-                    .signWith(this.getSecretKey())
+                    .setHeaderParam(JwsHeader.KEY_ID, keys.keyId())
+                    .signWith(keys.signingKey(), keys.algorithm())
                 .compact();
     }
 
-    public boolean validateToken(String token) throws MeliException {
+    /**
+     * Verifica firma y expiración del token una única vez y retorna sus claims.
+     * 
+     * Los claims retornados pueden reutilizarse en validateToken, isRefreshToken
+     * y getUsernameFromToken sin repetir la verificación HMAC.
+     */
+    public Claims parseToken(String token) throws MeliException {
         try {
-            final var expirationDate = this.getExpirationDate(token);
-            return expirationDate.after(new Date());
+            return this.verify(token);
         } catch (Exception e) {
             log.error("JWT token validation failed: {}", e.getMessage());
             throw new MeliException(HttpStatus.UNAUTHORIZED, null, "JWT001");
         }
     }
+
+    public boolean validateToken(String token) throws MeliException {
+        return this.validateToken(this.parseToken(token));
+    }
+
+    public boolean validateToken(Claims claims) {
+        final var expirationDate = claims.getExpiration();
+        return expirationDate != null && expirationDate.after(new Date());
+    }
     
     /**
      * Obtiene el username del token.
      */
     public String getUsernameFromToken(String token) throws MeliException {
         try {
-            return this.getClaimsFromToken(token, Claims::getSubject);
+            return this.getUsernameFromToken(this.verify(token));
         } catch (Exception e) {
             log.error("Failed to extract username from token: {}", e.getMessage());
             throw new MeliException(HttpStatus.UNAUTHORIZED, null, "JWT002");
         }
     }
+
+    public String getUsernameFromToken(Claims claims) {
+        return claims.getSubject();
+    }
     
     /**
      * Valida si es un refresh token.
      */
     public boolean isRefreshToken(String token) throws MeliException {
         try {
-            Claims claims = this.signToken(token);
-            return "refresh_token".equals(claims.get("type"));
+            return this.isRefreshToken(this.verify(token));
         } catch (Exception e) {
             log.error("Failed to validate refresh token: {}", e.getMessage());
             throw new MeliException(HttpStatus.UNAUTHORIZED, null, "JWT003");
         }
     }
-    private Date getExpirationDate(String token) {
-        return this.getClaimsFromToken(token, Claims::getExpiration);
+
+    public boolean isRefreshToken(Claims claims) {
+        return "refresh_token".equals(claims.get("type"));
+    }
+
+    /**
+     * Valida si es un access token (los tokens compactos no incluyen el claim type).
+     */
+    public boolean isAccessToken(Claims claims) {
+        final var type = claims.get("type");
+        return type == null || "access_token".equals(type);
+    }
+
+    /**
+     * Llaves públicas vigentes en formato JWK (vacío cuando se firma con HMAC,
+     * el secreto compartido nunca se publica).
+     */
+    public List<Map<String, Object>> getJsonWebKeys() {
+        return this.signingKeys.publicKeys().entrySet().stream()
+                .map(entry -> EcKeyHelper.toJwk(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(JWT_PROPERTIES_PREFIX))) {
+            this.signingKeys = this.buildSigningKeys();
+            log.info("JWT signing keys reloaded ({}, kid {})", this.signingKeys.algorithm(), this.signingKeys.keyId());
+        }
+    }
+
+    private Claims verify(String token) {
+        final var parsers = this.signingKeys.parsers();
+        SignatureException lastError = null;
+        for (JwtParser parser : parsers) {
+            try {
+                return parser.parseClaimsJws(token).getBody();
+            } catch (SignatureException e) {
+                // Firmado con otra llave: probar con la siguiente de la rotación
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError : new IllegalStateException(SECRET_PROPERTY + " is not configured");
     }
 
-    private <T> T getClaimsFromToken(String token, Function<Claims, T> resolver) {
-        return resolver.apply(this.signToken(token));
+    private SigningKeys buildSigningKeys() {
+        final var algorithm = SignatureAlgorithm.forName(this.environment.getProperty(ALGORITHM_PROPERTY, "HS256"));
+        if (algorithm == SignatureAlgorithm.ES256) {
+            return this.buildEcSigningKeys();
+        }
+        final var secret = this.environment.getRequiredProperty(SECRET_PROPERTY);
+        final var signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        final var parsers = new ArrayList<JwtParser>();
+        parsers.add(Jwts.parserBuilder().setSigningKey(signingKey).build());
+        final var previousSecrets = this.environment.getProperty(PREVIOUS_SECRETS_PROPERTY, String[].class);
+        if (previousSecrets != null) {
+            for (String previous : previousSecrets) {
+                if (StringUtils.hasText(previous)) {
+                    parsers.add(Jwts.parserBuilder()
+                            .setSigningKey(Keys.hmacShaKeyFor(previous.getBytes(StandardCharsets.UTF_8)))
+                            .build());
+                }
+            }
+        }
+        final var keyId = this.environment.getProperty(KEY_ID_PROPERTY, "hs256");
+        return new SigningKeys(SignatureAlgorithm.HS256, keyId, signingKey, List.copyOf(parsers), Map.of());
     }
 
-    private Claims signToken(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(this.getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private SigningKeys buildEcSigningKeys() {
+        try {
+            final var privateKeyValue = this.environment.getProperty(PRIVATE_KEY_PROPERTY);
+            final Key signingKey;
+            final PublicKey publicKey;
+            final String keyId;
+            if (StringUtils.hasText(privateKeyValue)) {
+                signingKey = EcKeyHelper.decodePrivateKey(privateKeyValue);
+                publicKey = EcKeyHelper.decodePublicKey(this.environment.getRequiredProperty(PUBLIC_KEY_PROPERTY));
+                keyId = this.environment.getRequiredProperty(KEY_ID_PROPERTY);
+            } else {
+                // Sin llave en el config-server: par efímero (solo desarrollo, no sobrevive reinicios)
+                final var keyPair = EcKeyHelper.generateKeyPair();
+                signingKey = keyPair.getPrivate();
+                publicKey = keyPair.getPublic();
+                keyId = UUID.randomUUID().toString();
+                log.warn("{} not configured, using an ephemeral ES256 key pair (kid {})", PRIVATE_KEY_PROPERTY, keyId);
+            }
+
+            // kid vigente primero; las llaves anteriores siguen publicadas durante la rotación
+            final var publicKeys = new LinkedHashMap<String, PublicKey>();
+            publicKeys.put(keyId, publicKey);
+            final var previousKeys = this.environment.getProperty(PREVIOUS_PUBLIC_KEYS_PROPERTY, String[].class);
+            if (previousKeys != null) {
+                for (String previous : previousKeys) {
+                    // Formato kid=llavePublicaBase64
+                    final var separator = previous.indexOf('=');
+                    if (separator > 0) {
+                        publicKeys.put(previous.substring(0, separator).trim(),
+                                EcKeyHelper.decodePublicKey(previous.substring(separator + 1).trim()));
+                    }
+                }
+            }
+
+            final var immutableKeys = Map.copyOf(publicKeys);
+            final var parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            final var key = immutableKeys.get(header.getKeyId());
+                            if (key == null) {
+                                throw new SignatureException("Unknown signing key id " + header.getKeyId());
+                            }
+                            return key;
+                        }
+                    })
+                    .build();
+            return new SigningKeys(SignatureAlgorithm.ES256, keyId, signingKey, List.of(parser),
+                    Collections.unmodifiableMap(publicKeys));
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Invalid ES256 key material", ex);
+        }
     }
 
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(this.jwtSecret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Material de firma vigente: algoritmo, kid, llave de firma, parsers thread-safe
+     * (vigente primero, luego anteriores) y llaves públicas publicables por kid.
+     */
+    private record SigningKeys(SignatureAlgorithm algorithm, String keyId, Key signingKey,
+                               List<JwtParser> parsers, Map<String, PublicKey> publicKeys) {
     }
 }
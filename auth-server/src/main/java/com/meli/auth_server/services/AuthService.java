@@ -2,11 +2,16 @@ package com.meli.auth_server.services;
 
 import com.meli.auth_server.dtos.TokenDto;
 import com.meli.auth_server.dtos.UserDto;
+import com.meli.auth_server.dtos.UserInfoDto;
 import com.meli.auth_server.exceptions.MeliException;
 
+import java.util.Map;
+
 public interface AuthService {
 
     TokenDto login(UserDto user) throws MeliException;
     TokenDto validateToken(TokenDto token) throws MeliException;
     TokenDto refreshToken(String refreshToken) throws MeliException;
+    UserInfoDto userInfo(String accessToken) throws MeliException;
+    Map<String, Object> getJsonWebKeySet();
 }
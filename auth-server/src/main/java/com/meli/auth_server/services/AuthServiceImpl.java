@@ -2,6 +2,7 @@ package com.meli.auth_server.services;
 
 import com.meli.auth_server.dtos.TokenDto;
 import com.meli.auth_server.dtos.UserDto;
+import com.meli.auth_server.dtos.UserInfoDto;
 import com.meli.auth_server.entities.UserEntity;
 import com.meli.auth_server.exceptions.MeliException;
 import com.meli.auth_server.helpers.JwtHelper;
@@ -13,6 +14,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -33,6 +35,7 @@ public class AuthServiceImpl implements AuthService{
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtHelper jwtHelper;
+    private final UserInfoService userInfoService;
 
     @Override
     public TokenDto login(UserDto user) throws MeliException {
@@ -79,20 +82,23 @@ public class AuthServiceImpl implements AuthService{
     @Override
     public TokenDto refreshToken(String refreshToken) throws MeliException {
         try {
+            // Verificar la firma una sola vez y reutilizar los claims
+            final var claims = this.jwtHelper.parseToken(refreshToken);
+
             // Validar que el refresh token sea válido
-            if (!this.jwtHelper.validateToken(refreshToken)) {
+            if (!this.jwtHelper.validateToken(claims)) {
                 log.error("Invalid refresh token provided");
                 throw new MeliException(HttpStatus.UNAUTHORIZED, null, "AUTH006");
             }
             
             // Validar que sea efectivamente un refresh token
-            if (!this.jwtHelper.isRefreshToken(refreshToken)) {
+            if (!this.jwtHelper.isRefreshToken(claims)) {
                 log.error("Provided token is not a refresh token");
                 throw new MeliException(HttpStatus.UNAUTHORIZED, null, "AUTH007");
             }
             
             // Obtener el username del refresh token
-            String username = this.jwtHelper.getUsernameFromToken(refreshToken);
+            String username = this.jwtHelper.getUsernameFromToken(claims);
 
             // Buscar el usuario completo
             UserEntity userFromDB = this.userRepository.findByUsername(username)
@@ -114,6 +120,22 @@ public class AuthServiceImpl implements AuthService{
         }
     }
 
+    @Override
+    public UserInfoDto userInfo(String accessToken) throws MeliException {
+        // Una sola verificación de firma; el perfil se sirve desde la caché por username
+        final var claims = this.jwtHelper.parseToken(accessToken);
+        if (!this.jwtHelper.isAccessToken(claims)) {
+            log.error("Provided token is not an access token");
+            throw new MeliException(HttpStatus.UNAUTHORIZED, null, "AUTH010");
+        }
+        return this.userInfoService.getUserInfo(this.jwtHelper.getUsernameFromToken(claims));
+    }
+
+    @Override
+    public Map<String, Object> getJsonWebKeySet() {
+        return Map.of("keys", this.jwtHelper.getJsonWebKeys());
+    }
+
     private void validPassword(UserDto userDto, UserEntity userEntity) throws MeliException {
         if (!this.passwordEncoder.matches(userDto.getPassword(), userEntity.getPassword())) {
             log.error("Invalid password for user: {}", userDto.getUsername());
@@ -0,0 +1,9 @@
+package com.meli.auth_server.services;
+
+import com.meli.auth_server.dtos.UserInfoDto;
+import com.meli.auth_server.exceptions.MeliException;
+
+public interface UserInfoService {
+
+    UserInfoDto getUserInfo(String username) throws MeliException;
+}
@@ -0,0 +1,53 @@
+package com.meli.auth_server.services;
+
+import com.meli.auth_server.dtos.UserInfoDto;
+import com.meli.auth_server.exceptions.MeliException;
+import com.meli.auth_server.repositories.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementación del servicio de perfil de usuario.
+ * 
+ * El perfil se cachea por username (caché "userinfo"), de modo que los
+ * tokens compactos no obligan a consultar la base de datos en cada llamada.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Transactional(readOnly = true)
+@Service
+@AllArgsConstructor
+@Slf4j
+public class UserInfoServiceImpl implements UserInfoService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Cacheable(cacheNames = "userinfo", key = "#username")
+    public UserInfoDto getUserInfo(String username) throws MeliException {
+        final var user = this.userRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.error("User no longer exists for access token: {}", username);
+                    return new MeliException(HttpStatus.UNAUTHORIZED, username, "AUTH011");
+                });
+        return UserInfoDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .nombre(user.getNombre())
+                .apellido(user.getApellido())
+                .email(user.getEmail())
+                .telefono(user.getTelefono())
+                .direccion(user.getDireccion())
+                .rol(user.getRol())
+                .cargo(user.getCargo())
+                .mlId(user.getMlId())
+                .estado(user.getEstado())
+                .fechaRegistro(user.getFechaRegistro())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.meli.auth_server.benchmarks;
+
+import com.meli.auth_server.entities.UserEntity;
+import com.meli.auth_server.helpers.JwtHelper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la verificación de tokens en JwtHelper.
+ *
+ * Compara el flujo anterior de /auth/refresh (llave y parser construidos en
+ * cada llamada, token parseado tres veces) contra la API parse-once con llave
+ * y parser cacheados. Se ejecuta con el profiler de GC para reportar
+ * asignación por operación (gc.alloc.rate.norm). JMH lanza una JVM aparte,
+ * que necesita el classpath explícito:
+ *
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     -Dexec.args="-cp %classpath com.meli.auth_server.benchmarks.JwtHelperBenchmark"
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtHelperBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012345678901234567890";
+
+    private JwtHelper jwtHelper;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        this.jwtHelper = new JwtHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+        ReflectionTestUtils.setField(this.jwtHelper, "jwtExpirationInMs", 3600000);
+        final var user = UserEntity.builder().id(1L).username("adminDev").rol("ADMIN").build();
+        this.refreshToken = this.jwtHelper.createCompleteToken(user).getRefreshToken();
+    }
+
+    /**
+     * Flujo anterior: validateToken + isRefreshToken + getUsernameFromToken,
+     * cada uno derivando la llave y construyendo un parser nuevo.
+     */
+    @Benchmark
+    public void refreshCheckLegacy(Blackhole blackhole) {
+        blackhole.consume(this.legacyParse(this.refreshToken).getExpiration());
+        blackhole.consume(this.legacyParse(this.refreshToken).get("type"));
+        blackhole.consume(this.legacyParse(this.refreshToken).getSubject());
+    }
+
+    /**
+     * Flujo actual: una sola verificación HMAC con el parser cacheado.
+     */
+    @Benchmark
+    public void refreshCheckParseOnce(Blackhole blackhole) throws Exception {
+        final Claims claims = this.jwtHelper.parseToken(this.refreshToken);
+        blackhole.consume(this.jwtHelper.validateToken(claims));
+        blackhole.consume(this.jwtHelper.isRefreshToken(claims));
+        blackhole.consume(this.jwtHelper.getUsernameFromToken(claims));
+    }
+
+    private Claims legacyParse(String token) {
+        return Jwts
+                .parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtHelperBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
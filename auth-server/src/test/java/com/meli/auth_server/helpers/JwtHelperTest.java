@@ -0,0 +1,129 @@
+package com.meli.auth_server.helpers;
+
+import com.meli.auth_server.entities.UserEntity;
+import com.meli.auth_server.exceptions.MeliException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para JwtHelper: API parse-once y rotación de llaves HMAC.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class JwtHelperTest {
+
+    private static final String SECRET = "testSecretKey123456789012345678901234567890";
+    private static final String PREVIOUS_SECRET = "previousSecretKey12345678901234567890123456";
+    private static final String OTHER_SECRET = "otherSecretKey1234567890123456789012345678901";
+
+    @Test
+    void parseToken_ShouldReturnClaimsSharedByValidationRefreshAndUsername() throws MeliException {
+        JwtHelper helper = jwtHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+        var tokens = helper.createCompleteToken(UserEntity.builder().username("usuario").build());
+
+        Claims refresh = helper.parseToken(tokens.getRefreshToken());
+        assertTrue(helper.validateToken(refresh));
+        assertTrue(helper.isRefreshToken(refresh));
+        assertFalse(helper.isAccessToken(refresh));
+        assertEquals("usuario", helper.getUsernameFromToken(refresh));
+
+        Claims access = helper.parseToken(tokens.getAccessToken());
+        assertTrue(helper.validateToken(access));
+        assertFalse(helper.isRefreshToken(access));
+        assertTrue(helper.isAccessToken(access));
+        assertEquals("usuario", helper.getUsernameFromToken(access));
+
+        // Las variantes por String dan el mismo resultado que las de Claims
+        assertTrue(helper.validateToken(tokens.getRefreshToken()));
+        assertTrue(helper.isRefreshToken(tokens.getRefreshToken()));
+        assertEquals("usuario", helper.getUsernameFromToken(tokens.getAccessToken()));
+    }
+
+    @Test
+    void parseToken_ShouldAcceptTokenSignedWithPreviousSecret() throws MeliException {
+        JwtHelper helper = jwtHelper(new MockEnvironment()
+                .withProperty("application.jwt.secret", SECRET)
+                .withProperty("application.jwt.previous-secrets", OTHER_SECRET + "," + PREVIOUS_SECRET));
+
+        String token = hmacToken(PREVIOUS_SECRET, 60_000);
+
+        assertEquals("usuario", helper.parseToken(token).getSubject());
+        assertTrue(helper.validateToken(token));
+    }
+
+    @Test
+    void parseToken_ShouldRejectTokenSignedWithUnknownSecret() {
+        JwtHelper helper = jwtHelper(new MockEnvironment()
+                .withProperty("application.jwt.secret", SECRET)
+                .withProperty("application.jwt.previous-secrets", PREVIOUS_SECRET));
+        String token = hmacToken(OTHER_SECRET, 60_000);
+
+        MeliException parse = assertThrows(MeliException.class, () -> helper.parseToken(token));
+        assertEquals(HttpStatus.UNAUTHORIZED, parse.getHttpStatus());
+        assertEquals("JWT001", parse.getErrorCode());
+        assertEquals("JWT002", assertThrows(MeliException.class, () -> helper.getUsernameFromToken(token)).getErrorCode());
+        assertEquals("JWT003", assertThrows(MeliException.class, () -> helper.isRefreshToken(token)).getErrorCode());
+    }
+
+    @Test
+    void parseToken_ShouldRejectExpiredTokenSignedWithPreviousSecret() {
+        JwtHelper helper = jwtHelper(new MockEnvironment()
+                .withProperty("application.jwt.secret", SECRET)
+                .withProperty("application.jwt.previous-secrets", PREVIOUS_SECRET));
+
+        assertThrows(MeliException.class, () -> helper.parseToken(hmacToken(PREVIOUS_SECRET, -60_000)));
+    }
+
+    @Test
+    void onApplicationEvent_ShouldKeepValidatingTokensIssuedBeforeRotation() throws MeliException {
+        MockEnvironment environment = new MockEnvironment().withProperty("application.jwt.secret", PREVIOUS_SECRET);
+        JwtHelper helper = jwtHelper(environment);
+        String before = helper.createToken("usuario");
+
+        // Rotación en el config-server: secreto nuevo y el anterior en previous-secrets
+        environment.setProperty("application.jwt.secret", SECRET);
+        environment.setProperty("application.jwt.previous-secrets", PREVIOUS_SECRET);
+        helper.onApplicationEvent(new EnvironmentChangeEvent(Set.of("application.jwt.secret")));
+        String after = helper.createToken("usuario");
+
+        assertTrue(helper.validateToken(before));
+        assertTrue(helper.validateToken(after));
+        // El token nuevo se firma con el secreto vigente
+        assertEquals("usuario", Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build().parseClaimsJws(after).getBody().getSubject());
+
+        // Sin el secreto anterior, los tokens previos dejan de ser válidos
+        environment.setProperty("application.jwt.previous-secrets", "");
+        helper.onApplicationEvent(new EnvironmentChangeEvent(Set.of("application.jwt.previous-secrets")));
+        assertThrows(MeliException.class, () -> helper.validateToken(before));
+    }
+
+    private static JwtHelper jwtHelper(MockEnvironment environment) {
+        JwtHelper jwtHelper = new JwtHelper(environment);
+        ReflectionTestUtils.setField(jwtHelper, "jwtExpirationInMs", 60_000);
+        ReflectionTestUtils.setField(jwtHelper, "tokenProfile", "full");
+        return jwtHelper;
+    }
+
+    private static String hmacToken(String secret, long ttlMillis) {
+        return Jwts.builder()
+                .setSubject("usuario")
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -10,6 +10,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 import com.meli.gateway.filters.AuthFilter;
+import com.meli.gateway.filters.ConcurrencyLimitFilter;
+import com.meli.gateway.filters.HedgingFilter;
+import com.meli.gateway.filters.RateLimitFilter;
+import com.meli.gateway.filters.ResponseCacheFilter;
 
 
 @Configuration
@@ -17,20 +21,55 @@ public class GatewayBeans {
 
     @Autowired
     private AuthFilter authFilter;
+
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private HedgingFilter hedgingFilter;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
  
     @Bean
     @Profile(value = "dinamic-routes-cb")
     public RouteLocator routeLocatorEurekaOnCB(RouteLocatorBuilder builder) {
         return builder
                 .routes()
+                // Consulta por lote (GET /detail?ids=...): circuito propio para no abrir el de las
+                // consultas individuales; el fallback recibe el mismo query string
+                .route(route -> route
+                        .path("/product-detail/detail")
+                        .and()
+                        .query("ids")
+                        .filters(filter -> {
+                            filter.filter(this.rateLimitFilter);
+                            filter.circuitBreaker(config -> config
+                                    .setName("gateway-cb-batch")
+                                    .setStatusCodes(Set.of("500"))
+                                    .setFallbackUri("forward:/product-detail-fallback/detail"));
+                            // Límite adaptativo compartido con el detalle; el lote tiene menor prioridad
+                            filter.filter(this.concurrencyLimitFilter);
+                            return filter;
+                        })
+                        .uri("lb://product-detail")
+                )
                 // Ruta con un solo path parameter
                 .route(route -> route
                         .path("/product-detail/detail/**")
                         .filters(filter -> {
+                            // Rate limiting por IP antes del circuit breaker (sin AuthFilter no hay usuario verificado)
+                            filter.filter(this.rateLimitFilter);
                             filter.circuitBreaker(config -> config
                                     .setName("gateway-cb-single")
                                     .setStatusCodes(Set.of("500", "400"))
                                     .setFallbackUri("forward:/product-detail-fallback/detail"));
+                            filter.filter(this.concurrencyLimitFilter);
+                            // Cobertura opcional (application.hedging.enabled) ante respuestas lentas
+                            filter.filter(this.hedgingFilter);
                             return filter;
                         })
                         .uri("lb://product-detail")
@@ -48,21 +87,52 @@ public class GatewayBeans {
     public RouteLocator routeLocatorOauth2(RouteLocatorBuilder builder) {
         return builder
                 .routes()
+                // Consulta por lote (GET /detail?ids=...): una sola validación del token para todo el lote
+                .route(route -> route
+                        .path("/product-detail/detail")
+                        .and()
+                        .query("ids")
+                        .filters(filter -> {
+                            filter.filter(this.rateLimitFilter);
+                            filter.circuitBreaker(config -> config
+                                    .setName("gateway-cb-batch")
+                                    .setStatusCodes(Set.of("500"))
+                                    .setFallbackUri("forward:/product-detail-fallback/detail"));
+                            filter.filter(this.authFilter);
+                            filter.filter(this.rateLimitFilter.users());
+                            filter.filter(this.concurrencyLimitFilter);
+                            return filter;
+                        })
+                        .uri("lb://product-detail")
+                )
+                // Detalle y listado: caché de respuestas en el borde, consultada después de validar el token
                 .route(route -> route
                         .path("/product-detail/detail/**")
                         .filters(filter -> {
+                            // Rate limiting por IP antes de todo lo demás (incluida la validación del token)
+                            filter.filter(this.rateLimitFilter);
                             filter.circuitBreaker(config -> config
                                     .setName("gateway-cb")
                                     .setStatusCodes(Set.of("500", "400"))
                                     .setFallbackUri("forward:/product-detail-fallback/detail"));
                             filter.filter(this.authFilter);
+                            // Por usuario con el sub ya verificado; también cuentan los hits de caché
+                            filter.filter(this.rateLimitFilter.users());
+                            filter.filter(this.responseCacheFilter);
+                            // Solo los fallos de caché llegan al servicio y cuentan contra su límite
+                            filter.filter(this.concurrencyLimitFilter);
+                            // Cobertura opcional (application.hedging.enabled); solo en fallos de caché
+                            filter.filter(this.hedgingFilter);
                             return filter;
                         })
                         .uri("lb://product-detail")
                 )
                 .route(route -> route
                         .path("/product-detail-fallback/detail/**")
-                        .filters(filter -> filter.filter(this.authFilter))
+                        .filters(filter -> filter
+                                .filter(this.rateLimitFilter)
+                                .filter(this.authFilter)
+                                .filter(this.rateLimitFilter.users()))
                         .uri("lb://product-detail-fallback")
                 )
                 .route(route -> route
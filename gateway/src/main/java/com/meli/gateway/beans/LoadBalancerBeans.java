@@ -0,0 +1,47 @@
+package com.meli.gateway.beans;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.meli.gateway.helpers.LatencyAwareLoadBalancer;
+
+/**
+ * Registra LatencyAwareLoadBalancer como balanceador por defecto de todos
+ * los servicios lb:// (product-detail, product-detail-fallback, auth-server).
+ * Con {@code application.load-balancer.latency-aware.enabled: false} se
+ * vuelve al round-robin de Spring Cloud LoadBalancer.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerBeans.LatencyAwareConfiguration.class)
+public class LoadBalancerBeans {
+
+    /**
+     * Configuración de cada contexto hijo de LoadBalancer (uno por servicio);
+     * sin @Configuration para que el escaneo del contexto principal no la tome.
+     */
+    public static class LatencyAwareConfiguration {
+
+        // El tipo concreto de retorno permite que LoadBalancerClientFactory lo
+        // encuentre también como LoadBalancerLifecycle antes de instanciarlo
+        @Bean
+        @ConditionalOnProperty(name = "application.load-balancer.latency-aware.enabled", havingValue = "true", matchIfMissing = true)
+        public LatencyAwareLoadBalancer latencyAwareLoadBalancer(Environment environment,
+                                                                 LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                 @Value("${application.load-balancer.latency-aware.latency-decay:10s}") Duration latencyDecay,
+                                                                 @Value("${application.load-balancer.latency-aware.error-decay:30s}") Duration errorDecay,
+                                                                 @Value("${application.load-balancer.latency-aware.max-error-rate:0.5}") double maxErrorRate) {
+            final var serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new LatencyAwareLoadBalancer(
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    serviceId, latencyDecay, errorDecay, maxErrorRate);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.meli.gateway.filters;
 
 import com.meli.gateway.dtos.TokenDto;
+import com.meli.gateway.helpers.JwtHelper;
+import com.meli.gateway.helpers.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
@@ -14,15 +17,30 @@ import reactor.core.publisher.Mono;
 @Component
 public class AuthFilter implements GatewayFilter {
 
+    /**
+     * Claim sub del token ya verificado (firma comprobada aquí o por el auth-server).
+     */
+    public static final String SUBJECT_ATTR = AuthFilter.class.getName() + ".subject";
+
     private final WebClient webClient;
+    private final JwtHelper jwtHelper;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final boolean localVerification;
 
     private static final String AUTH_VALIDATE_URI = "lb://auth-server/auth-server/auth/jwt";
     private static final String ACCESS_TOKEN_HEADER_NAME = "accessToken";
+    private static final String LOCAL_VERIFICATION = "local";
 
-    public AuthFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction) {
+    public AuthFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                      JwtHelper jwtHelper,
+                      VerifiedTokenCache verifiedTokenCache,
+                      @Value("${application.auth.verification:remote}") String verification) {
         this.webClient = WebClient.builder()
                 .filter(loadBalancerExchangeFilterFunction)
                 .build();
+        this.jwtHelper = jwtHelper;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.localVerification = LOCAL_VERIFICATION.equalsIgnoreCase(verification);
     }
 
     @Override
@@ -40,20 +58,46 @@ public class AuthFilter implements GatewayFilter {
             return this.onError(exchange);
         }
         final var token = chunks[1];
+        if (this.localVerification) {
+            // Firma y expiración verificadas en el gateway (HMAC o JWKS), sin salto de red por petición
+            return this.jwtHelper.verify(token)
+                    .map(claims -> this.verified(exchange, claims.getSubject()))
+                    .defaultIfEmpty(false)
+                    .flatMap(valid -> valid
+                            ? chain.filter(exchange)
+                            : this.onError(exchange, HttpStatus.UNAUTHORIZED));
+        }
+        return this.verifiedTokenCache
+                .get(token, () -> this.validateRemote(token))
+                .map(verified -> this.verified(exchange, verified.subject()))
+                .flatMap(valid -> chain.filter(exchange));
+    }
+
+    // Publica el usuario verificado para el rate limiting por usuario (RateLimitFilter#users)
+    private boolean verified(ServerWebExchange exchange, String subject) {
+        if (subject != null) {
+            exchange.getAttributes().put(SUBJECT_ATTR, subject);
+        }
+        return true;
+    }
+
+    private Mono<TokenDto> validateRemote(String token) {
         return this.webClient
                 .post()
                 .uri(AUTH_VALIDATE_URI)
                 .header(ACCESS_TOKEN_HEADER_NAME, token)
                 .retrieve()
-                .bodyToMono(TokenDto.class)
-                .map(response -> exchange)
-                .flatMap(chain::filter);
+                .bodyToMono(TokenDto.class);
     }
 
     private Mono<Void> onError(ServerWebExchange exchange) {
+        return this.onError(exchange, HttpStatus.BAD_REQUEST);
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, HttpStatus status) {
         final var response = exchange.getResponse();
         if (!response.isCommitted()) {
-            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            response.setStatusCode(status);
         }
         return response.setComplete();
     }
@@ -0,0 +1,169 @@
+package com.meli.gateway.filters;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.meli.gateway.helpers.AdaptiveConcurrencyLimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Límite de concurrencia adaptativo hacia los servicios (AdaptiveConcurrencyLimit).
+ *
+ * Las rutas que apuntan al mismo servicio comparten su límite, porque
+ * comparten su pool de hilos (25 en product-detail): así las consultas por
+ * lote y las individuales compiten por el mismo presupuesto según su
+ * prioridad. La navegación (detalle individual, ya autenticado en el perfil
+ * meli-auth) puede usar todo el límite; el tráfico de lote que usan los
+ * scrapers ({@code ids=} o NDJSON) solo {@code batch-share}. Lo que excede
+ * se rechaza de inmediato con 503 y {@code Retry-After}, en lugar de
+ * encolarse hasta el timeout.
+ *
+ * La muestra de RTT es la duración del resto de la cadena: el servicio y,
+ * donde la ruta la tiene, la petición de cobertura. El filtro va después del
+ * circuit breaker, así que el fallback no se mide: cuando el servicio falla,
+ * la muestra termina con el error, que cuenta como falla igual que un 503 o
+ * un 504, antes de que el circuit breaker reenvíe al fallback.
+ *
+ * Métricas: {@code gateway.concurrency_limit.limit{service}},
+ * {@code gateway.concurrency_limit.in_flight{service}} y
+ * {@code gateway.concurrency_limit.rejected{service,priority}}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+public class ConcurrencyLimitFilter implements GatewayFilter {
+
+    private static final String METRIC_PREFIX = "gateway.concurrency_limit";
+    private static final String INTERACTIVE = "interactive";
+    private static final String BATCH = "batch";
+    private static final String BATCH_QUERY_PARAM = "ids";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final Duration window;
+    private final int minSamples;
+    private final double batchShare;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${application.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${application.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${application.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${application.concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${application.concurrency-limit.rtt-tolerance:1.5}") double tolerance,
+                                  @Value("${application.concurrency-limit.backoff-ratio:0.9}") double backoff,
+                                  @Value("${application.concurrency-limit.window:500ms}") Duration window,
+                                  @Value("${application.concurrency-limit.min-samples:10}") int minSamples,
+                                  @Value("${application.concurrency-limit.batch-share:0.5}") double batchShare,
+                                  @Value("${application.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.window = window;
+        this.minSamples = minSamples;
+        this.batchShare = batchShare;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!this.enabled || route == null) {
+            return chain.filter(exchange);
+        }
+        final var service = this.service(route);
+        final var limit = this.limits.computeIfAbsent(service, this::register);
+        final var priority = this.priority(exchange.getRequest());
+        if (!limit.tryAcquire(BATCH.equals(priority) ? this.batchShare : 1.0)) {
+            this.rejected(service, priority);
+            return this.onOverload(exchange);
+        }
+        final var start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.release();
+                        return;
+                    }
+                    final var status = exchange.getResponse().getStatusCode();
+                    final var dropped = signal == SignalType.ON_ERROR || status != null
+                            && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                            || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+                    limit.release(System.nanoTime() - start, dropped);
+                });
+    }
+
+    private String priority(ServerHttpRequest request) {
+        if (request.getQueryParams().containsKey(BATCH_QUERY_PARAM)
+                || request.getHeaders().getAccept().stream().anyMatch(NDJSON::equalsTypeAndSubtype)) {
+            return BATCH;
+        }
+        return INTERACTIVE;
+    }
+
+    // lb://product-detail -> product-detail
+    private String service(Route route) {
+        final var host = route.getUri().getHost();
+        return host != null ? host.toLowerCase(Locale.ROOT) : route.getId();
+    }
+
+    private Mono<Void> onOverload(ServerWebExchange exchange) {
+        final var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, this.retryAfter);
+        return response.setComplete();
+    }
+
+    private AdaptiveConcurrencyLimit register(String service) {
+        final var limit = new AdaptiveConcurrencyLimit(this.initialLimit, this.minLimit, this.maxLimit, this.tolerance,
+                this.backoff, this.window.toNanos(), this.minSamples, System::nanoTime);
+        Gauge.builder(METRIC_PREFIX + ".limit", limit, AdaptiveConcurrencyLimit::limit)
+                .tag("service", service)
+                .description("Límite de concurrencia actual")
+                .register(this.meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .tag("service", service)
+                .description("Peticiones en curso hacia el servicio")
+                .register(this.meterRegistry);
+        return limit;
+    }
+
+    private void rejected(String service, String priority) {
+        Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("service", service)
+                .tag("priority", priority)
+                .register(this.meterRegistry)
+                .increment();
+    }
+}
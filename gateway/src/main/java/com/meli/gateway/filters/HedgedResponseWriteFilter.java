@@ -0,0 +1,46 @@
+package com.meli.gateway.filters;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Escribe el cuerpo de la respuesta ganadora de HedgingFilter al terminar la
+ * cadena de la ruta, como NettyWriteResponseFilter con el enrutamiento Netty.
+ *
+ * Corre fuera de los filtros de la ruta, así que el circuit breaker ya
+ * evaluó el estado: si reenvió al fallback, la respuesta ya está confirmada
+ * con el cuerpo del fallback y la escritura pendiente se descarta.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+public class HedgedResponseWriteFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).then(Mono.defer(() -> {
+            final Mono<Void> pending = exchange.getAttribute(HedgingFilter.HEDGED_RESPONSE_ATTR);
+            exchange.getAttributes().remove(HedgingFilter.HEDGED_RESPONSE_ATTR);
+            if (pending == null || exchange.getResponse().isCommitted()) {
+                return Mono.empty();
+            }
+            return pending;
+        }));
+    }
+
+    /**
+     * Mismo orden que NettyWriteResponseFilter: dentro de ResponseEncodingMetricsFilter
+     * y fuera de los filtros de la ruta.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER;
+    }
+}
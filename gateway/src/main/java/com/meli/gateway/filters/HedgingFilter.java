@@ -0,0 +1,342 @@
+package com.meli.gateway.filters;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.meli.gateway.helpers.HedgeBudget;
+import com.meli.gateway.helpers.InstanceChoice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.publisher.Mono;
+
+/**
+ * Peticiones de cobertura (hedged requests) hacia product-detail.
+ *
+ * Si la petición primaria no respondió dentro del percentil observado de su
+ * latencia ({@code percentile}, p95 por defecto, acotado entre
+ * {@code min-delay} y {@code max-delay}), se dispara una segunda petición y
+ * se responde con la primera que llegue; la perdedora se cancela (Reactor
+ * cierra su conexión). El destino de la cobertura es otra instancia del
+ * mismo servicio ({@code target: instance}) o product-detail-fallback
+ * ({@code target: fallback}).
+ *
+ * Con {@code target: instance} ambas peticiones comparten una
+ * InstanceChoice: LatencyAwareLoadBalancer envía la cobertura a una
+ * instancia distinta de la primaria y, si no hay otra sana registrada, la
+ * cobertura no se dispara. Con el round-robin
+ * ({@code application.load-balancer.latency-aware.enabled: false}) no hay
+ * esa garantía y la cobertura puede repetir la instancia de la primaria.
+ *
+ * Solo aplica a GET (idempotentes) que no piden NDJSON; el resto sigue la
+ * ruta normal. Un HedgeBudget por ruta limita las coberturas a
+ * {@code budget-ratio} de las peticiones; sin presupuesto, un error de la
+ * primaria llega tal cual al circuit breaker. Con el filtro activo, este
+ * hace las peticiones con un WebClient balanceado en lugar del enrutamiento
+ * Netty del gateway.
+ *
+ * Como el enrutamiento Netty, el filtro solo fija el estado y los headers de
+ * la respuesta ganadora y deja su cuerpo pendiente en
+ * {@link #HEDGED_RESPONSE_ATTR}; HedgedResponseWriteFilter lo escribe
+ * después de la cadena de la ruta. Así el circuit breaker evalúa el estado
+ * antes de que la respuesta se confirme y su fallback puede reemplazarla.
+ *
+ * Métricas: {@code gateway.hedging.primary} (latencia de la primaria, de
+ * donde sale el percentil), {@code gateway.hedging.requests{outcome}} y
+ * {@code gateway.hedging.hedges{result=fired|budget_exhausted|single_instance}}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+public class HedgingFilter implements GatewayFilter {
+
+    /**
+     * Atributo con la escritura pendiente del cuerpo ganador ({@code Mono<Void>}).
+     */
+    public static final String HEDGED_RESPONSE_ATTR = HedgingFilter.class.getName() + ".hedgedResponse";
+
+    private static final String METRIC_PREFIX = "gateway.hedging";
+    private static final String TARGET_FALLBACK = "fallback";
+    private static final Duration DELAY_REFRESH = Duration.ofSeconds(1);
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "transfer-encoding", "te",
+            "trailer", "upgrade", "proxy-authorization", "proxy-authenticate", "host", "content-length");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+    private final Counter hedgesFired;
+    private final Counter budgetExhausted;
+    private final Counter singleInstance;
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final boolean toFallback;
+    private final String fallbackUri;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final long minSamples;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public HedgingFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.hedging.enabled:false}") boolean enabled,
+                         @Value("${application.hedging.target:instance}") String target,
+                         @Value("${application.hedging.fallback-uri:lb://product-detail-fallback/product-detail-fallback}") String fallbackUri,
+                         @Value("${application.hedging.percentile:0.95}") double percentile,
+                         @Value("${application.hedging.min-delay:20ms}") Duration minDelay,
+                         @Value("${application.hedging.max-delay:500ms}") Duration maxDelay,
+                         @Value("${application.hedging.min-samples:100}") long minSamples,
+                         @Value("${application.hedging.budget-ratio:0.1}") double budgetRatio,
+                         @Value("${application.hedging.budget-burst:20}") int budgetBurst,
+                         @Value("${application.hedging.max-body-bytes:4MB}") DataSize maxBodyBytes) {
+        this(WebClient.builder().filter(loadBalancerExchangeFilterFunction), meterRegistry, enabled, target,
+                fallbackUri, percentile, minDelay, maxDelay, minSamples, budgetRatio, budgetBurst, maxBodyBytes,
+                System::nanoTime);
+    }
+
+    /**
+     * Constructor con el cliente y el reloj del retardo explícitos, para tests.
+     */
+    HedgingFilter(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry, boolean enabled, String target,
+                  String fallbackUri, double percentile, Duration minDelay, Duration maxDelay, long minSamples,
+                  double budgetRatio, int budgetBurst, DataSize maxBodyBytes, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.toFallback = TARGET_FALLBACK.equalsIgnoreCase(target);
+        this.fallbackUri = fallbackUri;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.minSamples = minSamples;
+        this.budgetRatio = budgetRatio;
+        this.budgetBurst = budgetBurst;
+        this.nanoTime = nanoTime;
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxBodyBytes.toBytes()))
+                .build();
+        // Registrados una vez: el camino de cada petición no busca en el registro
+        this.primaryWins = counter(meterRegistry, "requests", "outcome", "primary");
+        this.hedgeWins = counter(meterRegistry, "requests", "outcome", this.toFallback ? TARGET_FALLBACK : "hedge");
+        this.hedgesFired = counter(meterRegistry, "hedges", "result", "fired");
+        this.budgetExhausted = counter(meterRegistry, "hedges", "result", "budget_exhausted");
+        this.singleInstance = counter(meterRegistry, "hedges", "result", "single_instance");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        final var request = exchange.getRequest();
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!this.enabled || route == null || request.getMethod() != HttpMethod.GET || this.acceptsStream(request)) {
+            return chain.filter(exchange);
+        }
+        final var hedging = this.routes.computeIfAbsent(route.getId(), RouteHedging::new);
+        hedging.budget.onRequest();
+        final var primaryUri = this.primaryUri(route, request);
+        final var hedgeUri = this.toFallback ? this.fallbackUri(request) : primaryUri;
+        final var choice = this.toFallback ? null : new InstanceChoice();
+        final var primaryError = new AtomicReference<Throwable>();
+
+        final var primary = Mono.defer(() -> {
+            final var sample = Timer.start(this.meterRegistry);
+            final var recorded = new AtomicBoolean();
+            final Runnable record = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    sample.stop(hedging.latency);
+                }
+            };
+            return this.call(primaryUri, request, choice)
+                    .doOnNext(entity -> record.run())
+                    // Cancelada porque ganó la cobertura: su latencia es al menos la transcurrida
+                    .doOnCancel(record)
+                    .doOnError(primaryError::set)
+                    .map(entity -> new Outcome(this.primaryWins, entity));
+        });
+        final var hedge = Mono.delay(hedging.delay())
+                .filter(tick -> this.tryHedge(hedging, choice))
+                .flatMap(tick -> this.call(hedgeUri, request, choice))
+                .map(entity -> new Outcome(this.hedgeWins, entity));
+
+        // La primera respuesta gana; firstWithValue cancela la otra
+        return Mono.firstWithValue(primary, hedge)
+                // Sin valor (primaria fallida y cobertura fallida o sin presupuesto): el error de la primaria
+                .onErrorMap(NoSuchElementException.class,
+                        error -> primaryError.get() != null ? primaryError.get() : error)
+                .doOnNext(outcome -> {
+                    outcome.counter().increment();
+                    this.prepare(exchange, outcome.entity());
+                })
+                .then();
+    }
+
+    /**
+     * Retardo actual de la cobertura en la ruta.
+     */
+    Duration delay(String routeId) {
+        return this.routes.computeIfAbsent(routeId, RouteHedging::new).delay();
+    }
+
+    private boolean acceptsStream(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream().anyMatch(NDJSON::equalsTypeAndSubtype);
+    }
+
+    // Antes del presupuesto: una cobertura que no puede ir a otra instancia no gasta fichas
+    private boolean tryHedge(RouteHedging hedging, InstanceChoice choice) {
+        if (choice != null && !choice.hasAlternative()) {
+            this.singleInstance.increment();
+            return false;
+        }
+        if (hedging.budget.tryAcquire()) {
+            this.hedgesFired.increment();
+            return true;
+        }
+        this.budgetExhausted.increment();
+        return false;
+    }
+
+    private Mono<ResponseEntity<byte[]>> call(URI uri, ServerHttpRequest request, InstanceChoice choice) {
+        return this.webClient.get()
+                .uri(uri)
+                .attributes(attributes -> {
+                    if (choice != null) {
+                        attributes.put(InstanceChoice.ATTR, choice);
+                    }
+                })
+                .headers(headers -> request.getHeaders().forEach((name, values) -> {
+                    if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                        headers.put(name, values);
+                    }
+                }))
+                .exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+
+    // Estado y headers ahora; el cuerpo, después del circuit breaker (HedgedResponseWriteFilter)
+    private void prepare(ServerWebExchange exchange, ResponseEntity<byte[]> entity) {
+        final var response = exchange.getResponse();
+        response.setStatusCode(entity.getStatusCode());
+        // Registrados como los del enrutamiento Netty: el fallback del circuit breaker los quita
+        final Set<String> added = new HashSet<>();
+        entity.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                response.getHeaders().put(name, values);
+                added.add(name);
+            }
+        });
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES, added);
+        final var body = entity.getBody();
+        exchange.getAttributes().put(HEDGED_RESPONSE_ATTR, Mono.defer(() -> body == null
+                ? response.setComplete()
+                : response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)))));
+    }
+
+    private URI primaryUri(Route route, ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+    }
+
+    // /product-detail/detail/X -> <fallback-uri>/detail/X (el primer segmento es el servicio)
+    private URI fallbackUri(ServerHttpRequest request) {
+        final var path = request.getURI().getRawPath();
+        final var slash = path.indexOf('/', 1);
+        return UriComponentsBuilder.fromUriString(this.fallbackUri)
+                .path(slash < 0 ? "" : path.substring(slash))
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(METRIC_PREFIX + "." + name)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    private record Outcome(Counter counter, ResponseEntity<byte[]> entity) {
+    }
+
+    /**
+     * Estado de cobertura de una ruta: latencia de la primaria, retardo
+     * derivado del percentil (recalculado a lo sumo una vez por segundo) y
+     * presupuesto.
+     */
+    private final class RouteHedging {
+
+        private final Timer latency;
+        private final HedgeBudget budget;
+        private volatile long delayNanos;
+        private volatile long refreshedAt;
+
+        private RouteHedging(String routeId) {
+            this.latency = Timer.builder(METRIC_PREFIX + ".primary")
+                    .tag("route", routeId)
+                    .description("Latencia de la petición primaria (base del retardo de cobertura)")
+                    .publishPercentiles(percentile)
+                    .distributionStatisticExpiry(Duration.ofMinutes(1))
+                    .register(meterRegistry);
+            this.budget = new HedgeBudget(budgetRatio, budgetBurst);
+            this.delayNanos = maxDelay.toNanos();
+            this.refreshedAt = nanoTime.getAsLong();
+        }
+
+        Duration delay() {
+            final var now = nanoTime.getAsLong();
+            if (now - this.refreshedAt > DELAY_REFRESH.toNanos()) {
+                this.refreshedAt = now;
+                this.delayNanos = this.computeDelay();
+            }
+            return Duration.ofNanos(this.delayNanos);
+        }
+
+        // Sin suficientes muestras, max-delay: cubrirse con poca información solo agrega carga
+        private long computeDelay() {
+            final var snapshot = this.latency.takeSnapshot();
+            if (snapshot.count() < minSamples) {
+                return maxDelay.toNanos();
+            }
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == percentile) {
+                    final var observed = (long) value.value(TimeUnit.NANOSECONDS);
+                    return Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), observed));
+                }
+            }
+            return maxDelay.toNanos();
+        }
+    }
+}
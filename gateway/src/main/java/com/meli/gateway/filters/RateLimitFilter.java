@@ -0,0 +1,183 @@
+package com.meli.gateway.filters;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.meli.gateway.helpers.RateLimitKeys;
+import com.meli.gateway.helpers.RateLimitStore;
+import com.meli.gateway.helpers.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limiting local por IP del cliente y por usuario (claim sub).
+ *
+ * El filtro de IP corre antes del circuit breaker y de AuthFilter, así el
+ * tráfico que excede no llega ni a product-detail ni al auth-server. El de
+ * usuario ({@link #users()}) va justo después de AuthFilter y usa el sub que
+ * este deja en {@link AuthFilter#SUBJECT_ATTR} tras verificar la firma: un
+ * token falsificado con el sub de otro usuario se rechaza antes de cobrar, y
+ * los varios tokens de un mismo usuario comparten un solo bucket. Sin sub
+ * verificado (rutas sin AuthFilter) solo se limita la IP. Si un bucket está
+ * vacío se responde 429 con {@code Retry-After}. La decisión es local
+ * (TokenBucketRateLimiter, sin locks ni red).
+ *
+ * Una petición admitida se marca con {@link #ADMITTED_ATTR} y
+ * {@link #USER_ADMITTED_ATTR}: cuando el circuit breaker la reenvía a la
+ * ruta de fallback, que también tiene estos filtros, no se cobra dos veces.
+ *
+ * Con {@code store: local|redis} los buckets se sincronizan cada
+ * {@code sync-interval} con un RateLimitStore para que varios nodos
+ * apliquen límites aproximadamente globales; el exceso posible entre
+ * sincronizaciones es de un intervalo de tráfico por nodo.
+ *
+ * Métricas: {@code gateway.rate_limit.rejected{key=user|ip}}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class RateLimitFilter implements GatewayFilter, SmartLifecycle {
+
+    /**
+     * Atributo de las peticiones ya admitidas por el filtro.
+     */
+    public static final String ADMITTED_ATTR = RateLimitFilter.class.getName() + ".admitted";
+
+    /**
+     * Atributo de las peticiones ya admitidas por el límite de usuario.
+     */
+    public static final String USER_ADMITTED_ATTR = RateLimitFilter.class.getName() + ".userAdmitted";
+
+    private static final String METRIC_NAME = "gateway.rate_limit.rejected";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final TokenBucketRateLimiter users;
+    private final TokenBucketRateLimiter ips;
+    private final RateLimitStore store;
+    private final Duration syncInterval;
+    private final Duration syncWindow;
+    private final Counter rejectedByUser;
+    private final Counter rejectedByIp;
+    private final GatewayFilter userFilter = this::filterUser;
+    private Disposable synchronization;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           ObjectProvider<RateLimitStore> storeProvider,
+                           @Value("${application.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${application.rate-limit.user.rate:20}") double userRate,
+                           @Value("${application.rate-limit.user.burst:40}") int userBurst,
+                           @Value("${application.rate-limit.ip.rate:50}") double ipRate,
+                           @Value("${application.rate-limit.ip.burst:100}") int ipBurst,
+                           @Value("${application.rate-limit.shards:64}") int shards,
+                           @Value("${application.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${application.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Value("${application.rate-limit.sync-interval:1s}") Duration syncInterval,
+                           @Value("${application.rate-limit.sync-window:60s}") Duration syncWindow) {
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.store = storeProvider.getIfAvailable();
+        final var tracking = this.store != null;
+        this.users = new TokenBucketRateLimiter(userRate, userBurst, shards, maxKeys, tracking, System::nanoTime);
+        this.ips = new TokenBucketRateLimiter(ipRate, ipBurst, shards, maxKeys, tracking, System::nanoTime);
+        this.syncInterval = syncInterval;
+        this.syncWindow = syncWindow;
+        // Registrados una vez: el camino de rechazo no busca en el registro
+        this.rejectedByUser = Counter.builder(METRIC_NAME).tag("key", "user").register(meterRegistry);
+        this.rejectedByIp = Counter.builder(METRIC_NAME).tag("key", "ip").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!this.enabled || exchange.getAttributes().containsKey(ADMITTED_ATTR)) {
+            return chain.filter(exchange);
+        }
+        final var ipWait = this.ips.tryAcquire(RateLimitKeys.clientIp(exchange.getRequest(), this.trustForwardedFor));
+        if (ipWait > 0) {
+            this.rejectedByIp.increment();
+            return this.onLimited(exchange, ipWait);
+        }
+        exchange.getAttributes().put(ADMITTED_ATTR, Boolean.TRUE);
+        return chain.filter(exchange);
+    }
+
+    /**
+     * Límite por usuario; debe ir después de AuthFilter en la ruta.
+     *
+     * @return filtro que cobra del bucket del sub verificado
+     */
+    public GatewayFilter users() {
+        return this.userFilter;
+    }
+
+    private Mono<Void> filterUser(ServerWebExchange exchange, GatewayFilterChain chain) {
+        final String subject = exchange.getAttribute(AuthFilter.SUBJECT_ATTR);
+        if (!this.enabled || subject == null || exchange.getAttributes().containsKey(USER_ADMITTED_ATTR)) {
+            return chain.filter(exchange);
+        }
+        final var userWait = this.users.tryAcquire(subject);
+        if (userWait > 0) {
+            this.rejectedByUser.increment();
+            return this.onLimited(exchange, userWait);
+        }
+        exchange.getAttributes().put(USER_ADMITTED_ATTR, Boolean.TRUE);
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> onLimited(ServerWebExchange exchange, long waitNanos) {
+        final var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        // Redondeo hacia arriba: reintentar antes seguiría rechazado
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND)));
+        return response.setComplete();
+    }
+
+    // Una sincronización a la vez (concatMap); un fallo del store solo deja los límites en local
+    @Override
+    public synchronized void start() {
+        if (this.store == null || this.synchronization != null) {
+            return;
+        }
+        this.synchronization = Flux.interval(this.syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.when(
+                                this.users.synchronize(this.store, this.syncWindow),
+                                this.ips.synchronize(this.store, this.syncWindow))
+                        .onErrorResume(ex -> {
+                            log.warn("No se pudo sincronizar el rate limiting: {}", ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (this.synchronization != null) {
+            this.synchronization.dispose();
+            this.synchronization = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return this.synchronization != null;
+    }
+}
@@ -0,0 +1,417 @@
+package com.meli.gateway.filters;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.meli.gateway.helpers.ResponseCachePolicy;
+import com.meli.gateway.helpers.ResponseCachePolicy.Lifetime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché compartida de respuestas GET en el borde, por ruta, path y query.
+ *
+ * Se agrega a la ruta después de AuthFilter, así que el token se valida
+ * antes de consultar la caché: una petición sin autorización nunca recibe
+ * una respuesta guardada. La llave no incluye Authorization: solo se
+ * guardan respuestas a peticiones autorizadas que el servicio marca como
+ * compartibles ({@code public}, {@code s-maxage} o {@code must-revalidate},
+ * RFC 9111 sección 3.5), como el detalle de producto, que no depende del
+ * usuario. Sí incluye Accept y Accept-Encoding, que eligen la
+ * representación (JSON/CBOR/Smile, zstd/br/gzip).
+ *
+ * Respeta Cache-Control y ETag del servicio (ver ResponseCachePolicy):
+ * <ul>
+ *   <li>fresca: se responde desde la caché ({@code X-Cache: HIT}), con 304 si
+ *       el If-None-Match del cliente coincide;</li>
+ *   <li>vencida dentro de stale-while-revalidate: se responde la copia
+ *       ({@code X-Cache: STALE}) y se revalida en segundo plano con
+ *       If-None-Match, una sola revalidación por llave;</li>
+ *   <li>ausente o demasiado vieja: se reenvía al servicio y la respuesta se
+ *       guarda al pasar, sin retrasar su escritura ({@code X-Cache: MISS}).</li>
+ * </ul>
+ * El tamaño se acota por bytes y por entradas: cada entrada pesa al menos
+ * {@code maximum-bytes / maximum-entries}, así el límite de peso también
+ * limita la cantidad. Las respuestas mayores a {@code max-entry-bytes} no se
+ * guardan.
+ *
+ * Métricas: {@code gateway.response_cache} (hit ratio y desalojos de
+ * Caffeine) y {@code gateway.response_cache.requests{result}}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GatewayFilter {
+
+    private static final String CACHE_NAME = "gateway.response_cache";
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final Set<String> UNCACHED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "age", "x-cache");
+
+    /**
+     * Respuesta guardada.
+     *
+     * @param status   estado (200)
+     * @param headers  headers de extremo a extremo, sin hop-by-hop
+     * @param body     cuerpo tal cual llegó (posiblemente comprimido)
+     * @param etag     ETag del servicio, o null
+     * @param storedAt instante de almacenamiento (System.nanoTime)
+     * @param lifetime frescura y ventana de stale-while-revalidate
+     */
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, long storedAt,
+                          Lifetime lifetime) {
+
+        boolean isFresh(long now) {
+            return now - storedAt < lifetime.fresh().toNanos();
+        }
+
+        boolean isServableStale(long now) {
+            return now - storedAt < lifetime.total().toNanos();
+        }
+
+        long ageSeconds(long now) {
+            return TimeUnit.NANOSECONDS.toSeconds(now - storedAt);
+        }
+    }
+
+    private final WebClient webClient;
+    private final Cache<String, CachedResponse> cache;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final Duration defaultTtl;
+    private final Duration defaultStale;
+    private final Duration revalidateTimeout;
+    private final Ticker ticker;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter revalidations;
+
+    @Autowired
+    public ResponseCacheFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.response-cache.enabled:true}") boolean enabled,
+                               @Value("${application.response-cache.maximum-entries:10000}") long maximumEntries,
+                               @Value("${application.response-cache.maximum-bytes:64MB}") DataSize maximumBytes,
+                               @Value("${application.response-cache.max-entry-bytes:512KB}") DataSize maxEntryBytes,
+                               @Value("${application.response-cache.default-ttl:5s}") Duration defaultTtl,
+                               @Value("${application.response-cache.stale-while-revalidate:30s}") Duration defaultStale,
+                               @Value("${application.response-cache.revalidate-timeout:2s}") Duration revalidateTimeout) {
+        this(WebClient.builder().filter(loadBalancerExchangeFilterFunction), meterRegistry, enabled, maximumEntries,
+                maximumBytes, maxEntryBytes, defaultTtl, defaultStale, revalidateTimeout, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructor con el cliente de revalidación y el reloj explícitos, para tests.
+     */
+    ResponseCacheFilter(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry, boolean enabled,
+                        long maximumEntries, DataSize maximumBytes, DataSize maxEntryBytes, Duration defaultTtl,
+                        Duration defaultStale, Duration revalidateTimeout, Ticker ticker) {
+        this.enabled = enabled;
+        this.maxEntryBytes = (int) maxEntryBytes.toBytes();
+        this.defaultTtl = defaultTtl;
+        this.defaultStale = defaultStale;
+        this.revalidateTimeout = revalidateTimeout;
+        this.ticker = ticker;
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(this.maxEntryBytes))
+                .build();
+        final var minimumWeight = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, maximumBytes.toBytes() / Math.max(1, maximumEntries)));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes.toBytes())
+                .weigher((String key, CachedResponse response) -> weight(minimumWeight, key, response))
+                .expireAfter(new LifetimeExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+        // Registrados una vez: el camino de un hit no busca en el registro
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.bypasses = requests(meterRegistry, "bypass");
+        this.revalidations = requests(meterRegistry, "revalidated");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        final var request = exchange.getRequest();
+        if (!this.enabled || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        final var key = this.key(exchange);
+        if (ResponseCachePolicy.bypass(request.getHeaders())) {
+            this.bypasses.increment();
+            return ResponseCachePolicy.noStore(request.getHeaders())
+                    ? chain.filter(exchange)
+                    : this.forward(exchange, chain, key);
+        }
+        final var cached = this.cache.getIfPresent(key);
+        final var now = this.ticker.read();
+        if (cached != null && cached.isFresh(now)) {
+            this.hits.increment();
+            return this.serve(exchange, cached, now, "HIT");
+        }
+        if (cached != null && cached.isServableStale(now)) {
+            this.staleHits.increment();
+            this.revalidate(exchange, key, cached);
+            return this.serve(exchange, cached, now, "STALE");
+        }
+        this.misses.increment();
+        return this.forward(exchange, chain, key);
+    }
+
+    private String key(ServerWebExchange exchange) {
+        final var request = exchange.getRequest();
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        final var key = new StringBuilder(route == null ? "" : route.getId())
+                .append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : ResponseCachePolicy.KEY_HEADERS) {
+            final var value = request.getHeaders().getFirst(header);
+            key.append('\n').append(value == null ? "" : value.toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, long now, String cacheStatus) {
+        final var response = exchange.getResponse();
+        final var headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(now)));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        final var ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ResponseCachePolicy.notModified(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+        final var authorized = exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+        final var capturing = new CapturingResponse(exchange.getResponse(), key, authorized);
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private void store(String key, HttpStatusCode status, HttpHeaders headers, byte[] body, boolean authorized) {
+        final var lifetime = ResponseCachePolicy.lifetime(status, headers, authorized, this.defaultTtl, this.defaultStale);
+        if (lifetime == null) {
+            this.cache.invalidate(key);
+            return;
+        }
+        final var stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.put(name, values);
+            }
+        });
+        this.cache.put(key, new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body,
+                headers.getETag(), this.ticker.read(), lifetime));
+    }
+
+    /**
+     * Peso de una entrada en bytes aproximados, nunca menor que
+     * {@code maximum-bytes / maximum-entries}.
+     */
+    static int weight(int minimumWeight, String key, CachedResponse response) {
+        return Math.max(minimumWeight, ENTRY_OVERHEAD_BYTES + key.length() + response.body().length);
+    }
+
+    /**
+     * Caché subyacente, para tests.
+     */
+    Cache<String, CachedResponse> cache() {
+        return this.cache;
+    }
+
+    /**
+     * Revalida en segundo plano una entrada vencida con el mismo destino de
+     * la ruta (lb://...), una sola vez por llave; los errores dejan la copia
+     * vencida hasta que expire su ventana.
+     */
+    private void revalidate(ServerWebExchange exchange, String key, CachedResponse cached) {
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !this.revalidating.add(key)) {
+            return;
+        }
+        final var request = exchange.getRequest();
+        this.webClient.get()
+                .uri(this.upstreamUri(route, request))
+                .headers(headers -> {
+                    this.copy(request, headers, HttpHeaders.AUTHORIZATION);
+                    ResponseCachePolicy.KEY_HEADERS.forEach(name -> this.copy(request, headers, name));
+                    if (cached.etag() != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+                    }
+                })
+                .exchangeToMono(response -> this.revalidated(key, cached, response,
+                        request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)))
+                .timeout(this.revalidateTimeout)
+                .doFinally(signal -> this.revalidating.remove(key))
+                .subscribe(
+                        result -> this.revalidations.increment(),
+                        error -> log.debug("Revalidation of {} failed: {}", request.getURI(), error.getMessage()));
+    }
+
+    private Mono<Boolean> revalidated(String key, CachedResponse cached, ClientResponse response, boolean authorized) {
+        final var status = response.statusCode();
+        if (status.value() == HttpStatus.NOT_MODIFIED.value()) {
+            // Mismo cuerpo; los headers del 304 actualizan Cache-Control y ETag (no Content-Length)
+            final var headers = new HttpHeaders();
+            headers.putAll(cached.headers());
+            response.headers().asHttpHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.put(name, values);
+                }
+            });
+            this.store(key, cached.status(), headers, cached.body(), authorized);
+            return response.releaseBody().thenReturn(true);
+        }
+        if (status.value() == HttpStatus.OK.value()) {
+            final var headers = response.headers().asHttpHeaders();
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        this.store(key, status, headers, body, authorized);
+                        return true;
+                    });
+        }
+        return response.releaseBody().thenReturn(false);
+    }
+
+    private URI upstreamUri(Route route, ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+    }
+
+    private void copy(ServerHttpRequest request, HttpHeaders target, String name) {
+        final var values = request.getHeaders().get(name);
+        if (values != null) {
+            target.put(name, values);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CACHE_NAME + ".requests")
+                .tag("result", result)
+                .description("Peticiones GET por resultado de la caché de respuestas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Respuesta que copia el cuerpo mientras se escribe al cliente y lo
+     * guarda al terminar si la política lo permite.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final boolean authorized;
+
+        private CapturingResponse(ServerHttpResponse delegate, String key, boolean authorized) {
+            super(delegate);
+            this.key = key;
+            this.authorized = authorized;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            final var status = this.getStatusCode();
+            final var headers = this.getHeaders();
+            if (ResponseCachePolicy.lifetime(status, headers, this.authorized, defaultTtl, defaultStale) == null) {
+                return super.writeWith(body);
+            }
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            final var copy = new ByteArrayOutputStream();
+            final var overflow = new AtomicBoolean();
+            final var tee = Flux.from(body).doOnNext(buffer -> {
+                final var length = buffer.readableByteCount();
+                if (overflow.get() || copy.size() + length > maxEntryBytes) {
+                    overflow.set(true);
+                    return;
+                }
+                final var bytes = ByteBuffer.allocate(length);
+                buffer.toByteBuffer(buffer.readPosition(), bytes, 0, length);
+                copy.write(bytes.array(), 0, length);
+            });
+            return super.writeWith(tee).doOnSuccess(done -> {
+                if (!overflow.get()) {
+                    store(this.key, status, headers, copy.toByteArray(), this.authorized);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cada entrada vive su frescura más la ventana de stale-while-revalidate.
+     */
+    private static final class LifetimeExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.lifetime().total().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.lifetime().total().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
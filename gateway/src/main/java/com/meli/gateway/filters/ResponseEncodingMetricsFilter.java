@@ -0,0 +1,116 @@
+package com.meli.gateway.filters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mide los bytes que el gateway entrega al cliente por respuesta.
+ *
+ * El gateway no comprime ni descomprime: reenvía Accept-Encoding a los
+ * servicios y devuelve el cuerpo tal cual llega, con su Content-Encoding
+ * (variantes zstd/br/gzip precomprimidas por product-detail o gzip de Tomcat).
+ * Este filtro solo cuenta los bytes que pasan, sin tocarlos.
+ *
+ * Métrica {@code gateway.response.bytes{route, encoding}}, con
+ * {@code encoding=identity} para cuerpos sin comprimir.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+public class ResponseEncodingMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final String METRIC_NAME = "gateway.response.bytes";
+    private static final String IDENTITY = "identity";
+    private static final String UNKNOWN_ROUTE = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    // route -> encoding -> resumen; cada combinación se registra una sola vez
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public ResponseEncodingMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        final var bytes = new AtomicLong();
+        final var response = new CountingResponse(exchange.getResponse(), bytes);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> this.record(exchange, response, bytes.get()));
+    }
+
+    private void record(ServerWebExchange exchange, ServerHttpResponse response, long bytes) {
+        final var encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        final var routeId = route == null ? UNKNOWN_ROUTE : route.getId();
+        this.summaries.computeIfAbsent(routeId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(encoding == null ? IDENTITY : encoding, value -> this.summary(routeId, value))
+                .record(bytes);
+    }
+
+    private DistributionSummary summary(String routeId, String encoding) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .tag("route", routeId)
+                .tag("encoding", encoding)
+                .baseUnit("bytes")
+                .description("Bytes del cuerpo entregados al cliente por respuesta")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Antes de NettyWriteResponseFilter, para que la escritura pase por el decorador.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Respuesta que cuenta los bytes escritos sin modificarlos.
+     */
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicLong bytes;
+
+        private CountingResponse(ServerHttpResponse delegate, AtomicLong bytes) {
+            super(delegate);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(this.count(body));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Respuestas en streaming (NDJSON): cada tramo se cuenta al pasar
+            return super.writeAndFlushWith(Flux.from(body).map(this::count));
+        }
+
+        private Flux<? extends DataBuffer> count(Publisher<? extends DataBuffer> body) {
+            return Flux.from(body).doOnNext(buffer -> this.bytes.addAndGet(buffer.readableByteCount()));
+        }
+    }
+}
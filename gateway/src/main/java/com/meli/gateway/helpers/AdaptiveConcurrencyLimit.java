@@ -0,0 +1,157 @@
+package com.meli.gateway.helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de concurrencia adaptativo por gradiente de RTT (al estilo Gradient2
+ * de Netflix concurrency-limits), con recorte multiplicativo ante fallas.
+ *
+ * Cada ventana ({@code window}, con al menos {@code minSamples} muestras)
+ * compara el RTT promedio de la ventana contra un promedio de largo plazo:
+ * si la latencia sube porque el servicio empieza a encolar, el gradiente
+ * {@code tolerance * largo / corto} baja de 1 y el límite se reduce; si no,
+ * crece en {@code sqrt(limit)} (margen de cola). Una ventana con peticiones
+ * fallidas (timeout, 503/504) aplica {@code limit * backoff} como en AIMD.
+ * Si la ventana no usó ni la mitad del límite, este no crece: sin carga no
+ * hay evidencia de que el servicio aguante más.
+ *
+ * Las prioridades se resuelven con cuotas: una petición de prioridad con
+ * cuota 0.5 solo entra si las peticiones en curso no pasan de la mitad del
+ * límite, dejando el resto para las de cuota 1.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double LONG_RTT_WEIGHT = 0.05;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final long windowNanos;
+    private final int minSamples;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Ventana actual y RTT de largo plazo, protegidos por this
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private double longRtt;
+
+    /**
+     * @param initialLimit límite inicial
+     * @param minLimit     límite mínimo
+     * @param maxLimit     límite máximo
+     * @param tolerance    cuánto puede crecer el RTT sobre el de largo plazo antes de recortar (2 = el doble)
+     * @param backoff      factor aplicado al límite en ventanas con fallas
+     * @param windowNanos  duración mínima de una ventana
+     * @param minSamples   muestras mínimas de una ventana
+     * @param clock        reloj en nanosegundos
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff,
+                                    long windowNanos, int minSamples, LongSupplier clock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1, tolerance);
+        this.backoff = backoff;
+        this.windowNanos = windowNanos;
+        this.minSamples = Math.max(1, minSamples);
+        this.clock = clock;
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Intenta ocupar un lugar.
+     *
+     * @param share fracción del límite disponible para la prioridad de la petición (0 a 1)
+     * @return true si la petición entra; debe liberarse con {@link #release}
+     */
+    public boolean tryAcquire(double share) {
+        final var allowed = Math.max(1, (int) (this.limit * share));
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Libera el lugar sin registrar muestra (petición cancelada por el cliente).
+     */
+    public void release() {
+        this.inFlight.decrementAndGet();
+    }
+
+    /**
+     * Libera el lugar y registra la muestra.
+     *
+     * @param rttNanos duración de la petición
+     * @param dropped  true si falló por sobrecarga o timeout
+     */
+    public void release(long rttNanos, boolean dropped) {
+        final var inFlightAtEnd = this.inFlight.getAndDecrement();
+        synchronized (this) {
+            this.windowRttSum += rttNanos;
+            this.windowSamples++;
+            this.windowMaxInFlight = Math.max(this.windowMaxInFlight, inFlightAtEnd);
+            this.windowDropped |= dropped;
+            final var now = this.clock.getAsLong();
+            if (now - this.windowStart >= this.windowNanos && this.windowSamples >= this.minSamples) {
+                this.update();
+                this.windowStart = now;
+                this.windowRttSum = 0;
+                this.windowSamples = 0;
+                this.windowMaxInFlight = 0;
+                this.windowDropped = false;
+            }
+        }
+    }
+
+    private void update() {
+        final var current = this.limit;
+        if (this.windowDropped) {
+            this.limit = this.clamp(current * this.backoff);
+            return;
+        }
+        final double shortRtt = (double) this.windowRttSum / this.windowSamples;
+        if (this.longRtt == 0) {
+            this.longRtt = shortRtt;
+        } else {
+            this.longRtt += (shortRtt - this.longRtt) * LONG_RTT_WEIGHT;
+            // Tras una degradación larga el promedio queda alto; se recupera rápido cuando el servicio mejora
+            if (this.longRtt / shortRtt > 2) {
+                this.longRtt *= 0.95;
+            }
+        }
+        if (this.windowMaxInFlight < current / 2) {
+            return;
+        }
+        final var gradient = Math.max(0.5, Math.min(1.0, this.tolerance * this.longRtt / shortRtt));
+        final var target = current * gradient + Math.sqrt(current);
+        this.limit = this.clamp(current * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private double clamp(double value) {
+        return Math.max(this.minLimit, Math.min(this.maxLimit, value));
+    }
+
+    public int limit() {
+        return (int) this.limit;
+    }
+
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+}
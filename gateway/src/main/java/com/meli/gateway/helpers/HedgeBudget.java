@@ -0,0 +1,58 @@
+package com.meli.gateway.helpers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de peticiones de cobertura (hedging), al estilo de los retry
+ * budgets: cada petición primaria deposita {@code ratio} fichas y cada
+ * cobertura consume una, con un máximo de {@code burst} acumuladas.
+ *
+ * Con ratio 0.1 las coberturas no superan ~10% de las peticiones en régimen
+ * estable, aunque el servicio entero se vuelva lento (que es justo cuando
+ * duplicar carga haría más daño). Las fichas se llevan en milésimas en un
+ * AtomicLong: sin locks en el camino de cada petición.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio fichas por petición primaria (0.1 = una cobertura cada 10 peticiones)
+     * @param burst máximo de coberturas acumulables; el presupuesto empieza lleno
+     */
+    public HedgeBudget(double ratio, int burst) {
+        this.deposit = Math.max(0, Math.round(ratio * TOKEN));
+        this.capacity = Math.max(1, burst) * TOKEN;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * Registra una petición primaria.
+     */
+    public void onRequest() {
+        this.balance.accumulateAndGet(this.deposit, (current, added) -> Math.min(this.capacity, current + added));
+    }
+
+    /**
+     * Intenta consumir una ficha para disparar una cobertura.
+     *
+     * @return true si hay presupuesto
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = this.balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!this.balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
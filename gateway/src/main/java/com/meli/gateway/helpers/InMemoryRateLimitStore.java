@@ -0,0 +1,43 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * RateLimitStore en memoria ({@code application.rate-limit.store: local}).
+ *
+ * Sustituto local del store compartido: en un solo nodo no cambia los
+ * límites, pero permite ejercitar la sincronización en desarrollo y en
+ * tests (varios limitadores en la misma JVM). Los contadores de ventanas
+ * anteriores a la previa se descartan en cada llamada.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.store", havingValue = "local")
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<WindowKey, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Map<String, Long>> add(long window, Map<String, Long> deltas, Duration ttl) {
+        this.counters.keySet().removeIf(key -> key.window() < window - 1);
+        final Map<String, Long> totals = new HashMap<>(deltas.size());
+        deltas.forEach((key, delta) -> totals.put(key, this.counters
+                .computeIfAbsent(new WindowKey(window, key), k -> new AtomicLong())
+                .addAndGet(delta)));
+        return Mono.just(totals);
+    }
+
+    private record WindowKey(long window, String key) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.meli.gateway.helpers;
+
+/**
+ * Instancia elegida por LatencyAwareLoadBalancer para la petición primaria
+ * de HedgingFilter, compartida con su cobertura.
+ *
+ * HedgingFilter pone la misma InstanceChoice en el atributo {@link #ATTR} de
+ * ambas peticiones del WebClient balanceado. La primera que pasa por el
+ * balanceador registra su instancia y si había otras sanas; la siguiente se
+ * envía a una instancia distinta, y sin alternativa HedgingFilter no se cubre
+ * (repetir en la misma instancia lenta solo le suma carga).
+ *
+ * Con el round-robin de Spring Cloud LoadBalancer
+ * ({@code application.load-balancer.latency-aware.enabled: false}) nadie
+ * registra la elección y la cobertura puede caer en la misma instancia.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class InstanceChoice {
+
+    /**
+     * Atributo de petición del WebClient con la InstanceChoice compartida.
+     */
+    public static final String ATTR = InstanceChoice.class.getName();
+
+    private String instance;
+    private boolean alternatives = true;
+
+    /**
+     * @return false solo si el balanceador ya eligió y no había otra instancia sana
+     */
+    public synchronized boolean hasAlternative() {
+        return this.alternatives;
+    }
+
+    /**
+     * @return instancia elegida para la primera petición, o null si aún no la hay
+     */
+    synchronized String excluded() {
+        return this.instance;
+    }
+
+    /**
+     * Registra la elección de la primera petición; las siguientes no la cambian.
+     */
+    synchronized void chosen(String instance, boolean alternatives) {
+        if (this.instance == null) {
+            this.instance = instance;
+            this.alternatives = alternatives;
+        }
+    }
+}
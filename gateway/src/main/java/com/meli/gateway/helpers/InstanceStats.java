@@ -0,0 +1,88 @@
+package com.meli.gateway.helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estadísticas vivas de una instancia para LatencyAwareLoadBalancer.
+ *
+ * Lleva las peticiones en curso y dos promedios exponenciales ponderados por
+ * tiempo: la latencia (EWMA "pico": una muestra mayor al promedio lo
+ * reemplaza de inmediato, para reaccionar rápido a una instancia que se
+ * degrada) y la tasa de error. Al leerlos, ambos decaen con el tiempo sin
+ * muestras, así una instancia evitada vuelve a recibir tráfico de prueba y
+ * su mala racha no queda congelada.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class InstanceStats {
+
+    // Peso mínimo de cada muestra: con ráfagas muy seguidas el peso por tiempo
+    // sería casi nulo; los errores pesan más para evitar pronto una instancia caída
+    private static final double MIN_LATENCY_WEIGHT = 0.05;
+    private static final double MIN_ERROR_WEIGHT = 0.2;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final double latencyDecayNanos;
+    private final double errorDecayNanos;
+    private volatile double latencyNanos;
+    private volatile double errorRate;
+    private volatile long updatedAt;
+
+    /**
+     * @param latencyDecayNanos constante de tiempo del promedio de latencia
+     * @param errorDecayNanos   constante de tiempo de la tasa de error
+     * @param now               instante de creación (nanoTime)
+     */
+    public InstanceStats(long latencyDecayNanos, long errorDecayNanos, long now) {
+        this.latencyDecayNanos = Math.max(1, latencyDecayNanos);
+        this.errorDecayNanos = Math.max(1, errorDecayNanos);
+        this.updatedAt = now;
+    }
+
+    public void started() {
+        this.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Registra una petición terminada.
+     *
+     * @param latency duración en nanosegundos
+     * @param error   true si falló (excepción o 5xx)
+     * @param now     instante actual (nanoTime)
+     */
+    public synchronized void completed(long latency, boolean error, long now) {
+        this.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        final var elapsed = Math.max(0, now - this.updatedAt);
+        final var latencyWeight = 1 - Math.exp(-elapsed / this.latencyDecayNanos);
+        final var errorWeight = 1 - Math.exp(-elapsed / this.errorDecayNanos);
+        final var current = this.latencyNanos;
+        this.latencyNanos = latency > current ? latency : current + (latency - current) * Math.max(latencyWeight, MIN_LATENCY_WEIGHT);
+        this.errorRate = this.errorRate + ((error ? 1 : 0) - this.errorRate) * Math.max(errorWeight, MIN_ERROR_WEIGHT);
+        this.updatedAt = now;
+    }
+
+    /**
+     * Costo de enviar una petición más: latencia esperada por la cola que ya tiene.
+     *
+     * @param now instante actual (nanoTime)
+     */
+    public double cost(long now) {
+        final var idle = Math.max(0, now - this.updatedAt);
+        final var latency = this.latencyNanos * Math.exp(-idle / this.latencyDecayNanos);
+        return (latency + 1) * (this.inFlight.get() + 1);
+    }
+
+    /**
+     * @param now instante actual (nanoTime)
+     * @return tasa de error reciente, entre 0 y 1
+     */
+    public double errorRate(long now) {
+        final var idle = Math.max(0, now - this.updatedAt);
+        return this.errorRate * Math.exp(-idle / this.errorDecayNanos);
+    }
+
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+}
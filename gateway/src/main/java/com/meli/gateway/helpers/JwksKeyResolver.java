@@ -0,0 +1,156 @@
+package com.meli.gateway.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resuelve llaves públicas ES256 por {@code kid} desde el JWKS del auth-server.
+ *
+ * Mantiene un parser por llave publicada; un kid desconocido (rotación) o un
+ * JWKS con más de {@link #REFRESH_INTERVAL} de antigüedad dispara una única
+ * recarga compartida por todas las peticiones concurrentes.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class JwksKeyResolver {
+
+    private static final String JWKS_URI = "lb://auth-server/auth-server/auth/.well-known/jwks.json";
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(5);
+    // Evita que tokens con kid inventado provoquen una recarga por petición
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final WebClient webClient;
+
+    private volatile Map<String, JwtParser> parsers = Map.of();
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    private Mono<Map<String, JwtParser>> inFlightRefresh;
+
+    public JwksKeyResolver(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction) {
+        this(WebClient.builder()
+                .filter(loadBalancerExchangeFilterFunction)
+                .build());
+    }
+
+    // Para tests: cliente que resuelve lb://auth-server sin load balancer
+    JwksKeyResolver(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * @param keyId header kid del token
+     * @return parser para la llave indicada o vacío si el auth-server no la publica
+     */
+    public Mono<JwtParser> resolve(String keyId) {
+        final var now = Instant.now();
+        final var parser = this.parsers.get(keyId);
+        if (parser != null) {
+            if (now.isAfter(this.lastRefresh.plus(REFRESH_INTERVAL))) {
+                // Recarga en segundo plano para retirar llaves que salieron de la rotación
+                this.refresh().subscribe(keys -> { }, ex -> { });
+            }
+            return Mono.just(parser);
+        }
+        final var pending = this.inFlight();
+        if (pending != null) {
+            // Se une a la recarga en curso en lugar de rechazar el token
+            return pending.mapNotNull(keys -> keys.get(keyId));
+        }
+        if (now.isBefore(this.lastRefresh.plus(MIN_REFRESH_INTERVAL))) {
+            return Mono.empty();
+        }
+        return this.refresh().mapNotNull(keys -> keys.get(keyId));
+    }
+
+    private synchronized Mono<Map<String, JwtParser>> inFlight() {
+        return this.inFlightRefresh;
+    }
+
+    private synchronized Mono<Map<String, JwtParser>> refresh() {
+        if (this.inFlightRefresh == null) {
+            this.inFlightRefresh = this.webClient
+                    .get()
+                    .uri(JWKS_URI)
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .map(this::toParsers)
+                    .doOnNext(keys -> {
+                        this.parsers = keys;
+                        log.info("JWKS reloaded ({} keys)", keys.size());
+                    })
+                    .doOnError(ex -> log.error("Unable to load JWKS: {}", ex.getMessage()))
+                    .doFinally(signal -> this.clearInFlight())
+                    .cache();
+            this.lastRefresh = Instant.now();
+        }
+        return this.inFlightRefresh;
+    }
+
+    private synchronized void clearInFlight() {
+        this.inFlightRefresh = null;
+    }
+
+    private Map<String, JwtParser> toParsers(JsonNode jwks) {
+        final var result = new HashMap<String, JwtParser>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            if (!"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())) {
+                continue;
+            }
+            try {
+                final var point = new ECPoint(this.decodeCoordinate(jwk.path("x").asText()),
+                        this.decodeCoordinate(jwk.path("y").asText()));
+                final var parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec("secp256r1"));
+                final var spec = parameters.getParameterSpec(ECParameterSpec.class);
+                if (!this.isOnCurve(point, spec)) {
+                    throw new IllegalArgumentException("point is not on P-256");
+                }
+                final var publicKey = KeyFactory.getInstance("EC")
+                        .generatePublic(new ECPublicKeySpec(point, spec));
+                result.put(jwk.path("kid").asText(), Jwts.parserBuilder().setSigningKey(publicKey).build());
+            } catch (Exception e) {
+                log.error("Ignoring invalid JWK {}: {}", jwk.path("kid").asText(), e.getMessage());
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    // KeyFactory no valida que el punto pertenezca a la curva
+    private boolean isOnCurve(ECPoint point, ECParameterSpec spec) {
+        final var curve = spec.getCurve();
+        final var p = ((ECFieldFp) curve.getField()).getP();
+        final var x = point.getAffineX();
+        final var y = point.getAffineY();
+        if (x.signum() < 0 || x.compareTo(p) >= 0 || y.signum() < 0 || y.compareTo(p) >= 0) {
+            return false;
+        }
+        final var right = x.pow(3).add(curve.getA().multiply(x)).add(curve.getB()).mod(p);
+        return y.pow(2).mod(p).equals(right);
+    }
+
+    private BigInteger decodeCoordinate(String value) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+}
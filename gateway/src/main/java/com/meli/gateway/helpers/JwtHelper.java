@@ -0,0 +1,174 @@
+package com.meli.gateway.helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Helper para la validación local de tokens JWT en el gateway.
+ *
+ * Verifica la firma y la expiración del token sin consultar al auth-server.
+ * Las llaves se obtienen del config-server ({@code application.jwt.secret} y,
+ * durante una rotación, {@code application.jwt.previous-secrets}) y se
+ * reconstruyen cuando cambia el entorno (POST /actuator/refresh).
+ *
+ * Con {@code application.jwt.algorithm: ES256} el gateway no conoce ningún
+ * secreto: la llave pública se selecciona por el header kid desde el JWKS
+ * publicado por el auth-server.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class JwtHelper implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final String JWT_PROPERTIES_PREFIX = "application.jwt.";
+    private static final String SECRET_PROPERTY = "application.jwt.secret";
+    private static final String PREVIOUS_SECRETS_PROPERTY = "application.jwt.previous-secrets";
+    private static final String ALGORITHM_PROPERTY = "application.jwt.algorithm";
+    private static final String ES256 = "ES256";
+
+    private final Environment environment;
+    private final JwksKeyResolver jwksKeyResolver;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Parsers inmutables y thread-safe: llave vigente primero, luego las anteriores
+    private volatile List<JwtParser> parsers;
+
+    private volatile boolean asymmetric;
+
+    public JwtHelper(Environment environment, JwksKeyResolver jwksKeyResolver) {
+        this.environment = environment;
+        this.jwksKeyResolver = jwksKeyResolver;
+        this.asymmetric = this.isAsymmetric();
+        this.parsers = this.buildParsers();
+    }
+
+    /**
+     * Valida firma y expiración del token con las llaves configuradas.
+     *
+     * @param token JWT recibido en el header Authorization
+     * @return Mono con true si alguna llave vigente valida la firma y el token no ha expirado
+     */
+    public Mono<Boolean> validateToken(String token) {
+        return this.verify(token).hasElement();
+    }
+
+    /**
+     * Verifica firma y expiración del token y entrega sus claims.
+     *
+     * @param token JWT recibido en el header Authorization
+     * @return Mono con los claims verificados (de donde sale el sub), o vacío si el token no es válido
+     */
+    public Mono<Claims> verify(String token) {
+        if (!this.asymmetric) {
+            return Mono.justOrEmpty(this.verifyHmacToken(token));
+        }
+        final var keyId = this.readKeyId(token);
+        if (keyId == null) {
+            return Mono.empty();
+        }
+        return this.jwksKeyResolver.resolve(keyId)
+                .mapNotNull(parser -> this.verifyWith(parser, token))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Claims verifyHmacToken(String token) {
+        final var currentParsers = this.parsers;
+        if (currentParsers.isEmpty()) {
+            log.error("Local JWT validation requested but {} is not configured", SECRET_PROPERTY);
+            return null;
+        }
+        for (JwtParser parser : currentParsers) {
+            try {
+                return withExpiration(parser.parseClaimsJws(token).getBody());
+            } catch (SignatureException e) {
+                // Firmado con otra llave: probar con la siguiente de la rotación
+            } catch (Exception e) {
+                log.error("JWT token validation failed: {}", e.getMessage());
+                return null;
+            }
+        }
+        log.error("JWT token validation failed: signature does not match any configured key");
+        return null;
+    }
+
+    private Claims verifyWith(JwtParser parser, String token) {
+        try {
+            return withExpiration(parser.parseClaimsJws(token).getBody());
+        } catch (Exception e) {
+            log.error("JWT token validation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Claims withExpiration(Claims claims) {
+        return claims.getExpiration() != null ? claims : null;
+    }
+
+    private String readKeyId(String token) {
+        try {
+            final var header = token.substring(0, token.indexOf('.'));
+            return this.objectMapper.readTree(Base64.getUrlDecoder().decode(header)).path("kid").textValue();
+        } catch (Exception e) {
+            log.error("JWT token validation failed: unreadable header");
+            return null;
+        }
+    }
+
+    private boolean isAsymmetric() {
+        return ES256.equalsIgnoreCase(this.environment.getProperty(ALGORITHM_PROPERTY));
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(JWT_PROPERTIES_PREFIX))) {
+            this.asymmetric = this.isAsymmetric();
+            this.parsers = this.buildParsers();
+            log.info("JWT verification keys reloaded ({} active)", this.parsers.size());
+        }
+    }
+
+    private List<JwtParser> buildParsers() {
+        final var secrets = new ArrayList<String>();
+        final var secret = this.environment.getProperty(SECRET_PROPERTY);
+        if (StringUtils.hasText(secret)) {
+            secrets.add(secret);
+        }
+        final var previousSecrets = this.environment.getProperty(PREVIOUS_SECRETS_PROPERTY, String[].class);
+        if (previousSecrets != null) {
+            for (String previous : previousSecrets) {
+                if (StringUtils.hasText(previous)) {
+                    secrets.add(previous);
+                }
+            }
+        }
+        final var result = new ArrayList<JwtParser>();
+        for (String value : secrets) {
+            try {
+                result.add(Jwts.parserBuilder()
+                        .setSigningKey(Keys.hmacShaKeyFor(value.getBytes(StandardCharsets.UTF_8)))
+                        .build());
+            } catch (Exception e) {
+                log.error("Ignoring invalid JWT verification key: {}", e.getMessage());
+            }
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,217 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Balanceador por latencia para las rutas lb:// (reemplaza el round-robin).
+ *
+ * Elige con "power of two choices": toma dos instancias al azar y se queda
+ * con la de menor costo, donde el costo es la latencia reciente (EWMA pico)
+ * multiplicada por las peticiones en curso + 1. Comparar solo dos evita que
+ * todos los nodos del gateway se lancen sobre la misma instancia "mejor".
+ * Las instancias con tasa de error reciente sobre {@code maxErrorRate} se
+ * excluyen mientras haya alternativas; la tasa decae con el tiempo y la
+ * instancia vuelve a recibir tráfico de prueba.
+ *
+ * Una petición con {@link InstanceChoice#ATTR} (la cobertura de
+ * HedgingFilter) evita la instancia que ya eligió la primera petición que
+ * compartió esa InstanceChoice, salvo que sea la única sana.
+ *
+ * Las estadísticas se alimentan por LoadBalancerLifecycle, que invocan
+ * tanto el enrutamiento del gateway como los WebClient balanceados
+ * (AuthFilter, HedgingFilter, revalidación de ResponseCacheFilter). Hay un
+ * balanceador por servicio (contexto hijo de Spring Cloud LoadBalancer).
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final long latencyDecayNanos;
+    private final long errorDecayNanos;
+    private final double maxErrorRate;
+    private final LongSupplier clock;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param supplierProvider proveedor de instancias del servicio
+     * @param serviceId        servicio balanceado
+     * @param latencyDecay     constante de tiempo del promedio de latencia
+     * @param errorDecay       constante de tiempo de la tasa de error
+     * @param maxErrorRate     tasa de error a partir de la que se evita la instancia
+     */
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                    Duration latencyDecay, Duration errorDecay, double maxErrorRate) {
+        this(supplierProvider, serviceId, latencyDecay, errorDecay, maxErrorRate, System::nanoTime);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                             Duration latencyDecay, Duration errorDecay, double maxErrorRate, LongSupplier clock) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.latencyDecayNanos = latencyDecay.toNanos();
+        this.errorDecayNanos = errorDecay.toNanos();
+        this.maxErrorRate = maxErrorRate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        final var supplier = this.supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(instances -> {
+                    final var response = this.select(instances, choice(request));
+                    if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                        callback.selectedServiceInstance(response.getServer());
+                    }
+                    return response;
+                });
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        return this.select(instances, null);
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances, InstanceChoice choice) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (this.stats.size() > instances.size()) {
+            // Instancias que salieron del registro
+            final var current = instances.stream().map(LatencyAwareLoadBalancer::key).toList();
+            this.stats.keySet().retainAll(current);
+        }
+        final var now = this.clock.getAsLong();
+        final var healthy = this.healthy(instances, now);
+        final var chosen = this.pick(choice == null ? healthy : this.excluding(healthy, choice.excluded()), now);
+        if (choice != null) {
+            choice.chosen(key(chosen), healthy.size() > 1);
+        }
+        return new DefaultResponse(chosen);
+    }
+
+    private ServiceInstance pick(List<ServiceInstance> candidates, long now) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        final var random = ThreadLocalRandom.current();
+        final var first = random.nextInt(candidates.size());
+        var second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        final var a = candidates.get(first);
+        final var b = candidates.get(second);
+        return this.stats(a, now).cost(now) <= this.stats(b, now).cost(now) ? a : b;
+    }
+
+    // Sin otra instancia sana se repite la excluida: la decisión de no cubrirse es de HedgingFilter
+    private List<ServiceInstance> excluding(List<ServiceInstance> candidates, String excluded) {
+        if (excluded == null) {
+            return candidates;
+        }
+        final var others = candidates.stream().filter(instance -> !key(instance).equals(excluded)).toList();
+        return others.isEmpty() ? candidates : others;
+    }
+
+    // Si todas superan maxErrorRate se usan todas: mejor intentar que no responder
+    private List<ServiceInstance> healthy(List<ServiceInstance> instances, long now) {
+        final List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (this.stats(instance, now).errorRate(now) < this.maxErrorRate) {
+                healthy.add(instance);
+            }
+        }
+        return healthy.isEmpty() ? instances : healthy;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Las estadísticas se llevan por instancia, a partir de onStartRequest
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        final var now = this.clock.getAsLong();
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(now);
+        }
+        this.stats(lbResponse.getServer(), now).started();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        final var lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        final var now = this.clock.getAsLong();
+        final var request = completionContext.getLoadBalancerRequest();
+        final var startedAt = request != null && request.getContext() instanceof TimedRequestContext context
+                ? context.getRequestStartTime() : now;
+        final var error = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData data
+                && data.getHttpStatus() != null && data.getHttpStatus().is5xxServerError();
+        this.stats(lbResponse.getServer(), now).completed(Math.max(0, now - startedAt), error, now);
+    }
+
+    /**
+     * @return estadísticas de la instancia, creándolas en su primer uso
+     */
+    InstanceStats stats(ServiceInstance instance, long now) {
+        return this.stats.computeIfAbsent(key(instance),
+                key -> new InstanceStats(this.latencyDecayNanos, this.errorDecayNanos, now));
+    }
+
+    public String getServiceId() {
+        return this.serviceId;
+    }
+
+    private static InstanceChoice choice(Request request) {
+        return request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(InstanceChoice.ATTR) instanceof InstanceChoice choice
+                ? choice : null;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,44 @@
+package com.meli.gateway.helpers;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Llave del rate limiting por IP del cliente.
+ *
+ * La llave por usuario es el claim sub ya verificado por AuthFilter
+ * ({@link com.meli.gateway.filters.AuthFilter#SUBJECT_ATTR}), no se lee
+ * del header: un sub sin firma comprobada permitiría vaciar el bucket de
+ * otro usuario.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class RateLimitKeys {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private RateLimitKeys() {
+    }
+
+    /**
+     * @param request           petición
+     * @param trustForwardedFor true si el gateway está detrás de un proxy que fija X-Forwarded-For
+     * @return IP del cliente, o "unknown"
+     */
+    public static String clientIp(ServerHttpRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            final var forwarded = request.getHeaders().getFirst(FORWARDED_FOR);
+            if (forwarded != null && !forwarded.isBlank()) {
+                final var comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        final InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
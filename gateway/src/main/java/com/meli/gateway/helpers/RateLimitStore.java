@@ -0,0 +1,26 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Contadores compartidos entre nodos del gateway para el rate limiting
+ * aproximadamente global (ver TokenBucketRateLimiter#synchronize).
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public interface RateLimitStore {
+
+    /**
+     * Suma a cada llave lo admitido por este nodo en la ventana.
+     *
+     * @param window ventana de tiempo (los contadores se reinician en cada una)
+     * @param deltas peticiones admitidas por llave desde la última llamada
+     * @param ttl    tiempo tras el que se descartan los contadores de la ventana
+     * @return total global de cada llave en la ventana, incluido el delta
+     */
+    Mono<Map<String, Long>> add(long window, Map<String, Long> deltas, Duration ttl);
+}
@@ -0,0 +1,55 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * RateLimitStore sobre Redis ({@code application.rate-limit.store: redis}),
+ * compartido por todos los nodos del gateway.
+ *
+ * Un contador por llave y ventana ({@code INCRBY} + {@code EXPIRE}); la
+ * conexión es la de {@code spring.data.redis.*}, y en local basta con un
+ * Redis en contenedor.
+ *
+ * La autoconfiguración de Redis está excluida en application.yml y este
+ * store la importa: sin {@code store: redis} el gateway no crea el cliente
+ * Lettuce ni sus pools de eventos.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.store", havingValue = "redis")
+@Import({ RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class })
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisRateLimitStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Map<String, Long>> add(long window, Map<String, Long> deltas, Duration ttl) {
+        return Flux.fromIterable(deltas.entrySet())
+                .flatMap(entry -> {
+                    final var key = KEY_PREFIX + window + ":" + entry.getKey();
+                    return this.redisTemplate.opsForValue()
+                            .increment(key, entry.getValue())
+                            .flatMap(total -> this.redisTemplate.expire(key, ttl).thenReturn(Map.entry(entry.getKey(), total)));
+                })
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+}
@@ -0,0 +1,187 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+
+/**
+ * Reglas de la caché compartida del gateway (RFC 9111) sobre los headers de
+ * la respuesta del servicio.
+ *
+ * Una respuesta se guarda si es 200, no trae {@code Set-Cookie}, su
+ * {@code Vary} se limita a headers que ya forman parte de la llave
+ * (Accept, Accept-Encoding) y su {@code Cache-Control} no la excluye
+ * ({@code no-store}, {@code private}, {@code no-cache}). Si la petición
+ * traía {@code Authorization}, además el servicio debe autorizar
+ * explícitamente la caché compartida con {@code public}, {@code s-maxage} o
+ * {@code must-revalidate} (RFC 9111, sección 3.5); en ese caso no se aplican
+ * los valores por defecto. La frescura sale de {@code s-maxage} o
+ * {@code max-age}; sin Cache-Control se usan los valores por defecto
+ * configurados. La ventana de {@code stale-while-revalidate} permite
+ * responder con la copia vencida mientras se revalida.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class ResponseCachePolicy {
+
+    /**
+     * Headers de la petición que forman parte de la llave de caché.
+     */
+    public static final List<String> KEY_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    private static final Set<String> EXCLUDING_DIRECTIVES = Set.of("no-store", "private", "no-cache");
+    private static final Set<String> SHARED_DIRECTIVES = Set.of("public", "s-maxage", "must-revalidate");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Tiempo de vida de una respuesta guardada.
+     *
+     * @param fresh                tiempo durante el que se responde sin consultar al servicio
+     * @param staleWhileRevalidate tiempo adicional en que se responde vencida mientras se revalida
+     */
+    public record Lifetime(Duration fresh, Duration staleWhileRevalidate) {
+
+        public Duration total() {
+            return fresh.plus(staleWhileRevalidate);
+        }
+    }
+
+    private ResponseCachePolicy() {
+    }
+
+    /**
+     * Evalúa si la respuesta se puede guardar y por cuánto tiempo.
+     *
+     * @param status       estado de la respuesta
+     * @param headers      headers de la respuesta
+     * @param authorized   true si la petición traía Authorization
+     * @param defaultTtl   frescura si el servicio no envía Cache-Control
+     * @param defaultStale stale-while-revalidate si el servicio no lo indica
+     * @return el tiempo de vida, o null si la respuesta no se debe guardar
+     */
+    public static Lifetime lifetime(HttpStatusCode status, HttpHeaders headers, boolean authorized,
+                                    Duration defaultTtl, Duration defaultStale) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        if (!varyCoveredByKey(headers) || isStream(headers)) {
+            return null;
+        }
+        final var cacheControl = headers.getCacheControl();
+        if (cacheControl == null || cacheControl.isBlank()) {
+            return authorized ? null : positive(new Lifetime(defaultTtl, defaultStale));
+        }
+        Duration maxAge = null;
+        Duration sharedMaxAge = null;
+        Duration stale = defaultStale;
+        var shared = false;
+        for (String raw : cacheControl.split(",")) {
+            final var directive = raw.trim().toLowerCase(Locale.ROOT);
+            final var name = directive.contains("=") ? directive.substring(0, directive.indexOf('=')).trim() : directive;
+            if (EXCLUDING_DIRECTIVES.contains(name)) {
+                return null;
+            }
+            shared |= SHARED_DIRECTIVES.contains(name);
+            final var seconds = seconds(directive);
+            switch (name) {
+                case "max-age" -> maxAge = seconds;
+                case "s-maxage" -> sharedMaxAge = seconds;
+                case "stale-while-revalidate" -> stale = seconds == null ? stale : seconds;
+                default -> {
+                    // Otras directivas (public, must-revalidate, immutable...) no cambian la política
+                }
+            }
+        }
+        if (authorized && !shared) {
+            return null;
+        }
+        // s-maxage prevalece en cachés compartidas
+        final var fresh = sharedMaxAge != null ? sharedMaxAge : maxAge != null ? maxAge : defaultTtl;
+        return positive(new Lifetime(fresh, stale));
+    }
+
+    private static Lifetime positive(Lifetime lifetime) {
+        return lifetime.total().isZero() || lifetime.total().isNegative() ? null : lifetime;
+    }
+
+    private static Duration seconds(String directive) {
+        final var equals = directive.indexOf('=');
+        if (equals < 0) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(directive.substring(equals + 1).replace("\"", "").trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean varyCoveredByKey(HttpHeaders headers) {
+        for (String vary : headers.getVary()) {
+            if (KEY_HEADERS.stream().noneMatch(vary::equalsIgnoreCase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStream(HttpHeaders headers) {
+        final var contentType = headers.getContentType();
+        return contentType != null && NDJSON.isCompatibleWith(contentType);
+    }
+
+    /**
+     * Indica si la petición pide saltar la caché ({@code Cache-Control: no-cache|no-store}
+     * o {@code Pragma: no-cache}).
+     */
+    public static boolean bypass(HttpHeaders requestHeaders) {
+        final var cacheControl = requestHeaders.getCacheControl();
+        if (cacheControl != null) {
+            final var value = cacheControl.toLowerCase(Locale.ROOT);
+            if (value.contains("no-cache") || value.contains("no-store")) {
+                return true;
+            }
+        }
+        final var pragma = requestHeaders.getFirst(HttpHeaders.PRAGMA);
+        return pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    /**
+     * Indica si la petición prohíbe guardar la respuesta ({@code Cache-Control: no-store}).
+     */
+    public static boolean noStore(HttpHeaders requestHeaders) {
+        final var cacheControl = requestHeaders.getCacheControl();
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store");
+    }
+
+    /**
+     * Comparación débil de If-None-Match contra el ETag guardado.
+     *
+     * @param ifNoneMatch valor del header, o null
+     * @param etag        ETag de la respuesta guardada, o null
+     * @return true si corresponde responder 304
+     */
+    public static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        final var stored = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || tag.equals(stored)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,202 @@
+package com.meli.gateway.helpers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket local por llave (usuario o IP), sin locks en el camino de
+ * cada petición.
+ *
+ * Cada bucket es un GCRA (generic cell rate algorithm, equivalente a un
+ * token bucket de {@code rate} fichas por segundo y capacidad
+ * {@code burst}) guardado en un solo AtomicLong: el instante teórico en que
+ * el bucket vuelve a estar lleno. Admitir una petición es un CAS sobre ese
+ * valor; no hay hilo de recarga ni timestamps adicionales. Los buckets se
+ * reparten en {@code shards} mapas independientes por hash de la llave; la
+ * limpieza de buckets inactivos (llenos) recorre solo el shard que se pasó
+ * de tamaño.
+ *
+ * Con un RateLimitStore, {@link #synchronize} publica periódicamente lo que
+ * admitió este nodo y descuenta de los buckets locales lo que admitieron
+ * los demás, para un límite aproximadamente global sin salir a la red en
+ * cada petición.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final Shard[] shards;
+    private final int mask;
+    private final int maxKeysPerShard;
+    private final boolean tracking;
+    private final LongSupplier clock;
+
+    /**
+     * @param ratePerSecond fichas por segundo
+     * @param burst         capacidad del bucket (peticiones seguidas admitidas)
+     * @param shards        número de shards (se redondea a potencia de 2)
+     * @param maxKeys       buckets a partir de los que se limpian los inactivos
+     * @param tracking      true si se sincroniza con un RateLimitStore
+     * @param clock         reloj en nanosegundos
+     */
+    public TokenBucketRateLimiter(double ratePerSecond, int burst, int shards, int maxKeys, boolean tracking,
+                                  LongSupplier clock) {
+        this.intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.capacityNanos = this.intervalNanos * Math.max(1, burst);
+        final var count = shards <= 1 ? 1 : Integer.highestOneBit((shards - 1) << 1);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.mask = count - 1;
+        this.maxKeysPerShard = Math.max(16, maxKeys / count);
+        this.tracking = tracking;
+        this.clock = clock;
+    }
+
+    /**
+     * Intenta consumir una ficha de la llave.
+     *
+     * @return 0 si la petición se admite; si no, nanosegundos hasta que haya una ficha
+     */
+    public long tryAcquire(String key) {
+        final var now = this.clock.getAsLong();
+        final var bucket = this.bucket(key, now);
+        final var wait = bucket.acquire(now, this.intervalNanos, this.capacityNanos);
+        if (wait == 0 && this.tracking) {
+            bucket.pending.incrementAndGet();
+        }
+        return wait;
+    }
+
+    private Bucket bucket(String key, long now) {
+        final var shard = this.shards[spread(key.hashCode()) & this.mask];
+        final var bucket = shard.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (shard.buckets.size() >= this.maxKeysPerShard) {
+            shard.evictIdle(now);
+        }
+        return shard.buckets.computeIfAbsent(key, k -> new Bucket(now));
+    }
+
+    /**
+     * Publica en el store lo admitido desde la última sincronización y
+     * descuenta de cada bucket lo que admitieron los demás nodos en la
+     * ventana actual.
+     *
+     * @param store  store compartido
+     * @param window ventana de los contadores globales
+     */
+    public Mono<Void> synchronize(RateLimitStore store, Duration window) {
+        final var now = this.clock.getAsLong();
+        final var windowId = System.currentTimeMillis() / Math.max(1, window.toMillis());
+        final Map<String, Long> deltas = new HashMap<>();
+        final Map<String, Bucket> buckets = new HashMap<>();
+        for (Shard shard : this.shards) {
+            shard.buckets.forEach((key, bucket) -> {
+                final var pending = bucket.pending.getAndSet(0);
+                if (pending > 0) {
+                    deltas.put(key, pending);
+                    buckets.put(key, bucket);
+                }
+            });
+        }
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        return store.add(windowId, deltas, window.multipliedBy(2))
+                .doOnNext(totals -> totals.forEach((key, total) -> {
+                    final var bucket = buckets.get(key);
+                    if (bucket != null) {
+                        bucket.applyGlobal(windowId, total, deltas.get(key), now, this.intervalNanos, this.capacityNanos);
+                    }
+                }))
+                .then();
+    }
+
+    public int size() {
+        var size = 0;
+        for (Shard shard : this.shards) {
+            size += shard.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Shard {
+
+        private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+
+        // Un bucket lleno (tat en el pasado) equivale a uno nuevo: se puede descartar
+        void evictIdle(long now) {
+            if (this.evicting.compareAndSet(false, true)) {
+                try {
+                    this.buckets.values().removeIf(bucket -> bucket.tat.get() <= now && bucket.pending.get() == 0);
+                } finally {
+                    this.evicting.set(false);
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        // Instante teórico de llegada (GCRA): el bucket está lleno cuando tat <= now
+        private final AtomicLong tat;
+        private final AtomicLong pending = new AtomicLong();
+        // Estado de sincronización, solo lo toca synchronize (un hilo a la vez)
+        private long window = -1;
+        private long seen;
+
+        Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+
+        long acquire(long now, long interval, long capacity) {
+            while (true) {
+                final var current = this.tat.get();
+                final var next = Math.max(current, now) + interval;
+                final var wait = next - now - capacity;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (this.tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void applyGlobal(long windowId, long total, long own, long now, long interval, long capacity) {
+            if (this.window != windowId) {
+                this.window = windowId;
+                this.seen = 0;
+            }
+            final var others = total - this.seen - own;
+            this.seen = total;
+            if (others <= 0) {
+                return;
+            }
+            // Consume por los demás nodos, a lo sumo hasta vaciar el bucket
+            this.tat.accumulateAndGet(others, (current, count) ->
+                    Math.min(now + capacity, Math.max(current, now) + count * interval));
+        }
+    }
+}
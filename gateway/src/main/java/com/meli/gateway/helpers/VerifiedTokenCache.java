@@ -0,0 +1,144 @@
+package com.meli.gateway.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.meli.gateway.dtos.TokenDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché de tokens ya validados por el auth-server.
+ *
+ * Indexa por el digest SHA-256 del token (el token nunca se guarda como llave),
+ * expira cada entrada cuando vence el claim {@code exp}, acota el tamaño con
+ * desalojo por uso y colapsa las validaciones concurrentes del mismo token en
+ * una sola petición a /auth/jwt. Expone hits, misses y evictions en Micrometer
+ * bajo el nombre {@code gateway.auth.token}.
+ *
+ * Los claims {@code sub} y {@code exp} se leen una sola vez, al guardar la
+ * entrada (la firma ya fue verificada por el auth-server): un hit entrega el
+ * usuario verificado sin volver a decodificar el token.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "gateway.auth.token";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AsyncCache<String, VerifiedToken> cache;
+    private final boolean enabled;
+    private final LongSupplier epochMillis;
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${application.auth.token-cache.enabled:true}") boolean enabled,
+                              @Value("${application.auth.token-cache.maximum-size:10000}") long maximumSize) {
+        this(meterRegistry, enabled, maximumSize, Ticker.systemTicker(), System::currentTimeMillis);
+    }
+
+    // Para tests: reloj del caché y reloj de pared controlados
+    VerifiedTokenCache(MeterRegistry meterRegistry, boolean enabled, long maximumSize,
+                       Ticker ticker, LongSupplier epochMillis) {
+        this.enabled = enabled;
+        this.epochMillis = epochMillis;
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna el token validado desde caché o ejecuta la validación remota una
+     * sola vez para todas las peticiones concurrentes con el mismo token.
+     *
+     * @param token JWT recibido en el header Authorization
+     * @param validation validación remota a ejecutar en caso de miss
+     * @return Mono con el usuario y la expiración del token validado; los errores no se almacenan
+     */
+    public Mono<VerifiedToken> get(String token, Supplier<Mono<TokenDto>> validation) {
+        if (!this.enabled) {
+            return validation.get().map(response -> this.read(token));
+        }
+        final var future = this.cache.get(digest(token), (key, executor) -> validation.get()
+                .map(response -> this.read(token))
+                .toFuture());
+        // La cancelación de un suscriptor no debe cancelar la validación compartida
+        return Mono.fromFuture(future, true);
+    }
+
+    static String digest(String token) {
+        try {
+            final var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Lee los claims sub y exp del payload del token (la firma ya fue verificada por el auth-server).
+     *
+     * @return token con exp 0 y sin usuario si el payload no se puede leer
+     */
+    private VerifiedToken read(String token) {
+        try {
+            final var chunks = token.split("\\.");
+            final JsonNode payload = this.objectMapper.readTree(Base64.getUrlDecoder().decode(chunks[1]));
+            return new VerifiedToken(payload.path("sub").textValue(), payload.path("exp").asLong(0L));
+        } catch (Exception e) {
+            log.warn("Unable to read claims from validated token: {}", e.getMessage());
+            return new VerifiedToken(null, 0L);
+        }
+    }
+
+    /**
+     * Token validado por el auth-server.
+     *
+     * @param subject           claim sub, o null si el token no lo trae
+     * @param expirationSeconds claim exp en segundos epoch, o 0 si no se pudo leer
+     */
+    public record VerifiedToken(String subject, long expirationSeconds) {
+    }
+
+    private final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            final var remainingMillis = value.expirationSeconds() * 1000L - epochMillis.getAsLong();
+            return remainingMillis > 0 ? remainingMillis * 1_000_000L : 0L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
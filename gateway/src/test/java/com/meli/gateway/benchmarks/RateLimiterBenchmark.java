@@ -0,0 +1,110 @@
+package com.meli.gateway.benchmarks;
+
+import com.meli.gateway.helpers.RateLimitKeys;
+import com.meli.gateway.helpers.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del rate limiting en el camino de cada petición.
+ *
+ * Mide la decisión del token bucket con una llave caliente (un usuario,
+ * un hilo y ocho hilos compitiendo por el mismo bucket), con 10.000 llaves
+ * repartidas entre los shards, y lo que hace RateLimitFilter por petición
+ * autenticada: IP del cliente, bucket de IP y bucket del sub que ya dejó
+ * AuthFilter (sin hash ni lectura del token). El objetivo es menos de un
+ * microsegundo por petición en un hilo. Las variantes de ocho hilos miden
+ * contención; en una máquina con menos núcleos que hilos incluyen la espera
+ * de CPU.
+ *
+ * Ejecutar (JMH lanza una JVM aparte, que necesita el classpath explícito):
+ * {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.meli.gateway.benchmarks.RateLimiterBenchmark"}
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private TokenBucketRateLimiter limiter;
+    private TokenBucketRateLimiter users;
+    private String[] keys;
+    private ServerHttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Tasa alta: se mide el camino de admisión, el más frecuente
+        limiter = new TokenBucketRateLimiter(1e9, 1_000_000, 64, 100_000, false, System::nanoTime);
+        users = new TokenBucketRateLimiter(1e9, 1_000_000, 64, 100_000, false, System::nanoTime);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+            limiter.tryAcquire(keys[i]);
+        }
+        request = MockServerHttpRequest.get("/product-detail/detail/MLA1")
+                .remoteAddress(new InetSocketAddress("10.0.3.7", 52000))
+                .build();
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long hotKeyContended() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public long manyKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long manyKeysContended() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    // Lo que hacen RateLimitFilter#filter y RateLimitFilter#users por petición autenticada
+    @Benchmark
+    public long fullCheck() {
+        long ipWait = limiter.tryAcquire(RateLimitKeys.clientIp(request, false));
+        return ipWait + users.tryAcquire("osneider");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
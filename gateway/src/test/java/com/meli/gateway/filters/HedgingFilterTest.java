@@ -0,0 +1,343 @@
+package com.meli.gateway.filters;
+
+import com.meli.gateway.helpers.LatencyAwareLoadBalancer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerResilience4JFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para HedgingFilter con un cliente que responde desde una cola de
+ * respuestas simuladas (la primera llamada es la primaria, la segunda la
+ * cobertura) y, al final, junto al circuit breaker real de la ruta.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class HedgingFilterTest {
+
+    private static final String ROUTE_ID = "product-detail";
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+    private static final Route ROUTE = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://product-detail")
+            .predicate(exchange -> true)
+            .build();
+    private static final GatewayFilterChain UNUSED_CHAIN = exchange -> Mono.error(new AssertionError("ruta Netty"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Deque<Mono<ClientResponse>> responses = new ArrayDeque<>();
+
+    @Test
+    void delay_ShouldFollowObservedPercentileWithinBounds() {
+        HedgingFilter filter = this.filter(0.1, 20, 100, HEDGE_DELAY.multipliedBy(10));
+        assertEquals(HEDGE_DELAY.multipliedBy(10), filter.delay(ROUTE_ID));
+
+        Timer latency = this.meterRegistry.get("gateway.hedging.primary").tag("route", ROUTE_ID).timer();
+        for (int i = 0; i < 99; i++) {
+            latency.record(i + 1, TimeUnit.MILLISECONDS);
+        }
+        this.advance(Duration.ofSeconds(2));
+        // Menos de min-samples: max-delay
+        assertEquals(HEDGE_DELAY.multipliedBy(10), filter.delay(ROUTE_ID));
+
+        latency.record(100, TimeUnit.MILLISECONDS);
+        // Recalculado a lo sumo una vez por segundo
+        assertEquals(HEDGE_DELAY.multipliedBy(10), filter.delay(ROUTE_ID));
+        this.advance(Duration.ofSeconds(2));
+        long p95 = filter.delay(ROUTE_ID).toMillis();
+        assertTrue(p95 >= 85 && p95 <= 105, "p95 = " + p95);
+    }
+
+    @Test
+    void delay_ShouldClampPercentileToMinAndMax() {
+        HedgingFilter fast = this.filter(0.1, 20, 10, HEDGE_DELAY.multipliedBy(10));
+        fast.delay(ROUTE_ID);
+        Timer latency = this.meterRegistry.get("gateway.hedging.primary").tag("route", ROUTE_ID).timer();
+        for (int i = 0; i < 20; i++) {
+            latency.record(1, TimeUnit.MILLISECONDS);
+        }
+        this.advance(Duration.ofSeconds(2));
+        assertEquals(HEDGE_DELAY, fast.delay(ROUTE_ID));
+
+        for (int i = 0; i < 200; i++) {
+            latency.record(5, TimeUnit.SECONDS);
+        }
+        this.advance(Duration.ofSeconds(2));
+        assertEquals(HEDGE_DELAY.multipliedBy(10), fast.delay(ROUTE_ID));
+    }
+
+    @Test
+    void filter_FastPrimary_ShouldNotHedge() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        this.responses.add(Mono.just(response(HttpStatus.OK, "primaria")));
+
+        MockServerWebExchange exchange = this.run(filter);
+
+        assertEquals(1, this.calls.get());
+        assertEquals("primaria", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, this.counter("requests", "outcome", "primary"));
+    }
+
+    @Test
+    void filter_SlowPrimary_ShouldHedgeAndCancelLoser() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        this.responses.add(Mono.<ClientResponse>never().doOnCancel(() -> primaryCancelled.set(true)));
+        this.responses.add(Mono.just(response(HttpStatus.OK, "cobertura")));
+
+        MockServerWebExchange exchange = this.run(filter);
+
+        assertEquals(2, this.calls.get());
+        assertEquals("cobertura", exchange.getResponse().getBodyAsString().block());
+        assertTrue(primaryCancelled.get());
+        assertEquals(1.0, this.counter("hedges", "result", "fired"));
+        assertEquals(1.0, this.counter("requests", "outcome", "hedge"));
+    }
+
+    @Test
+    void filter_BudgetExhausted_ShouldWaitForPrimary() {
+        HedgingFilter filter = this.filter(0, 1);
+        this.responses.add(Mono.never());
+        this.responses.add(Mono.just(response(HttpStatus.OK, "cobertura")));
+        this.run(filter);
+
+        this.responses.add(Mono.delay(HEDGE_DELAY.multipliedBy(3)).thenReturn(response(HttpStatus.OK, "primaria")));
+        MockServerWebExchange exchange = this.run(filter);
+
+        assertEquals(3, this.calls.get());
+        assertEquals("primaria", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, this.counter("hedges", "result", "budget_exhausted"));
+    }
+
+    @Test
+    void filter_PrimaryFailsWithoutBudget_ShouldPropagatePrimaryError() {
+        HedgingFilter filter = this.filter(0, 1);
+        this.responses.add(Mono.never());
+        this.responses.add(Mono.just(response(HttpStatus.OK, "cobertura")));
+        this.run(filter);
+
+        IllegalStateException failure = new IllegalStateException("primaria caída");
+        this.responses.add(Mono.error(failure));
+        MockServerWebExchange exchange = exchange();
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> filter.filter(exchange, UNUSED_CHAIN).block());
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void filter_PrimaryAndHedgeFail_ShouldPropagatePrimaryError() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        IllegalStateException failure = new IllegalStateException("primaria caída");
+        this.responses.add(Mono.error(failure));
+        this.responses.add(Mono.error(new IllegalStateException("cobertura caída")));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> filter.filter(exchange(), UNUSED_CHAIN).block());
+        assertSame(failure, thrown);
+        assertEquals(2, this.calls.get());
+    }
+
+    @Test
+    void filter_WithLatencyAwareBalancer_ShouldHedgeToAnotherInstance() {
+        List<String> chosen = new ArrayList<>();
+        HedgingFilter filter = this.balancedFilter(chosen, instance("a"), instance("b"));
+        this.responses.add(Mono.never());
+        this.responses.add(Mono.just(response(HttpStatus.OK, "cobertura")));
+
+        MockServerWebExchange exchange = this.run(filter);
+
+        assertEquals("cobertura", exchange.getResponse().getBodyAsString().block());
+        assertEquals(2, chosen.size());
+        assertNotEquals(chosen.get(0), chosen.get(1));
+    }
+
+    @Test
+    void filter_WithLatencyAwareBalancer_SingleInstance_ShouldNotHedge() {
+        List<String> chosen = new ArrayList<>();
+        HedgingFilter filter = this.balancedFilter(chosen, instance("a"));
+        this.responses.add(Mono.delay(HEDGE_DELAY.multipliedBy(3)).thenReturn(response(HttpStatus.OK, "primaria")));
+
+        MockServerWebExchange exchange = this.run(filter);
+
+        assertEquals("primaria", exchange.getResponse().getBodyAsString().block());
+        assertEquals(List.of("a"), chosen);
+        assertEquals(1.0, this.counter("hedges", "result", "single_instance"));
+        assertEquals(0.0, this.counter("hedges", "result", "fired"));
+    }
+
+    @Test
+    void filter_ShouldLeaveBodyPendingUntilAfterTheRouteChain() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        this.responses.add(Mono.just(response(HttpStatus.OK, "primaria")));
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, UNUSED_CHAIN).block();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertFalse(exchange.getResponse().isCommitted());
+        assertNotNull(exchange.getAttribute(HedgingFilter.HEDGED_RESPONSE_ATTR));
+    }
+
+    @Test
+    void filter_WithCircuitBreaker_FallbackStatusShouldForwardToFallback() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        this.responses.add(Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR)
+                .header("X-Servicio", "product-detail")
+                .body("error")
+                .build()));
+
+        MockServerWebExchange exchange = this.runWithCircuitBreaker(filter);
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("fallback", exchange.getResponse().getBodyAsString().block());
+        assertNull(exchange.getResponse().getHeaders().getFirst("X-Servicio"));
+    }
+
+    @Test
+    void filter_WithCircuitBreaker_SuccessShouldWriteWinner() {
+        HedgingFilter filter = this.filter(0.1, 20);
+        this.responses.add(Mono.just(response(HttpStatus.OK, "primaria")));
+
+        MockServerWebExchange exchange = this.runWithCircuitBreaker(filter);
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("primaria", exchange.getResponse().getBodyAsString().block());
+    }
+
+    // Sin muestras suficientes el retardo es max-delay: HEDGE_DELAY
+    private HedgingFilter filter(double budgetRatio, int budgetBurst) {
+        return this.filter(budgetRatio, budgetBurst, 1_000, HEDGE_DELAY);
+    }
+
+    private HedgingFilter filter(double budgetRatio, int budgetBurst, long minSamples, Duration maxDelay) {
+        WebClient.Builder client = WebClient.builder().exchangeFunction(request -> {
+            this.calls.incrementAndGet();
+            Mono<ClientResponse> next = this.responses.poll();
+            return next == null ? Mono.error(new AssertionError("sin respuesta simulada")) : next;
+        });
+        return new HedgingFilter(client, this.meterRegistry, true, "instance",
+                "lb://product-detail-fallback/product-detail-fallback", 0.95, HEDGE_DELAY, maxDelay, minSamples, budgetRatio, budgetBurst, DataSize.ofMegabytes(1),
+                this.nanos::get);
+    }
+
+    // Como ReactorLoadBalancerExchangeFilterFunction: elige con los atributos de la petición del WebClient
+    private HedgingFilter balancedFilter(List<String> chosen, ServiceInstance... instances) {
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from(ROUTE_ID, instances)),
+                ROUTE_ID, Duration.ofSeconds(10), Duration.ofSeconds(30), 0.5);
+        WebClient.Builder client = WebClient.builder().exchangeFunction(request -> loadBalancer
+                .choose(new DefaultRequest<>(new RequestDataContext(new RequestData(request))))
+                .flatMap(response -> {
+                    chosen.add(response.getServer().getInstanceId());
+                    this.calls.incrementAndGet();
+                    Mono<ClientResponse> next = this.responses.poll();
+                    return next == null ? Mono.error(new AssertionError("sin respuesta simulada")) : next;
+                }));
+        return new HedgingFilter(client, this.meterRegistry, true, "instance",
+                "lb://product-detail-fallback/product-detail-fallback", 0.95, HEDGE_DELAY, HEDGE_DELAY, 1_000, 0.1, 20,
+                DataSize.ofMegabytes(1), this.nanos::get);
+    }
+
+    // Como en la ruta: HedgedResponseWriteFilter envuelve la cadena y escribe el cuerpo pendiente
+    private MockServerWebExchange run(HedgingFilter filter) {
+        MockServerWebExchange exchange = exchange();
+        chain(new HedgedResponseWriteFilter()::filter, filter).filter(exchange).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange runWithCircuitBreaker(HedgingFilter filter) {
+        DispatcherHandler fallback = new DispatcherHandler() {
+            @Override
+            public Mono<Void> handle(ServerWebExchange exchange) {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                byte[] body = "fallback".getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+        SpringCloudCircuitBreakerResilience4JFilterFactory factory = new SpringCloudCircuitBreakerResilience4JFilterFactory(
+                new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+                        TimeLimiterRegistry.ofDefaults(), new Resilience4JConfigurationProperties()),
+                new StaticListableBeanFactory(Map.of("dispatcherHandler", fallback)).getBeanProvider(DispatcherHandler.class));
+        GatewayFilter circuitBreaker = factory.apply(new SpringCloudCircuitBreakerFilterFactory.Config()
+                .setName("gateway-cb")
+                .setStatusCodes(Set.of("500", "400"))
+                .setFallbackUri("forward:/product-detail-fallback/detail"));
+
+        MockServerWebExchange exchange = exchange();
+        chain(new HedgedResponseWriteFilter()::filter, circuitBreaker, filter).filter(exchange).block();
+        return exchange;
+    }
+
+    private static GatewayFilterChain chain(GatewayFilter... filters) {
+        return exchange -> filters.length == 0
+                ? Mono.empty()
+                : filters[0].filter(exchange, chain(Arrays.copyOfRange(filters, 1, filters.length)));
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/product-detail/detail/MLA1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, ROUTE_ID, "localhost", 8080, false);
+    }
+
+    private static ClientResponse response(HttpStatus status, String body) {
+        return ClientResponse.create(status).header("Content-Type", "text/plain").body(body).build();
+    }
+
+    private double counter(String name, String tag, String value) {
+        return this.meterRegistry.get("gateway.hedging." + name).tag(tag, value).counter().count();
+    }
+
+    private void advance(Duration duration) {
+        this.nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,106 @@
+package com.meli.gateway.filters;
+
+import com.meli.gateway.helpers.RateLimitStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para RateLimitFilter: bucket de IP antes de la autenticación y
+ * bucket de usuario con el sub que deja AuthFilter.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        this.passed.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void users_ShouldShareOneBucketPerVerifiedSubject() {
+        RateLimitFilter filter = filter(2, 100);
+
+        // Tres tokens distintos del mismo usuario: un solo bucket
+        assertNull(this.user(filter, "osneider", "10.0.0.1").getResponse().getStatusCode());
+        assertNull(this.user(filter, "osneider", "10.0.0.2").getResponse().getStatusCode());
+        MockServerWebExchange limited = this.user(filter, "osneider", "10.0.0.3");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertNotNull(limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(this.user(filter, "otro", "10.0.0.4").getResponse().getStatusCode());
+        assertEquals(3, this.passed.get());
+        assertEquals(1.0, this.meterRegistry.get("gateway.rate_limit.rejected").tag("key", "user").counter().count());
+    }
+
+    @Test
+    void users_WithoutVerifiedSubject_ShouldOnlyLimitIp() {
+        RateLimitFilter filter = filter(1, 100);
+
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = exchange("10.0.0." + i);
+            filter.users().filter(exchange, this.chain).block();
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+        assertEquals(3, this.passed.get());
+    }
+
+    @Test
+    void filter_ShouldLimitIpBeforeAuthentication() {
+        RateLimitFilter filter = filter(100, 1);
+
+        filter.filter(exchange("10.0.0.7"), this.chain).block();
+        MockServerWebExchange limited = exchange("10.0.0.7");
+        filter.filter(limited, this.chain).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertEquals(1, this.passed.get());
+    }
+
+    @Test
+    void filter_AdmittedRequest_ShouldNotBeChargedAgainOnFallbackForward() {
+        RateLimitFilter filter = filter(1, 1);
+        MockServerWebExchange exchange = exchange("10.0.0.7");
+        exchange.getAttributes().put(AuthFilter.SUBJECT_ATTR, "osneider");
+
+        // Ruta principal y, con los mismos atributos, la ruta de fallback
+        for (int i = 0; i < 2; i++) {
+            filter.filter(exchange, admitted -> filter.users().filter(admitted, this.chain)).block();
+        }
+
+        assertNull(exchange.getResponse().getStatusCode());
+        assertEquals(2, this.passed.get());
+    }
+
+    private MockServerWebExchange user(RateLimitFilter filter, String subject, String ip) {
+        MockServerWebExchange exchange = exchange(ip);
+        exchange.getAttributes().put(AuthFilter.SUBJECT_ATTR, subject);
+        filter.users().filter(exchange, this.chain).block();
+        return exchange;
+    }
+
+    private RateLimitFilter filter(int userBurst, int ipBurst) {
+        return new RateLimitFilter(this.meterRegistry, new StaticListableBeanFactory().getBeanProvider(RateLimitStore.class),
+                true, 0.001, userBurst, 0.001, ipBurst, 4, 1_000, false, Duration.ofSeconds(1), Duration.ofSeconds(60));
+    }
+
+    private static MockServerWebExchange exchange(String ip) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/product-detail/detail/MLA1")
+                .remoteAddress(new InetSocketAddress(ip, 52000)));
+    }
+}
@@ -0,0 +1,238 @@
+package com.meli.gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para ResponseCacheFilter con una cadena simulada, un reloj manual y
+ * un cliente de revalidación que no sale a la red.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class ResponseCacheFilterTest {
+
+    private static final String PATH = "/product-detail/detail/MLA1";
+    private static final String SHARED = "public, max-age=0, s-maxage=10, stale-while-revalidate=30";
+    private static final Route ROUTE = Route.async()
+            .id("meli-auth")
+            .uri("lb://product-detail")
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final List<ClientRequest> revalidations = new ArrayList<>();
+    private final Sinks.One<ClientResponse> revalidation = Sinks.one();
+
+    @Test
+    void filter_ShouldServeFreshEntryFromCache() {
+        ResponseCacheFilter filter = filter();
+
+        MockServerWebExchange miss = this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+        MockServerWebExchange hit = this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+
+        assertEquals(1, this.upstreamCalls.get());
+        assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(HttpStatus.OK, hit.getResponse().getStatusCode());
+        assertEquals("{\"id\":\"MLA1\"}", hit.getResponse().getBodyAsString().block());
+        assertEquals("\"v1\"", hit.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void filter_ShouldKeySeparatelyByNegotiatedHeaders() {
+        ResponseCacheFilter filter = filter();
+
+        this.get(filter, this.upstream(SHARED, "\"json\""), request().header(HttpHeaders.ACCEPT, "application/json"));
+        this.get(filter, this.upstream(SHARED, "\"cbor\""), request().header(HttpHeaders.ACCEPT, "application/cbor"));
+        this.get(filter, this.upstream(SHARED, "\"gzip\""), request()
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        MockServerWebExchange hit = this.get(filter, this.upstream(SHARED, "\"otro\""),
+                request().header(HttpHeaders.ACCEPT, "APPLICATION/CBOR"));
+
+        assertEquals(3, this.upstreamCalls.get());
+        assertEquals(3, filter.cache().estimatedSize());
+        assertEquals("\"cbor\"", hit.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void filter_AuthorizedRequest_ShouldNotStoreWithoutSharedDirective() {
+        ResponseCacheFilter filter = filter();
+
+        this.get(filter, this.upstream("max-age=60", "\"v1\""), request());
+        MockServerWebExchange second = this.get(filter, this.upstream("max-age=60", "\"v1\""), request());
+
+        assertEquals(2, this.upstreamCalls.get());
+        assertNull(second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(0, filter.cache().estimatedSize());
+    }
+
+    @Test
+    void filter_ShouldAnswerNotModifiedFromCache() {
+        ResponseCacheFilter filter = filter();
+        this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+
+        MockServerWebExchange notModified = this.get(filter, this.upstream(SHARED, "\"v1\""),
+                request().header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\""));
+
+        assertEquals(1, this.upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getResponse().getStatusCode());
+        assertEquals("", notModified.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void filter_ShouldBypassCacheOnRequestDirectives() {
+        ResponseCacheFilter filter = filter();
+        this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+
+        // no-cache: va al servicio y refresca la entrada
+        this.get(filter, this.upstream(SHARED, "\"v2\""), request().header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        assertEquals(2, this.upstreamCalls.get());
+        MockServerWebExchange hit = this.get(filter, this.upstream(SHARED, "\"v3\""), request());
+        assertEquals("\"v2\"", hit.getResponse().getHeaders().getETag());
+
+        // no-store: va al servicio y no toca la entrada
+        this.get(filter, this.upstream(SHARED, "\"v4\""), request().header(HttpHeaders.CACHE_CONTROL, "no-store"));
+        assertEquals(3, this.upstreamCalls.get());
+        hit = this.get(filter, this.upstream(SHARED, "\"v5\""), request());
+        assertEquals("\"v2\"", hit.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void filter_StaleEntry_ShouldRevalidateOnceWhileServingCopy() {
+        ResponseCacheFilter filter = filter();
+        this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+        this.advance(Duration.ofSeconds(15));
+
+        MockServerWebExchange first = this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+        MockServerWebExchange second = this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+
+        assertEquals("STALE", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("STALE", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("15", first.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+        assertEquals(1, this.upstreamCalls.get());
+        assertEquals(1, this.revalidations.size());
+        ClientRequest sent = this.revalidations.get(0);
+        assertEquals("lb://product-detail" + PATH, sent.url().toString());
+        assertEquals("\"v1\"", sent.headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("Bearer token", sent.headers().getFirst(HttpHeaders.AUTHORIZATION));
+
+        // El 304 renueva la frescura sin cambiar el cuerpo
+        this.revalidation.tryEmitValue(ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                .header(HttpHeaders.CACHE_CONTROL, SHARED)
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .build());
+        MockServerWebExchange hit = this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("{\"id\":\"MLA1\"}", hit.getResponse().getBodyAsString().block());
+        assertEquals(1, this.upstreamCalls.get());
+    }
+
+    @Test
+    void filter_ExpiredStaleWindow_ShouldForwardToService() {
+        ResponseCacheFilter filter = filter();
+        this.get(filter, this.upstream(SHARED, "\"v1\""), request());
+        this.advance(Duration.ofSeconds(41));
+
+        MockServerWebExchange miss = this.get(filter, this.upstream(SHARED, "\"v2\""), request());
+
+        assertEquals(2, this.upstreamCalls.get());
+        assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+        assertTrue(this.revalidations.isEmpty());
+    }
+
+    @Test
+    void weight_ShouldCountKeyAndBodyWithMinimum() {
+        ResponseCacheFilter.CachedResponse small = new ResponseCacheFilter.CachedResponse(HttpStatus.OK,
+                new HttpHeaders(), new byte[10], null, 0, null);
+        ResponseCacheFilter.CachedResponse large = new ResponseCacheFilter.CachedResponse(HttpStatus.OK,
+                new HttpHeaders(), new byte[10_000], null, 0, null);
+
+        assertEquals(1_000, ResponseCacheFilter.weight(1_000, "llave", small));
+        assertEquals(256 + 5 + 10_000, ResponseCacheFilter.weight(1_000, "llave", large));
+    }
+
+    @Test
+    void filter_ShouldBoundCacheByEntriesThroughMinimumWeight() {
+        // 4KB / 2 entradas: cada entrada pesa al menos 2KB, así caben dos aunque los cuerpos sean pequeños
+        ResponseCacheFilter filter = new ResponseCacheFilter(this.revalidationClient(), new SimpleMeterRegistry(), true,
+                2, DataSize.ofKilobytes(4), DataSize.ofKilobytes(1), Duration.ofSeconds(5), Duration.ofSeconds(30),
+                Duration.ofSeconds(5), this.nanos::get);
+
+        for (int i = 0; i < 5; i++) {
+            this.get(filter, this.upstream(SHARED, "\"v" + i + "\""),
+                    MockServerHttpRequest.get(PATH + "?i=" + i).header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+        }
+        filter.cache().cleanUp();
+
+        long entries = filter.cache().estimatedSize();
+        assertTrue(entries > 0 && entries <= 2);
+        assertEquals(entries * 2048, filter.cache().policy().eviction().orElseThrow().weightedSize().orElseThrow());
+    }
+
+    private ResponseCacheFilter filter() {
+        return new ResponseCacheFilter(this.revalidationClient(), new SimpleMeterRegistry(), true, 10_000,
+                DataSize.ofMegabytes(1), DataSize.ofKilobytes(64), Duration.ofSeconds(5), Duration.ofSeconds(30),
+                Duration.ofSeconds(5), this.nanos::get);
+    }
+
+    private WebClient.Builder revalidationClient() {
+        return WebClient.builder().exchangeFunction(request -> {
+            this.revalidations.add(request);
+            return this.revalidation.asMono();
+        });
+    }
+
+    private GatewayFilterChain upstream(String cacheControl, String etag) {
+        return exchange -> {
+            this.upstreamCalls.incrementAndGet();
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setCacheControl(cacheControl);
+            response.getHeaders().setETag(etag);
+            response.getHeaders().setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+            byte[] body = "{\"id\":\"MLA1\"}".getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private MockServerWebExchange get(ResponseCacheFilter filter, GatewayFilterChain chain,
+                                      MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request() {
+        return MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer token");
+    }
+
+    private void advance(Duration duration) {
+        this.nanos.addAndGet(duration.toNanos());
+    }
+}
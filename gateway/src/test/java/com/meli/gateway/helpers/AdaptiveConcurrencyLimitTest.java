@@ -0,0 +1,102 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para AdaptiveConcurrencyLimit, con reloj manual.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldReserveCapacityForFullSharePriority() {
+        AdaptiveConcurrencyLimit limit = this.limit(10);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(0.5));
+        }
+        assertFalse(limit.tryAcquire(0.5));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+        }
+        assertFalse(limit.tryAcquire(1.0));
+        assertEquals(10, limit.inFlight());
+
+        limit.release();
+        assertTrue(limit.tryAcquire(1.0));
+    }
+
+    @Test
+    void release_StableRttUnderLoad_ShouldGrowLimit() {
+        AdaptiveConcurrencyLimit limit = this.limit(10);
+
+        this.windows(limit, 20, 10, 20 * MS);
+
+        assertTrue(limit.limit() > 10, "limit: " + limit.limit());
+    }
+
+    @Test
+    void release_RisingRtt_ShouldShrinkLimit() {
+        AdaptiveConcurrencyLimit limit = this.limit(40);
+        this.windows(limit, 5, 40, 20 * MS);
+        int before = limit.limit();
+
+        // El servicio encola: el RTT se multiplica por 5
+        this.windows(limit, 5, 40, 100 * MS);
+
+        assertTrue(limit.limit() < before, "before: " + before + ", after: " + limit.limit());
+    }
+
+    @Test
+    void release_Dropped_ShouldBackOff() {
+        AdaptiveConcurrencyLimit limit = this.limit(20);
+        assertTrue(limit.tryAcquire(1.0));
+        this.clock.addAndGet(600 * MS);
+
+        limit.release(MS, true);
+
+        assertEquals(18, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void release_WithoutLoad_ShouldNotGrowLimit() {
+        AdaptiveConcurrencyLimit limit = this.limit(20);
+
+        // Una petición a la vez: menos de la mitad del límite en uso
+        this.windows(limit, 10, 1, 5 * MS);
+
+        assertEquals(20, limit.limit());
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initial) {
+        return new AdaptiveConcurrencyLimit(initial, 2, 100, 1.5, 0.9, 500 * MS, 1, this.clock::get);
+    }
+
+    // Cada ventana: "concurrency" peticiones simultáneas de "rtt", luego avanza 500ms
+    private void windows(AdaptiveConcurrencyLimit limit, int count, int concurrency, long rtt) {
+        for (int window = 0; window < count; window++) {
+            int acquired = 0;
+            for (int i = 0; i < concurrency; i++) {
+                if (limit.tryAcquire(1.0)) {
+                    acquired++;
+                }
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rtt, false);
+            }
+            this.clock.addAndGet(500 * MS);
+            limit.tryAcquire(1.0);
+            limit.release(rtt, false);
+        }
+    }
+}
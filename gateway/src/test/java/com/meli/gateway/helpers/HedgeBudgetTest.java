@@ -0,0 +1,96 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para HedgeBudget.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class HedgeBudgetTest {
+
+    @Test
+    void tryAcquire_ShouldStartFullUpToBurst() {
+        HedgeBudget budget = new HedgeBudget(0.1, 3);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void onRequest_ShouldRefillOneHedgePerRatioRequests() {
+        HedgeBudget budget = new HedgeBudget(0.1, 1);
+        assertTrue(budget.tryAcquire());
+
+        for (int i = 0; i < 9; i++) {
+            budget.onRequest();
+        }
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void onRequest_ShouldNotAccumulateBeyondBurst() {
+        HedgeBudget budget = new HedgeBudget(0.5, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_ZeroRatio_ShouldOnlyAllowInitialBurst() {
+        HedgeBudget budget = new HedgeBudget(0, 1);
+        assertTrue(budget.tryAcquire());
+
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest();
+        }
+
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_Concurrent_ShouldNeverExceedBalance() throws Exception {
+        HedgeBudget budget = new HedgeBudget(0, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (budget.tryAcquire()) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(50, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.meli.gateway.helpers;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para JwksKeyResolver contra un JWKS servido localmente.
+ *
+ * El WebClient reescribe lb://auth-server al servidor local, en lugar de
+ * pasar por el load balancer.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class JwksKeyResolverTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicReference<String> jwks = new AtomicReference<>("{\"keys\":[]}");
+    private DisposableServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (this.server != null) {
+            this.server.disposeNow();
+        }
+    }
+
+    @Test
+    void resolve_ShouldReturnParserForPublishedKid() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        this.jwks.set(jwks(jwk(keyPair, "key-1")));
+        JwksKeyResolver resolver = resolver(Duration.ZERO);
+
+        var parser = resolver.resolve("key-1").block();
+
+        assertNotNull(parser);
+        assertEquals("user", parser.parseClaimsJws(JwtHelperTest.es256Token(keyPair, "key-1", 60_000))
+                .getBody().getSubject());
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    void resolve_ShouldReturnEmptyForUnknownKidWithoutReloadingEachTime() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        this.jwks.set(jwks(jwk(keyPair, "key-1")));
+        JwksKeyResolver resolver = resolver(Duration.ZERO);
+
+        assertNull(resolver.resolve("unknown").block());
+        assertNull(resolver.resolve("unknown").block());
+        assertNull(resolver.resolve("another").block());
+
+        // Dentro del intervalo mínimo solo hubo una recarga
+        assertEquals(1, this.requests.get());
+        assertNotNull(resolver.resolve("key-1").block());
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    void resolve_ShouldShareSingleReloadBetweenConcurrentRequests() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        this.jwks.set(jwks(jwk(keyPair, "key-1")));
+        JwksKeyResolver resolver = resolver(Duration.ofMillis(200));
+
+        List<JwtParser> parsers = Flux.range(0, 20)
+                .flatMap(i -> resolver.resolve("key-1"))
+                .collectList()
+                .block();
+
+        assertEquals(20, parsers.size());
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    void resolve_ShouldIgnoreKeysThatAreNotEcP256() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        this.jwks.set(jwks("{\"kty\":\"RSA\",\"kid\":\"rsa-1\",\"n\":\"AQAB\",\"e\":\"AQAB\"}",
+                "{\"kty\":\"EC\",\"crv\":\"P-256\",\"kid\":\"broken\",\"x\":\"AA\",\"y\":\"AA\"}",
+                jwk(keyPair, "key-1")));
+        JwksKeyResolver resolver = resolver(Duration.ZERO);
+
+        assertNotNull(resolver.resolve("key-1").block());
+        assertNull(resolver.resolve("rsa-1").block());
+        assertNull(resolver.resolve("broken").block());
+    }
+
+    private JwksKeyResolver resolver(Duration delay) {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/auth-server/auth/.well-known/jwks.json", (request, response) -> {
+                    this.requests.incrementAndGet();
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.fromSupplier(this.jwks::get).delayElement(delay));
+                }))
+                .bindNow();
+        final var port = this.server.port();
+        return new JwksKeyResolver(WebClient.builder()
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(URI.create("http://localhost:" + port + request.url().getRawPath()))
+                        .build()))
+                .build());
+    }
+
+    private static String jwks(String... keys) {
+        return "{\"keys\":[" + String.join(",", keys) + "]}";
+    }
+
+    private static String jwk(KeyPair keyPair, String keyId) {
+        final var point = ((ECPublicKey) keyPair.getPublic()).getW();
+        return "{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"" + keyId
+                + "\",\"x\":\"" + coordinate(point.getAffineX()) + "\",\"y\":\"" + coordinate(point.getAffineY()) + "\"}";
+    }
+
+    // Coordenada de 32 bytes sin signo, como la publica el auth-server
+    private static String coordinate(BigInteger value) {
+        final var bytes = value.toByteArray();
+        final var fixed = new byte[32];
+        final var length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -0,0 +1,181 @@
+package com.meli.gateway.helpers;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para JwtHelper.
+ *
+ * Cubren la validación HMAC (token vigente, expirado y firmado con otra
+ * llave), la rotación con previous-secrets y la selección de llave por kid
+ * en modo ES256.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class JwtHelperTest {
+
+    private static final String SECRET = "secret-actual-de-al-menos-32-bytes-para-hs256";
+    private static final String PREVIOUS_SECRET = "secret-anterior-de-al-menos-32-bytes-hs256";
+    private static final String OTHER_SECRET = "secret-desconocido-de-al-menos-32-bytes-hs";
+
+    private final JwksKeyResolver jwksKeyResolver = mock(JwksKeyResolver.class);
+
+    @Test
+    void validateToken_ShouldAcceptValidHmacToken() {
+        JwtHelper helper = hmacHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+
+        assertTrue(helper.validateToken(hmacToken(SECRET, 60_000)).block());
+        verifyNoInteractions(this.jwksKeyResolver);
+    }
+
+    @Test
+    void validateToken_ShouldRejectExpiredHmacToken() {
+        JwtHelper helper = hmacHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+
+        assertFalse(helper.validateToken(hmacToken(SECRET, -60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldRejectTokenSignedWithUnknownKey() {
+        JwtHelper helper = hmacHelper(new MockEnvironment()
+                .withProperty("application.jwt.secret", SECRET)
+                .withProperty("application.jwt.previous-secrets", PREVIOUS_SECRET));
+
+        assertFalse(helper.validateToken(hmacToken(OTHER_SECRET, 60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldAcceptPreviousSecretsDuringRotation() {
+        JwtHelper withoutRotation = hmacHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+        JwtHelper withRotation = hmacHelper(new MockEnvironment()
+                .withProperty("application.jwt.secret", SECRET)
+                .withProperty("application.jwt.previous-secrets", OTHER_SECRET + "," + PREVIOUS_SECRET));
+
+        String token = hmacToken(PREVIOUS_SECRET, 60_000);
+
+        assertFalse(withoutRotation.validateToken(token).block());
+        assertTrue(withRotation.validateToken(token).block());
+        // Expirado sigue siendo rechazado aunque lo firme una llave anterior
+        assertFalse(withRotation.validateToken(hmacToken(PREVIOUS_SECRET, -60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldReloadKeysOnEnvironmentChange() {
+        MockEnvironment environment = new MockEnvironment().withProperty("application.jwt.secret", PREVIOUS_SECRET);
+        JwtHelper helper = hmacHelper(environment);
+        String token = hmacToken(SECRET, 60_000);
+        assertFalse(helper.validateToken(token).block());
+
+        environment.setProperty("application.jwt.secret", SECRET);
+        environment.setProperty("application.jwt.previous-secrets", PREVIOUS_SECRET);
+        helper.onApplicationEvent(new EnvironmentChangeEvent(Set.of("application.jwt.secret")));
+
+        assertTrue(helper.validateToken(token).block());
+        assertTrue(helper.validateToken(hmacToken(PREVIOUS_SECRET, 60_000)).block());
+    }
+
+    @Test
+    void verify_ShouldReturnClaimsOnlyForValidTokens() {
+        JwtHelper helper = hmacHelper(new MockEnvironment().withProperty("application.jwt.secret", SECRET));
+
+        assertEquals("user", helper.verify(hmacToken(SECRET, 60_000)).block().getSubject());
+        assertNull(helper.verify(hmacToken(OTHER_SECRET, 60_000)).block());
+        assertNull(helper.verify(hmacToken(SECRET, -60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldResolveEs256KeyByKid() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        when(this.jwksKeyResolver.resolve("key-1"))
+                .thenReturn(Mono.just(Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build()));
+        JwtHelper helper = es256Helper();
+
+        assertTrue(helper.validateToken(es256Token(keyPair, "key-1", 60_000)).block());
+        assertFalse(helper.validateToken(es256Token(keyPair, "key-1", -60_000)).block());
+        verify(this.jwksKeyResolver, times(2)).resolve("key-1");
+    }
+
+    @Test
+    void validateToken_ShouldRejectEs256TokenSignedWithAnotherKey() {
+        KeyPair published = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair forged = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        when(this.jwksKeyResolver.resolve("key-1"))
+                .thenReturn(Mono.just(Jwts.parserBuilder().setSigningKey(published.getPublic()).build()));
+        JwtHelper helper = es256Helper();
+
+        assertFalse(helper.validateToken(es256Token(forged, "key-1", 60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldRejectEs256TokenWithUnknownKid() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        when(this.jwksKeyResolver.resolve("rotated-out")).thenReturn(Mono.empty());
+        JwtHelper helper = es256Helper();
+
+        assertFalse(helper.validateToken(es256Token(keyPair, "rotated-out", 60_000)).block());
+    }
+
+    @Test
+    void validateToken_ShouldRejectEs256TokenWithoutKidWithoutResolving() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtHelper helper = es256Helper();
+        String token = Jwts.builder()
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertFalse(helper.validateToken(token).block());
+        assertFalse(helper.validateToken("not-a-jwt").block());
+        verify(this.jwksKeyResolver, never()).resolve(anyString());
+    }
+
+    @Test
+    void validateToken_ShouldRejectWhenJwksCannotBeLoaded() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        when(this.jwksKeyResolver.resolve("key-1")).thenReturn(Mono.error(new IllegalStateException("down")));
+        JwtHelper helper = es256Helper();
+
+        assertFalse(helper.validateToken(es256Token(keyPair, "key-1", 60_000)).block());
+    }
+
+    private JwtHelper hmacHelper(MockEnvironment environment) {
+        return new JwtHelper(environment, this.jwksKeyResolver);
+    }
+
+    private JwtHelper es256Helper() {
+        return new JwtHelper(new MockEnvironment().withProperty("application.jwt.algorithm", "ES256"),
+                this.jwksKeyResolver);
+    }
+
+    private static String hmacToken(String secret, long ttlMillis) {
+        return Jwts.builder()
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    static String es256Token(KeyPair keyPair, String keyId, long ttlMillis) {
+        return Jwts.builder()
+                .setHeaderParam("kid", keyId)
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+}
@@ -0,0 +1,235 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para LatencyAwareLoadBalancer.
+ *
+ * Los primeros usan un reloj manual para verificar la elección por latencia,
+ * peticiones en curso y tasa de error; el último reparte tráfico real entre
+ * tres instancias locales (rápida, lenta y con errores).
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE_ID = "product-detail";
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MS);
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        this.servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    void choose_ShouldPreferLowerLatency() {
+        ServiceInstance fast = instance("fast", 8081);
+        ServiceInstance slow = instance("slow", 8082);
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(fast, slow);
+
+        this.complete(loadBalancer, fast, 5 * MS, 200);
+        this.complete(loadBalancer, slow, 200 * MS, 200);
+
+        // Con dos instancias, power of two choices siempre compara ambas
+        for (int i = 0; i < 20; i++) {
+            assertEquals("fast", choose(loadBalancer).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void choose_ShouldAccountForInFlightRequests() {
+        ServiceInstance a = instance("a", 8081);
+        ServiceInstance b = instance("b", 8082);
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(a, b);
+        this.complete(loadBalancer, a, 10 * MS, 200);
+        this.complete(loadBalancer, b, 15 * MS, 200);
+
+        // Tres peticiones abiertas en "a": 10ms x 4 supera 15ms x 1
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onStartRequest(cast(request()), new DefaultResponse(a));
+        }
+
+        assertEquals(3, loadBalancer.stats(a, this.clock.get()).inFlight());
+        assertEquals("b", choose(loadBalancer).getServer().getInstanceId());
+    }
+
+    @Test
+    void choose_ShouldAvoidFailingInstanceUntilErrorRateDecays() {
+        ServiceInstance healthy = instance("healthy", 8081);
+        ServiceInstance failing = instance("failing", 8082);
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(healthy, failing);
+        this.complete(loadBalancer, healthy, 50 * MS, 200);
+        // Falla rápido: por latencia sería la preferida
+        for (int i = 0; i < 20; i++) {
+            this.complete(loadBalancer, failing, MS, 503);
+        }
+
+        assertTrue(loadBalancer.stats(failing, this.clock.get()).errorRate(this.clock.get()) >= 0.5);
+        assertEquals("healthy", choose(loadBalancer).getServer().getInstanceId());
+
+        // Sin tráfico, la tasa de error decae y la instancia vuelve a probarse
+        this.clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals("failing", choose(loadBalancer).getServer().getInstanceId());
+    }
+
+    @Test
+    void choose_AllFailing_ShouldStillReturnAnInstance() {
+        ServiceInstance a = instance("a", 8081);
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(a);
+        this.complete(loadBalancer, a, MS, 500);
+
+        assertTrue(choose(loadBalancer).hasServer());
+    }
+
+    @Test
+    void choose_NoInstances_ShouldReturnEmptyResponse() {
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer();
+
+        assertFalse(choose(loadBalancer).hasServer());
+    }
+
+    @Test
+    void choose_WithInstanceChoice_ShouldSendSecondRequestToAnotherInstance() {
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(instance("a", 1), instance("b", 2), instance("c", 3));
+
+        for (int i = 0; i < 20; i++) {
+            InstanceChoice choice = new InstanceChoice();
+            String primary = choose(loadBalancer, choice).getServer().getInstanceId();
+            String hedge = choose(loadBalancer, choice).getServer().getInstanceId();
+
+            assertNotEquals(primary, hedge);
+            assertTrue(choice.hasAlternative());
+        }
+    }
+
+    @Test
+    void choose_WithInstanceChoice_SingleHealthyInstance_ShouldReportNoAlternative() {
+        ServiceInstance healthy = instance("healthy", 1);
+        ServiceInstance failing = instance("failing", 2);
+        LatencyAwareLoadBalancer loadBalancer = this.loadBalancer(healthy, failing);
+        for (int i = 0; i < 10; i++) {
+            this.complete(loadBalancer, failing, 10 * MS, 500);
+        }
+        InstanceChoice choice = new InstanceChoice();
+
+        assertEquals("healthy", choose(loadBalancer, choice).getServer().getInstanceId());
+        assertFalse(choice.hasAlternative());
+        // Sin alternativa sana se repite la instancia: no cubrirse lo decide HedgingFilter
+        assertEquals("healthy", choose(loadBalancer, choice).getServer().getInstanceId());
+    }
+
+    @Test
+    void choose_AgainstLocalStubs_ShouldSendMostTrafficToFastInstance() {
+        ServiceInstance fast = this.stub("fast", Duration.ZERO, 200);
+        ServiceInstance slow = this.stub("slow", Duration.ofMillis(60), 200);
+        ServiceInstance failing = this.stub("failing", Duration.ZERO, 500);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from(SERVICE_ID, fast, slow, failing)),
+                SERVICE_ID, Duration.ofSeconds(10), Duration.ofSeconds(30), 0.5);
+        WebClient webClient = WebClient.create();
+        Map<String, Integer> hits = new HashMap<>();
+
+        for (int i = 0; i < 150; i++) {
+            Request<RequestDataContext> request = request();
+            Response<ServiceInstance> response = loadBalancer.choose(request).block();
+            loadBalancer.onStartRequest(cast(request), response);
+            HttpStatusCode status = webClient.get()
+                    .uri(response.getServer().getUri().resolve("/ping"))
+                    .exchangeToMono(clientResponse -> Mono.just(clientResponse.statusCode()))
+                    .block(Duration.ofSeconds(5));
+            loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, cast(request), response,
+                    new ResponseData(status, new HttpHeaders(), new LinkedMultiValueMap<>(), request.getContext().getClientRequest())));
+            hits.merge(response.getServer().getInstanceId(), 1, Integer::sum);
+        }
+
+        assertTrue(hits.getOrDefault("fast", 0) > 100, "fast: " + hits);
+        assertTrue(hits.getOrDefault("failing", 0) < 15, "failing: " + hits);
+    }
+
+    private ServiceInstance stub(String id, Duration delay, int status) {
+        DisposableServer server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/ping", (request, response) -> response
+                        .status(status)
+                        .sendString(Mono.just("ok").delayElement(delay))))
+                .bindNow();
+        this.servers.add(server);
+        return instance(id, server.port());
+    }
+
+    private LatencyAwareLoadBalancer loadBalancer(ServiceInstance... instances) {
+        return new LatencyAwareLoadBalancer(
+                new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from(SERVICE_ID, instances)),
+                SERVICE_ID, Duration.ofSeconds(10), Duration.ofSeconds(30), 0.5, this.clock::get);
+    }
+
+    // Simula una petición de la duración indicada a la instancia
+    private void complete(LatencyAwareLoadBalancer loadBalancer, ServiceInstance instance, long latency, int status) {
+        Request<RequestDataContext> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(cast(request), response);
+        this.clock.addAndGet(latency);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, cast(request), response,
+                new ResponseData(HttpStatusCode.valueOf(status), new HttpHeaders(), new LinkedMultiValueMap<>(),
+                        request.getContext().getClientRequest())));
+    }
+
+    private static Response<ServiceInstance> choose(LatencyAwareLoadBalancer loadBalancer) {
+        return loadBalancer.choose(request()).block();
+    }
+
+    private static Response<ServiceInstance> choose(LatencyAwareLoadBalancer loadBalancer, InstanceChoice choice) {
+        Request<RequestDataContext> request = request();
+        request.getContext().getClientRequest().getAttributes().put(InstanceChoice.ATTR, choice);
+        return loadBalancer.choose(request).block();
+    }
+
+    private static Request<RequestDataContext> request() {
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET, URI.create("http://" + SERVICE_ID + "/ping"),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), new HashMap<>())));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Request<Object> cast(Request<RequestDataContext> request) {
+        return (Request) request;
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, SERVICE_ID, "localhost", port, false);
+    }
+}
@@ -0,0 +1,27 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para RateLimitKeys.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class RateLimitKeysTest {
+
+    @Test
+    void clientIp_ShouldUseForwardedForOnlyWhenTrusted() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/product-detail/detail/MLA1")
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 52000))
+                .header("X-Forwarded-For", "203.0.113.9, 10.0.0.1")
+                .build();
+
+        assertEquals("10.0.0.7", RateLimitKeys.clientIp(request, false));
+        assertEquals("203.0.113.9", RateLimitKeys.clientIp(request, true));
+    }
+}
@@ -0,0 +1,138 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ResponseCachePolicy.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class ResponseCachePolicyTest {
+
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_STALE = Duration.ofSeconds(30);
+
+    @Test
+    void lifetime_ShouldPreferSharedMaxAge() {
+        ResponseCachePolicy.Lifetime lifetime = lifetime(false, "public, max-age=0, s-maxage=60, stale-while-revalidate=10");
+
+        assertEquals(Duration.ofSeconds(60), lifetime.fresh());
+        assertEquals(Duration.ofSeconds(10), lifetime.staleWhileRevalidate());
+        assertEquals(Duration.ofSeconds(70), lifetime.total());
+    }
+
+    @Test
+    void lifetime_ShouldUseMaxAgeAndDefaultStale() {
+        ResponseCachePolicy.Lifetime lifetime = lifetime(false, "max-age=\"20\"");
+
+        assertEquals(Duration.ofSeconds(20), lifetime.fresh());
+        assertEquals(DEFAULT_STALE, lifetime.staleWhileRevalidate());
+    }
+
+    @Test
+    void lifetime_ExcludingDirectives_ShouldNotStore() {
+        assertNull(lifetime(false, "no-store"));
+        assertNull(lifetime(false, "max-age=60, private"));
+        assertNull(lifetime(false, "public, No-Cache"));
+    }
+
+    @Test
+    void lifetime_WithoutCacheControl_ShouldUseDefaultsOnlyForAnonymousRequests() {
+        ResponseCachePolicy.Lifetime lifetime = lifetime(false, null);
+
+        assertEquals(DEFAULT_TTL, lifetime.fresh());
+        assertEquals(DEFAULT_STALE, lifetime.staleWhileRevalidate());
+        assertNull(lifetime(true, null));
+    }
+
+    @Test
+    void lifetime_AuthorizedRequest_ShouldRequireSharedDirective() {
+        assertNull(lifetime(true, "max-age=60"));
+        assertEquals(Duration.ofSeconds(60), lifetime(true, "public, max-age=60").fresh());
+        assertEquals(Duration.ofSeconds(30), lifetime(true, "max-age=0, s-maxage=30").fresh());
+        assertEquals(Duration.ofSeconds(60), lifetime(true, "max-age=60, must-revalidate").fresh());
+    }
+
+    @Test
+    void lifetime_ZeroLifetime_ShouldNotStore() {
+        assertNull(lifetime(false, "max-age=0, stale-while-revalidate=0"));
+    }
+
+    @Test
+    void lifetime_ShouldOnlyStoreVaryCoveredByKey() {
+        HttpHeaders headers = headers("public, max-age=60");
+        headers.setVary(List.of("Accept", "accept-encoding"));
+        assertNotNull(ResponseCachePolicy.lifetime(HttpStatus.OK, headers, true, DEFAULT_TTL, DEFAULT_STALE));
+
+        headers.setVary(List.of("Accept", "Cookie"));
+        assertNull(ResponseCachePolicy.lifetime(HttpStatus.OK, headers, true, DEFAULT_TTL, DEFAULT_STALE));
+
+        headers.setVary(List.of("*"));
+        assertNull(ResponseCachePolicy.lifetime(HttpStatus.OK, headers, true, DEFAULT_TTL, DEFAULT_STALE));
+    }
+
+    @Test
+    void lifetime_ShouldNotStoreErrorsCookiesOrStreams() {
+        assertNull(ResponseCachePolicy.lifetime(HttpStatus.NOT_FOUND, headers("public, max-age=60"), true,
+                DEFAULT_TTL, DEFAULT_STALE));
+
+        HttpHeaders withCookie = headers("public, max-age=60");
+        withCookie.add(HttpHeaders.SET_COOKIE, "session=1");
+        assertNull(ResponseCachePolicy.lifetime(HttpStatus.OK, withCookie, true, DEFAULT_TTL, DEFAULT_STALE));
+
+        HttpHeaders stream = headers("public, max-age=60");
+        stream.set(HttpHeaders.CONTENT_TYPE, "application/x-ndjson");
+        assertNull(ResponseCachePolicy.lifetime(HttpStatus.OK, stream, true, DEFAULT_TTL, DEFAULT_STALE));
+    }
+
+    @Test
+    void bypass_ShouldHonourRequestDirectives() {
+        assertFalse(ResponseCachePolicy.bypass(new HttpHeaders()));
+        assertTrue(ResponseCachePolicy.bypass(requestCacheControl("no-cache")));
+        assertTrue(ResponseCachePolicy.bypass(requestCacheControl("No-Store")));
+        assertFalse(ResponseCachePolicy.bypass(requestCacheControl("max-age=0")));
+
+        HttpHeaders pragma = new HttpHeaders();
+        pragma.set(HttpHeaders.PRAGMA, "no-cache");
+        assertTrue(ResponseCachePolicy.bypass(pragma));
+
+        assertTrue(ResponseCachePolicy.noStore(requestCacheControl("no-store")));
+        assertFalse(ResponseCachePolicy.noStore(requestCacheControl("no-cache")));
+    }
+
+    @Test
+    void notModified_ShouldUseWeakComparison() {
+        assertTrue(ResponseCachePolicy.notModified("\"v1\"", "\"v1\""));
+        assertTrue(ResponseCachePolicy.notModified("W/\"v1\"", "\"v1\""));
+        assertTrue(ResponseCachePolicy.notModified("\"v0\", \"v1\"", "W/\"v1\""));
+        assertTrue(ResponseCachePolicy.notModified("*", "\"v1\""));
+        assertFalse(ResponseCachePolicy.notModified("\"v0\"", "\"v1\""));
+        assertFalse(ResponseCachePolicy.notModified(null, "\"v1\""));
+        assertFalse(ResponseCachePolicy.notModified("\"v1\"", null));
+    }
+
+    private static ResponseCachePolicy.Lifetime lifetime(boolean authorized, String cacheControl) {
+        return ResponseCachePolicy.lifetime(HttpStatus.OK, headers(cacheControl), authorized, DEFAULT_TTL, DEFAULT_STALE);
+    }
+
+    private static HttpHeaders headers(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
+        }
+        return headers;
+    }
+
+    private static HttpHeaders requestCacheControl(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
+}
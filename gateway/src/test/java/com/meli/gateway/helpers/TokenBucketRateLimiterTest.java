@@ -0,0 +1,89 @@
+package com.meli.gateway.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para TokenBucketRateLimiter, con reloj manual.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MS);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReject() {
+        TokenBucketRateLimiter limiter = this.limiter(10, 5, false);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("user-1"));
+        }
+        long wait = limiter.tryAcquire("user-1");
+
+        // 10 fichas por segundo: la siguiente llega en 100ms
+        assertEquals(100 * MS, wait);
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucketRateLimiter limiter = this.limiter(10, 2, false);
+        limiter.tryAcquire("user-1");
+        limiter.tryAcquire("user-1");
+        assertTrue(limiter.tryAcquire("user-1") > 0);
+
+        this.clock.addAndGet(100 * MS);
+
+        assertEquals(0, limiter.tryAcquire("user-1"));
+        assertTrue(limiter.tryAcquire("user-1") > 0);
+    }
+
+    @Test
+    void tryAcquire_KeysShouldBeIndependent() {
+        TokenBucketRateLimiter limiter = this.limiter(1, 1, false);
+
+        assertEquals(0, limiter.tryAcquire("user-1"));
+        assertTrue(limiter.tryAcquire("user-1") > 0);
+        assertEquals(0, limiter.tryAcquire("user-2"));
+    }
+
+    @Test
+    void tryAcquire_OverMaxKeys_ShouldEvictIdleBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 1, 16, false, this.clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("ip-" + i);
+            // Cada bucket se recarga antes de la siguiente llave: queda inactivo
+            this.clock.addAndGet(200 * MS);
+        }
+
+        assertTrue(limiter.size() <= 34, "size: " + limiter.size());
+    }
+
+    @Test
+    void synchronize_ShouldDrainTokensUsedByOtherNodes() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+        TokenBucketRateLimiter nodeA = this.limiter(1, 10, true);
+        TokenBucketRateLimiter nodeB = this.limiter(1, 10, true);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0, nodeA.tryAcquire("user-1"));
+        }
+        assertEquals(0, nodeB.tryAcquire("user-1"));
+
+        nodeA.synchronize(store, Duration.ofMinutes(1)).block();
+        nodeB.synchronize(store, Duration.ofMinutes(1)).block();
+
+        // B admitió 1 y se entera de las 8 de A: solo queda una ficha global
+        assertEquals(0, nodeB.tryAcquire("user-1"));
+        assertTrue(nodeB.tryAcquire("user-1") > 0);
+    }
+
+    private TokenBucketRateLimiter limiter(double rate, int burst, boolean tracking) {
+        return new TokenBucketRateLimiter(rate, burst, 4, 1_000, tracking, this.clock::get);
+    }
+}
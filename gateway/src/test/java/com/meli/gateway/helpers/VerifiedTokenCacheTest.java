@@ -0,0 +1,167 @@
+package com.meli.gateway.helpers;
+
+import com.meli.gateway.dtos.TokenDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para VerifiedTokenCache.
+ *
+ * Usan un reloj manual compartido por Caffeine y por el cálculo de la
+ * expiración, para comprobar que ninguna entrada sobrevive al claim exp.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class VerifiedTokenCacheTest {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger validations = new AtomicInteger();
+
+    @Test
+    void get_ShouldReuseValidationUntilExp() {
+        VerifiedTokenCache cache = cache(true);
+        String token = token(START_MILLIS / 1000 + 60);
+
+        cache.get(token, this::validation).block();
+        advance(Duration.ofSeconds(59));
+        cache.get(token, this::validation).block();
+        assertEquals(1, this.validations.get());
+
+        // En exp la entrada ya no es válida
+        advance(Duration.ofSeconds(1));
+        cache.get(token, this::validation).block();
+        assertEquals(2, this.validations.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheExpiredOrUnreadableTokens() {
+        VerifiedTokenCache cache = cache(true);
+        String expired = token(START_MILLIS / 1000 - 1);
+
+        cache.get(expired, this::validation).block();
+        cache.get(expired, this::validation).block();
+        cache.get("sin.exp.legible", this::validation).block();
+        cache.get("sin.exp.legible", this::validation).block();
+
+        assertEquals(4, this.validations.get());
+    }
+
+    @Test
+    void get_ShouldCollapseConcurrentValidationsOfSameToken() throws Exception {
+        VerifiedTokenCache cache = cache(true);
+        String token = token(START_MILLIS / 1000 + 60);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<VerifiedTokenCache.VerifiedToken>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(token, () -> this.validation()
+                            .delayElement(Duration.ofMillis(100))).block();
+                }));
+            }
+            start.countDown();
+            for (Future<VerifiedTokenCache.VerifiedToken> result : results) {
+                assertEquals("user", result.get(5, TimeUnit.SECONDS).subject());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, this.validations.get());
+    }
+
+    @Test
+    void get_ShouldReturnVerifiedSubjectAndExp() {
+        VerifiedTokenCache cache = cache(true);
+        long exp = START_MILLIS / 1000 + 60;
+        String token = token(exp);
+
+        VerifiedTokenCache.VerifiedToken miss = cache.get(token, this::validation).block();
+        VerifiedTokenCache.VerifiedToken hit = cache.get(token, this::validation).block();
+
+        assertEquals(new VerifiedTokenCache.VerifiedToken("user", exp), miss);
+        assertEquals(miss, hit);
+        assertNull(cache(false).get("sin.exp.legible", this::validation).block().subject());
+    }
+
+    @Test
+    void get_ShouldNotCacheFailedValidations() {
+        VerifiedTokenCache cache = cache(true);
+        String token = token(START_MILLIS / 1000 + 60);
+
+        assertThrows(RuntimeException.class, () -> cache.get(token, () -> {
+            this.validations.incrementAndGet();
+            return Mono.error(new IllegalStateException("auth-server down"));
+        }).block());
+        cache.get(token, this::validation).block();
+
+        assertEquals(2, this.validations.get());
+    }
+
+    @Test
+    void get_ShouldAlwaysValidateWhenDisabled() {
+        VerifiedTokenCache cache = cache(false);
+        String token = token(START_MILLIS / 1000 + 60);
+
+        cache.get(token, this::validation).block();
+        cache.get(token, this::validation).block();
+
+        assertEquals(2, this.validations.get());
+    }
+
+    @Test
+    void digest_ShouldBeSha256OfToken() throws Exception {
+        String token = token(START_MILLIS / 1000 + 60);
+        String expected = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, VerifiedTokenCache.digest(token));
+        assertEquals(43, VerifiedTokenCache.digest(token).length());
+        assertNotEquals(VerifiedTokenCache.digest(token), VerifiedTokenCache.digest(token + "x"));
+    }
+
+    private VerifiedTokenCache cache(boolean enabled) {
+        return new VerifiedTokenCache(new SimpleMeterRegistry(), enabled, 100, this.nanos::get,
+                () -> START_MILLIS + TimeUnit.NANOSECONDS.toMillis(this.nanos.get()));
+    }
+
+    private Mono<TokenDto> validation() {
+        return Mono.fromSupplier(() -> {
+            this.validations.incrementAndGet();
+            return TokenDto.builder().expiresIn(60L).build();
+        });
+    }
+
+    private void advance(Duration duration) {
+        this.nanos.addAndGet(duration.toNanos());
+    }
+
+    private static String token(long exp) {
+        final var encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"sub\":\"user\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8))
+                + ".firma";
+    }
+}
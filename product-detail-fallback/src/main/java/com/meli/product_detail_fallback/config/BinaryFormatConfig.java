@@ -0,0 +1,121 @@
+package com.meli.product_detail_fallback.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.meli.product_detail_fallback.controllers.ProductDetailFallbackControllers;
+import com.meli.product_detail_fallback.entities.ProductDetail;
+import com.meli.product_detail_fallback.helpers.WireFormat;
+
+/**
+ * Formatos binarios (CBOR y Smile) para consumidores internos.
+ *
+ * Mismos conversores que product-detail, para que una respuesta del
+ * fallback se pueda decodificar igual que la del servicio principal. La
+ * negociación aplica la regla de WireFormat: ante empate de valores q en
+ * {@code Accept} se responde JSON, no el primer formato binario listado.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    WebMvcConfigurer wireFormatNegotiation() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+                configurer.strategies(List.of(new WireFormatNegotiationStrategy()));
+            }
+        };
+    }
+
+    /**
+     * Negociación por Accept que antepone el formato elegido por
+     * WireFormat#negotiate, así Spring lo prefiere sobre los demás tipos con
+     * el mismo valor q. Si el cliente no acepta ninguno de los tres formatos
+     * se deja la lista tal cual (406 o el tipo que corresponda).
+     */
+    static class WireFormatNegotiationStrategy implements ContentNegotiationStrategy {
+
+        private final HeaderContentNegotiationStrategy headerStrategy = new HeaderContentNegotiationStrategy();
+
+        @Override
+        public List<MediaType> resolveMediaTypes(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+            final var accepted = headerStrategy.resolveMediaTypes(request);
+            final var format = WireFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+            if (accepted.stream().noneMatch(type -> type.includes(format.mediaType()))) {
+                return accepted;
+            }
+            final var preferred = new ArrayList<MediaType>(accepted.size() + 1);
+            preferred.add(format.mediaType());
+            preferred.addAll(accepted);
+            return preferred;
+        }
+    }
+
+    /**
+     * Agrega la versión del esquema a las respuestas de ProductDetailFallbackControllers y
+     * {@code Accept} a su Vary (el formato se negocia por Accept), conservando
+     * los valores que ya traiga, p. ej. Accept-Encoding.
+     */
+    @ControllerAdvice(assignableTypes = ProductDetailFallbackControllers.class)
+    public static class SchemaVersionAdvice implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            final var headers = response.getHeaders();
+            final var vary = headers.getVary();
+            if (vary.stream().noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) {
+                final var merged = new ArrayList<String>(vary.size() + 1);
+                merged.add(HttpHeaders.ACCEPT);
+                merged.addAll(vary);
+                headers.setVary(merged);
+            }
+            headers.set(SCHEMA_VERSION_HEADER, String.valueOf(ProductDetail.SCHEMA_VERSION));
+            return body;
+        }
+    }
+}
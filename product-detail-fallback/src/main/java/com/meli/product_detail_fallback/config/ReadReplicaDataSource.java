@@ -0,0 +1,211 @@
+package com.meli.product_detail_fallback.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DataSource de solo lectura que reparte conexiones entre réplicas.
+ *
+ * Se usa como {@code readOnlyDataSource} de un LazyConnectionDataSourceProxy:
+ * las transacciones {@code readOnly = true} toman conexión de aquí y el resto
+ * (escrituras, Liquibase, lecturas fuera de transacción) del primario.
+ *
+ * Reparte en round robin entre las réplicas sanas. Un chequeo periódico saca
+ * de rotación las réplicas que no responden o cuyo retraso (consulta
+ * {@code lag-query}, en segundos) supera {@code max-lag}, y las reincorpora
+ * cuando se recuperan. Si una réplica falla al entregar conexión se expulsa en
+ * el acto y se prueba la siguiente; sin réplicas sanas se lee del primario.
+ *
+ * Métricas ({@code <name>} = nombre recibido):
+ * <ul>
+ *   <li>{@code <name>.replicas.healthy}: réplicas en rotación.</li>
+ *   <li>{@code <name>.reads{target=replica|primary}}: conexiones de lectura entregadas.</li>
+ * </ul>
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource implements SmartLifecycle {
+
+    /**
+     * Réplica con su estado de salud.
+     */
+    static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private ScheduledExecutorService checker;
+
+    public ReadReplicaDataSource(String name, DataSource primary, List<Replica> replicas, String lagQuery,
+                                 Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.checkInterval = checkInterval;
+        this.replicaReads = Counter.builder(name + ".reads").tag("target", "replica")
+                .description("Conexiones de lectura entregadas por una réplica").register(meterRegistry);
+        this.primaryReads = Counter.builder(name + ".reads").tag("target", "primary")
+                .description("Conexiones de lectura entregadas por el primario (sin réplicas sanas)").register(meterRegistry);
+        Gauge.builder(name + ".replicas.healthy", this, dataSource -> dataSource.healthyCount())
+                .description("Réplicas en rotación").register(meterRegistry);
+    }
+
+    public static Replica replica(String name, DataSource dataSource) {
+        return new Replica(name, dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = username == null ? replica.dataSource.getConnection()
+                        : replica.dataSource.getConnection(username, password);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                // Réplica caída: sale de rotación hasta el próximo chequeo exitoso
+                eject(replica, ex.getMessage());
+            }
+        }
+        primaryReads.increment();
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    /**
+     * Revisa disponibilidad y retraso de cada réplica y actualiza la rotación.
+     */
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                double lag = lagSeconds(connection);
+                if (lag > maxLagSeconds) {
+                    eject(replica, "retraso de " + lag + " s");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Réplica {} reincorporada a la rotación", replica.name);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                eject(replica, ex.getMessage());
+            }
+        }
+    }
+
+    int healthyCount() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        if (lagQuery == null) {
+            return connection.isValid(1) ? 0 : Double.MAX_VALUE;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            // Sin filas o NULL (p. ej. réplica sin transacciones aplicadas): sin retraso medible
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+
+    private void eject(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} fuera de rotación: {}", replica.name, reason);
+        }
+    }
+
+    /**
+     * Cierra los pools de las réplicas (destroy method inferido por Spring).
+     */
+    public void close() throws Exception {
+        stop();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (checker != null || replicas.isEmpty()) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-replica-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = checkInterval.toMillis();
+        checker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+            checker = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return checker != null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.meli.product_detail_fallback.controllers;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -63,6 +65,32 @@ public class ProductDetailFallbackControllers {
         }
     }
     
+    /**
+     * Obtiene varios productos por ID en una sola llamada.
+     * 
+     * @param ids IDs de los productos separados por coma
+     * @return ResponseEntity con los productos encontrados en el orden pedido y
+     *         los IDs no encontrados. HTTP 200 aunque falten productos,
+     *         HTTP 400 si se supera el máximo de IDs, HTTP 500 en errores internos.
+     */
+    @GetMapping(params = "ids")
+    @Timed(value = "product_detail.getProductDetailsByProductIds")  //metrica de actuator
+    public ResponseEntity<?> getProductDetailsByProductIds(@RequestParam List<String> ids) {
+        // Crear span para la consulta por lote
+        Span span = tracer.nextSpan().name("ProductDetailFallbackControllers.getProductDetailsByProductIds").start();
+        try {
+            // Delegar al servicio: los IDs inexistentes vuelven en notFound
+            return new ResponseEntity<>(productDetailService.getProductDetailsByProductIds(ids), HttpStatus.OK);
+        } catch (MeliException ex) {
+            // Etiquetar error en span y retornar respuesta con trace ID
+            SpanErrorHandler.tagError(span, ex);
+            return ResponseEntity.status(ex.getHttpStatus()).body(ex.toMeliExceptionDto(span));
+        } finally {
+            // Cerrar span para liberar recursos
+            span.end();
+        }
+    }
+
     /**
      * Obtiene el detalle de un producto específico por su ID.
      * 
@@ -0,0 +1,19 @@
+package com.meli.product_detail_fallback.dtos;
+
+import java.util.List;
+
+import com.meli.product_detail_fallback.entities.ProductDetail;
+
+/**
+ * Resultado de una consulta de varios productos por ID.
+ * 
+ * Mismo contrato JSON que GET /detail?ids=... en product-detail.
+ * 
+ * @param items    productos encontrados, en el orden en que se pidieron
+ * @param notFound IDs pedidos que no existen
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public record ProductDetailBatchDto(List<ProductDetail> items, List<String> notFound) {
+}
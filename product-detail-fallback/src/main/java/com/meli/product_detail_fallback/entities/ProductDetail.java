@@ -11,12 +11,23 @@ import java.util.List;
 /**
  * Entidad principal que representa un producto de MercadoLibre.
  * 
+ * Es también el esquema de los formatos binarios (CBOR y Smile), versionado
+ * con {@link #SCHEMA_VERSION} igual que ProductDetailDto en product-detail.
+ * 
  * @author Osneider Manuel Acevedo Naranjo
  */
 @Entity
 @Data
 @Schema(description = "Detalle completo de un producto de MercadoLibre")
 public class ProductDetail {
+
+    /**
+     * Versión del esquema de ProductDetail y sus entidades hijas, común a
+     * JSON, CBOR y Smile (header X-Schema-Version). Debe coincidir con la de
+     * product-detail para que el fallback sea intercambiable.
+     */
+    public static final int SCHEMA_VERSION = 1;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "ID interno del registro", example = "1")
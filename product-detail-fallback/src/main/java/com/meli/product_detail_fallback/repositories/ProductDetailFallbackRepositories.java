@@ -4,6 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.meli.product_detail_fallback.entities.ProductDetail;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -24,4 +26,12 @@ public interface ProductDetailFallbackRepositories extends JpaRepository<Product
      * @return Optional con el producto encontrado
      */
     Optional<ProductDetail> findByProductId(String productId);
+
+    /**
+     * Busca varios productos por ID en una sola consulta IN.
+     * 
+     * @param productIds IDs de los productos
+     * @return productos encontrados
+     */
+    List<ProductDetail> findByProductIdIn(Collection<String> productIds);
 }
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.meli.product_detail_fallback.dtos.ProductDetailBatchDto;
 import com.meli.product_detail_fallback.entities.ProductDetail;
 import com.meli.product_detail_fallback.exceptions.MeliException;
 
@@ -35,4 +36,13 @@ public interface ProductDetailFallbackService {
      * @throws MeliException si el producto no existe o hay error interno
      */
     ProductDetail getProductDetailByProductId(String productId) throws MeliException;
+
+    /**
+     * Obtiene varios productos por ID; los inexistentes se reportan en notFound.
+     * 
+     * @param productIds IDs de los productos
+     * @return Productos encontrados en el orden pedido e IDs no encontrados
+     * @throws MeliException si se supera el máximo de IDs por lote o hay error interno
+     */
+    ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException;
 }
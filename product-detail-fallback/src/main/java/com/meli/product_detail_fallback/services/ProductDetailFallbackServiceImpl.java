@@ -1,13 +1,21 @@
 package com.meli.product_detail_fallback.services;
 
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.meli.product_detail_fallback.dtos.ProductDetailBatchDto;
 import com.meli.product_detail_fallback.entities.ProductDetail;
 import com.meli.product_detail_fallback.exceptions.MeliException;
 import com.meli.product_detail_fallback.exceptions.SpanErrorHandler;
@@ -15,7 +23,6 @@ import com.meli.product_detail_fallback.repositories.ProductDetailFallbackReposi
 
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
-import jakarta.transaction.Transactional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,11 +32,14 @@ import lombok.extern.slf4j.Slf4j;
  * Maneja la lógica de negocio con trazabilidad distribuida,
  * transacciones y logging estructurado.
  * 
+ * Todas las operaciones son lecturas en transacciones de solo lectura, por lo
+ * que con réplicas configuradas se atienden desde ellas.
+ * 
  * @author Osneider Manuel Acevedo Naranjo
  * @version 1.0.0
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @Slf4j
 public class ProductDetailFallbackServiceImpl implements ProductDetailFallbackService {
 
@@ -39,6 +49,9 @@ public class ProductDetailFallbackServiceImpl implements ProductDetailFallbackSe
     @Autowired
     private Tracer tracer;
 
+    @Value("${application.batch.max-ids:50}")
+    private int maxBatchIds;
+
     @Override
     public List<ProductDetail> getAllProductDetails() throws MeliException {
         // Iniciar span para tracking de la operación
@@ -81,4 +94,43 @@ public class ProductDetailFallbackServiceImpl implements ProductDetailFallbackSe
         }
     }
 
+    @Override
+    public ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException {
+        // Crear span para la consulta por lote
+        Span span = tracer.nextSpan().name("ProductDetailFallbackServiceImpl.getProductDetailsByProductIds").start();
+        try {
+            // Normalizar (sin vacíos ni repetidos) y validar el tamaño del lote
+            LinkedHashSet<String> ids = new LinkedHashSet<>();
+            productIds.stream().filter(id -> id != null && !id.isBlank()).map(String::trim).forEach(ids::add);
+            if (ids.size() > maxBatchIds) {
+                throw new MeliException(HttpStatus.BAD_REQUEST, "productIds", "001005");
+            }
+            // Una consulta IN y resultado en el orden pedido
+            Map<String, ProductDetail> found = ids.isEmpty() ? Map.of() : repositories.findByProductIdIn(ids)
+                    .stream()
+                    .collect(Collectors.toMap(ProductDetail::getProductId, Function.identity(), (first, second) -> first));
+            List<ProductDetail> items = new ArrayList<>();
+            List<String> notFound = new ArrayList<>();
+            for (String productId : ids) {
+                if (found.containsKey(productId)) {
+                    items.add(found.get(productId));
+                } else {
+                    notFound.add(productId);
+                }
+            }
+            return new ProductDetailBatchDto(items, notFound);
+        } catch (MeliException ex) {
+            // Lote inválido: propagar tal cual
+            SpanErrorHandler.tagError(span, ex);
+            throw ex;
+        } catch (Exception ex) {
+            // Manejar cualquier otro error interno
+            SpanErrorHandler.tagError(span, ex);
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001006");
+        } finally {
+            // Finalizar span sin importar el resultado
+            span.end();
+        }
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar el cursor de paginación.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Parameter(
+    description = "Cursor de la página: valor del header X-Next-Cursor de la respuesta anterior. "
+                + "Omitir para la primera página.",
+    required = false,
+    example = "50",
+    schema = @Schema(type = "integer", format = "int64", minimum = "0")
+)
+public @interface CursorParameter {
+}
@@ -0,0 +1,27 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar la selección de campos.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Parameter(
+    description = "Campos a incluir, separados por coma; los de colecciones con punto "
+                + "(sellers.nickname, sellers.address.city). Sin valor se retorna el producto completo",
+    required = false,
+    example = "title,price,currencyId,thumbnail",
+    schema = @Schema(type = "string")
+)
+public @interface FieldsParameter {
+}
@@ -23,17 +23,18 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Operation(
-    summary = "Obtener todos los detalles de productos",
-    description = "Retorna la lista completa de todos los detalles de productos disponibles en el sistema. "
-                + "Este endpoint proporciona información detallada de productos incluyendo atributos, envío y vendedor."
+    summary = "Obtener los detalles de productos por páginas",
+    description = "Retorna una página de detalles de productos ordenada por ID interno, incluyendo atributos, "
+                + "envío y vendedor. Si hay más productos, los headers X-Next-Cursor y Link (rel=next) "
+                + "indican el cursor de la siguiente página."
 )
 @ApiResponses(value = {
     @ApiResponse(
         responseCode = "200", 
-        description = "Lista de productos obtenida exitosamente",
+        description = "Página de productos obtenida exitosamente",
         content = @Content(
             mediaType = "application/json",
-            schema = @Schema(implementation = com.meli.product_detail.entities.ProductDetail.class)
+            schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailDto.class)
         )
     ),
     @ApiResponse(
@@ -30,11 +30,21 @@ import java.lang.annotation.Target;
 @ApiResponses(value = {
     @ApiResponse(
         responseCode = "200", 
-        description = "Detalle del producto obtenido exitosamente",
-        content = @Content(
-            mediaType = "application/json",
-            schema = @Schema(implementation = com.meli.product_detail.entities.ProductDetail.class)
-        )
+        description = "Detalle del producto obtenido exitosamente (JSON, o CBOR/Smile según Accept)",
+        content = {
+            @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailDto.class)
+            ),
+            @Content(
+                mediaType = "application/cbor",
+                schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailDto.class)
+            ),
+            @Content(
+                mediaType = "application/x-jackson-smile",
+                schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailDto.class)
+            )
+        }
     ),
     @ApiResponse(
         responseCode = "404", 
@@ -0,0 +1,57 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar el endpoint getProductDetailsByProductIds.
+ * 
+ * Centraliza la documentación Swagger para mantener el código limpio
+ * y reutilizable en múltiples controladores.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Operation(
+    summary = "Obtener varios productos por ID",
+    description = "Retorna en una sola llamada los productos pedidos en el parámetro ids, en el mismo orden. "
+                + "Los IDs inexistentes se listan en notFound sin fallar el resto del lote."
+)
+@ApiResponses(value = {
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Lote resuelto (puede incluir IDs no encontrados)",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailBatchDto.class)
+        )
+    ),
+    @ApiResponse(
+        responseCode = "400", 
+        description = "Se superó el máximo de IDs por lote",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = com.meli.product_detail.exceptions.MeliExceptionDto.class)
+        )
+    ),
+    @ApiResponse(
+        responseCode = "500", 
+        description = "Error interno del servidor",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = com.meli.product_detail.exceptions.MeliExceptionDto.class)
+        )
+    )
+})
+public @interface GetProductDetailsByProductIds {
+}
@@ -0,0 +1,26 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar el tamaño de página.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Parameter(
+    description = "Cantidad máxima de productos por página (se acota a 100)",
+    required = false,
+    example = "50",
+    schema = @Schema(type = "integer", defaultValue = "50", minimum = "1", maximum = "100")
+)
+public @interface LimitParameter {
+}
@@ -0,0 +1,26 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar el parámetro ids.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Parameter(
+    description = "IDs de productos separados por coma (máximo application.batch.max-ids, 50 por defecto)",
+    required = true,
+    example = "MLA123456789,MLA987654321",
+    schema = @Schema(type = "string")
+)
+public @interface ProductIdsParameter {
+}
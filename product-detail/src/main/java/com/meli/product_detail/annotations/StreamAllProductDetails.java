@@ -0,0 +1,45 @@
+package com.meli.product_detail.annotations;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estereotipo personalizado para documentar el endpoint streamAllProductDetails.
+ * 
+ * Centraliza la documentación Swagger para mantener el código limpio
+ * y reutilizable en múltiples controladores.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Operation(
+    summary = "Exportar todo el catálogo como NDJSON",
+    description = "Con Accept: application/x-ndjson retorna todos los productos, un JSON por línea, "
+                + "escribiendo cada uno a medida que se lee de la base de datos."
+)
+@ApiResponses(value = {
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Catálogo completo, un producto por línea",
+        content = @Content(
+            mediaType = "application/x-ndjson",
+            schema = @Schema(implementation = com.meli.product_detail.dtos.ProductDetailDto.class)
+        )
+    ),
+    @ApiResponse(
+        responseCode = "500", 
+        description = "Error interno del servidor antes de iniciar el envío"
+    )
+})
+public @interface StreamAllProductDetails {
+}
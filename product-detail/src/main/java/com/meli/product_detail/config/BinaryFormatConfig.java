@@ -0,0 +1,79 @@
+package com.meli.product_detail.config;
+
+import java.util.ArrayList;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.meli.product_detail.controllers.ProductDetailControllers;
+import com.meli.product_detail.dtos.ProductDetailDto;
+
+/**
+ * Formatos binarios (CBOR y Smile) para consumidores internos.
+ *
+ * Registra los conversores con la misma configuración de Jackson que JSON
+ * (módulos, fechas, nulos), de modo que los tres formatos comparten el
+ * esquema de los records de dtos. Todas las respuestas de detalle llevan
+ * la versión del esquema en {@code X-Schema-Version}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Agrega la versión del esquema a las respuestas de ProductDetailControllers y
+     * {@code Accept} a su Vary (el formato se negocia por Accept), conservando
+     * los valores que ya traiga, p. ej. Accept-Encoding.
+     */
+    @ControllerAdvice(assignableTypes = ProductDetailControllers.class)
+    public static class SchemaVersionAdvice implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            final var headers = response.getHeaders();
+            final var vary = headers.getVary();
+            if (vary.stream().noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) {
+                final var merged = new ArrayList<String>(vary.size() + 1);
+                merged.add(HttpHeaders.ACCEPT);
+                merged.addAll(vary);
+                headers.setVary(merged);
+            }
+            headers.set(SCHEMA_VERSION_HEADER, String.valueOf(ProductDetailDto.SCHEMA_VERSION));
+            return body;
+        }
+    }
+}
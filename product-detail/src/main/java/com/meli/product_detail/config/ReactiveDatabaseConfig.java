@@ -0,0 +1,62 @@
+package com.meli.product_detail.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Acceso R2DBC para el perfil reactive.
+ *
+ * El pool se crea aquí y no como bean {@code ConnectionFactory}: con un bean
+ * de ese tipo en el contexto, la autoconfiguración del DataSource JDBC se
+ * desactiva y Liquibase y JPA quedan sin conexión. Liquibase sigue migrando el
+ * esquema por JDBC; R2DBC solo lee de la misma base.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private final ConnectionPool pool;
+
+    public ReactiveDatabaseConfig(
+            @Value("${application.reactive.r2dbc.url}") String url,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${application.reactive.r2dbc.pool.initial-size:4}") int initialSize,
+            @Value("${application.reactive.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${application.reactive.r2dbc.pool.max-acquire-time:2s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("product-detail-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+
+    @Bean
+    DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,88 @@
+package com.meli.product_detail.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enrutamiento de lecturas a réplicas ({@code application.datasource.replicas.enabled=true}).
+ *
+ * El DataSource de la aplicación es un LazyConnectionDataSourceProxy sobre el
+ * primario: la conexión física se pide recién en la primera sentencia, cuando
+ * ya se sabe si la transacción es {@code readOnly}. Las de solo lectura van a
+ * ReadReplicaDataSource; escrituras y lecturas fuera de transacción quedan en
+ * el primario. Liquibase migra siempre contra el primario.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final String METRIC_NAME = "product_detail.datasource";
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReadReplicaDataSource readReplicaDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${application.datasource.replicas.urls}") List<String> urls,
+            @Value("${application.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${application.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${application.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${application.datasource.replicas.lag-query:}") String lagQuery,
+            @Value("${application.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${application.datasource.replicas.check-interval:5s}") Duration checkInterval) {
+        List<ReadReplicaDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("product-detail-replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Una réplica caída al arrancar no impide iniciar: queda fuera hasta el primer chequeo exitoso
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(ReadReplicaDataSource.replica(replica.getPoolName(), replica));
+        }
+        return new ReadReplicaDataSource(METRIC_NAME, primaryDataSource, replicas, lagQuery, maxLag,
+                checkInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        return dataSource;
+    }
+}
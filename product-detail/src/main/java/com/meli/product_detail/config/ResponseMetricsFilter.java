@@ -0,0 +1,224 @@
+package com.meli.product_detail.config;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Mide el costo de cada respuesta: bytes del cuerpo y CPU del hilo que la atiende.
+ *
+ * Métricas, etiquetadas con el Content-Encoding que fijó la aplicación
+ * ({@code identity} si ninguno):
+ * <ul>
+ *   <li>{@code product_detail.response.bytes}: bytes del cuerpo por respuesta
+ *       (ancho de banda de salida = total / tiempo).</li>
+ *   <li>{@code product_detail.response.cpu}: tiempo de CPU del hilo de la
+ *       petición; en respuestas asíncronas (NDJSON) solo la parte síncrona.</li>
+ * </ul>
+ * Las variantes precomprimidas se miden ya comprimidas. La compresión gzip
+ * que Tomcat aplica por debajo ({@code server.compression}) no pasa por el
+ * filtro: los bytes en el cable de todas las respuestas están en
+ * {@code tomcat.global.sent}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Component
+@Profile("!reactive")
+public class ResponseMetricsFilter extends OncePerRequestFilter {
+
+    static final String BYTES_METRIC = "product_detail.response.bytes";
+    static final String CPU_METRIC = "product_detail.response.cpu";
+    private static final String IDENTITY = "identity";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    // Un medidor por encoding, registrado en su primera respuesta
+    private final Map<String, Timer> cpuTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> bytesSummaries = new ConcurrentHashMap<>();
+
+    public ResponseMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long cpuStart = cpuTime();
+        CountingResponse counting = new CountingResponse(response);
+        try {
+            chain.doFilter(request, counting);
+        } finally {
+            long cpuEnd = cpuTime();
+            if (cpuStart >= 0 && cpuEnd >= cpuStart) {
+                cpuTimers.computeIfAbsent(counting.encoding(), encoding -> Timer.builder(CPU_METRIC)
+                        .tag("encoding", encoding)
+                        .description("Tiempo de CPU del hilo que atiende la petición")
+                        .register(meterRegistry)).record(Duration.ofNanos(cpuEnd - cpuStart));
+            }
+            if (request.isAsyncStarted()) {
+                // El cuerpo se sigue escribiendo en otro hilo: registrar al completar
+                request.getAsyncContext().addListener(new BytesListener(counting));
+            } else {
+                recordBytes(counting);
+            }
+        }
+    }
+
+    private void recordBytes(CountingResponse counting) {
+        bytesSummaries.computeIfAbsent(counting.encoding(), encoding -> DistributionSummary.builder(BYTES_METRIC)
+                .tag("encoding", encoding).baseUnit("bytes")
+                .description("Bytes del cuerpo por respuesta")
+                .register(meterRegistry)).record(counting.bytes.get());
+    }
+
+    // -1 si la JVM no mide CPU por hilo (o es un hilo virtual)
+    private long cpuTime() {
+        try {
+            return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Registra los bytes de una respuesta asíncrona cuando termina.
+     */
+    private final class BytesListener implements AsyncListener {
+
+        private final CountingResponse counting;
+
+        private BytesListener(CountingResponse counting) {
+            this.counting = counting;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            recordBytes(counting);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * Respuesta que cuenta los bytes escritos y recuerda el Content-Encoding fijado.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final AtomicLong bytes = new AtomicLong();
+        private volatile String contentEncoding;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        String encoding() {
+            return contentEncoding == null ? IDENTITY : contentEncoding;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            captureEncoding(name, value);
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            captureEncoding(name, value);
+            super.addHeader(name, value);
+        }
+
+        private void captureEncoding(String name, String value) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                contentEncoding = value;
+            }
+        }
+
+        @Override
+        public synchronized ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), bytes);
+            }
+            return outputStream;
+        }
+    }
+
+    /**
+     * ServletOutputStream que delega y acumula los bytes escritos.
+     */
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final AtomicLong bytes;
+
+        private CountingOutputStream(ServletOutputStream delegate, AtomicLong bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytes.addAndGet(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package com.meli.product_detail.controllers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import io.micrometer.core.annotation.Timed;
 
+import com.meli.product_detail.annotations.CursorParameter;
+import com.meli.product_detail.annotations.FieldsParameter;
 import com.meli.product_detail.annotations.GetAllProductDetails;
 import com.meli.product_detail.annotations.GetProductDetailByProductId;
+import com.meli.product_detail.annotations.GetProductDetailsByProductIds;
+import com.meli.product_detail.annotations.LimitParameter;
 import com.meli.product_detail.annotations.ProductDetailController;
 import com.meli.product_detail.annotations.ProductIdParameter;
+import com.meli.product_detail.annotations.ProductIdsParameter;
+import com.meli.product_detail.annotations.StreamAllProductDetails;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
 import com.meli.product_detail.exceptions.MeliException;
 import com.meli.product_detail.exceptions.SpanErrorHandler;
+import com.meli.product_detail.helpers.ContentCoding;
+import com.meli.product_detail.helpers.FieldSelection;
+import com.meli.product_detail.helpers.WireFormat;
+import com.meli.product_detail.services.ProductDetailResponseCache;
+import com.meli.product_detail.services.ProductDetailResponseCache.CachedResponse;
 import com.meli.product_detail.services.ProductDetailService;
 
 /**
@@ -22,6 +53,13 @@ import com.meli.product_detail.services.ProductDetailService;
  * 
  * Expone endpoints para consultar productos con trazabilidad distribuida,
  * métricas personalizadas y manejo centralizado de errores.
+ * El detalle por ID se sirve desde ProductDetailResponseCache con ETag y
+ * respuestas condicionales (304) cuando la caché de respuestas está activa.
+ * Con {@code Accept: application/cbor} o {@code application/x-jackson-smile}
+ * las respuestas usan el formato binario correspondiente (BinaryFormatConfig).
+ * Con {@code fields=} el detalle por ID consulta y serializa solo los campos
+ * pedidos (FieldSelection), fuera de la caché de respuestas.
+ * Con el perfil reactive lo reemplaza ProductDetailReactiveControllers.
  * 
  * @author Osneider Manuel Acevedo Naranjo
  * @version 1.0.0
@@ -29,30 +67,60 @@ import com.meli.product_detail.services.ProductDetailService;
 @RestController
 @RequestMapping("detail")
 @ProductDetailController
+@Profile("!reactive")
 public class ProductDetailControllers {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ProductDetailService productDetailService;
 
     @Autowired
     private Tracer tracer;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductDetailResponseCache responseCache;
+
+    @Value("${application.document.product-detail.enabled:false}")
+    private boolean documentsEnabled;
+
+    @Value("${application.cache.product-detail-response.shared-max-age:10s}")
+    private Duration sharedMaxAge;
+
+    @Value("${application.cache.product-detail-response.stale-while-revalidate:30s}")
+    private Duration staleWhileRevalidate;
+
     /**
-     * Obtiene todos los detalles de productos disponibles.
+     * Obtiene una página de detalles de productos (keyset sobre el ID interno).
      * 
-     * @return ResponseEntity con List&lt;ProductDetail&gt; incluyendo todos los productos
-     *         con sus atributos, envío y vendedores. HTTP 200 si exitoso,
-     *         HTTP 500 en errores internos.
+     * @param after cursor de la página anterior (header X-Next-Cursor); null para la primera
+     * @param limit tamaño de página solicitado, acotado a 100
+     * @return ResponseEntity con List&lt;ProductDetailDto&gt; de la página, incluyendo
+     *         atributos, envío y vendedores, y los headers X-Next-Cursor y Link
+     *         si hay más productos. HTTP 200 si exitoso, HTTP 500 en errores internos.
      */
     @GetMapping
     @Timed(value = "product_detail.getAllProductDetails")  //metrica de actuator
     @GetAllProductDetails
-    public ResponseEntity<?> getAllProductDetails() {
+    public ResponseEntity<?> getAllProductDetails(@CursorParameter @RequestParam(required = false) Long after,
+                                                  @LimitParameter @RequestParam(defaultValue = "50") int limit) {
         // Crear span para trazabilidad distribuida
         Span span = tracer.nextSpan().name("ProductDetailControllers.getAllProductDetails").start();
         try {
-            // Delegar al servicio y retornar respuesta exitosa
-            return new ResponseEntity<>(productDetailService.getAllProductDetails(), HttpStatus.OK);
+            // Delegar al servicio y publicar el cursor de la siguiente página
+            ProductDetailPageDto page = productDetailService.getAllProductDetails(after, limit);
+            HttpHeaders headers = new HttpHeaders();
+            if (page.nextCursor() != null) {
+                headers.set(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+                headers.set(HttpHeaders.LINK, "<" + ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("after", page.nextCursor())
+                        .toUriString() + ">; rel=\"next\"");
+            }
+            return new ResponseEntity<>(page.items(), headers, HttpStatus.OK);
         } catch (MeliException ex) {
             // Etiquetar error en span y retornar respuesta con trace ID
             SpanErrorHandler.tagError(span, ex);
@@ -62,24 +130,128 @@ public class ProductDetailControllers {
             span.end();
         }
     }
+
+    /**
+     * Obtiene varios productos por ID en una sola llamada.
+     * 
+     * @param ids IDs de los productos separados por coma
+     * @return ResponseEntity con ProductDetailBatchDto: productos encontrados en el
+     *         orden pedido e IDs no encontrados. HTTP 200 aunque falten productos,
+     *         HTTP 400 si se supera el máximo de IDs, HTTP 500 en errores internos.
+     */
+    @GetMapping(params = "ids")
+    @Timed(value = "product_detail.getProductDetailsByProductIds")  //metrica de actuator
+    @GetProductDetailsByProductIds
+    public ResponseEntity<?> getProductDetailsByProductIds(@ProductIdsParameter @RequestParam List<String> ids) {
+        // Crear span para la consulta por lote
+        Span span = tracer.nextSpan().name("ProductDetailControllers.getProductDetailsByProductIds").start();
+        try {
+            // Delegar al servicio: los IDs inexistentes vuelven en notFound
+            return new ResponseEntity<>(productDetailService.getProductDetailsByProductIds(ids), HttpStatus.OK);
+        } catch (MeliException ex) {
+            // Etiquetar error en span y retornar respuesta con trace ID
+            SpanErrorHandler.tagError(span, ex);
+            return ResponseEntity.status(ex.getHttpStatus()).body(ex.toMeliExceptionDto(span));
+        } finally {
+            // Cerrar span para liberar recursos
+            span.end();
+        }
+    }
+
+    /**
+     * Exporta todo el catálogo como NDJSON (un producto por línea).
+     * 
+     * Cada producto se escribe a medida que se lee del cursor de base de datos,
+     * por lo que la memoria usada no depende del tamaño del catálogo.
+     * 
+     * @return ResponseEntity con el cuerpo en streaming. HTTP 200 si exitoso;
+     *         un error a mitad del envío corta la respuesta.
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    @Timed(value = "product_detail.streamAllProductDetails")  //metrica de actuator
+    @StreamAllProductDetails
+    public ResponseEntity<StreamingResponseBody> streamAllProductDetails() {
+        // El span cubre todo el envío, que ocurre fuera de este hilo
+        Span span = tracer.nextSpan().name("ProductDetailControllers.streamAllProductDetails").start();
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                productDetailService.streamAllProductDetails(detail -> writeLine(writer, outputStream, detail));
+            } catch (MeliException ex) {
+                // La respuesta ya puede estar comprometida: solo etiquetar y cortar
+                SpanErrorHandler.tagError(span, ex);
+                throw new IOException(ex.getMessage(), ex);
+            } finally {
+                // Cerrar span al terminar el envío
+                span.end();
+            }
+        };
+        return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, APPLICATION_NDJSON_VALUE).body(body);
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream outputStream, ProductDetailDto detail) {
+        try {
+            writer.writeValue(outputStream, detail);
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
     
     /**
      * Obtiene el detalle de un producto específico por su ID.
-     * 
+     *
+     * Las respuestas 200 y 304 llevan {@code Cache-Control: public, s-maxage}
+     * para que la caché compartida del gateway pueda guardarlas aunque la
+     * petición traiga Authorization (RFC 9111 §3.5); {@code max-age=0} hace
+     * que los clientes revaliden con el ETag.
+     *
      * @param productId ID único del producto (formato MLA + números)
-     * @return ResponseEntity con ProductDetail completo incluyendo atributos, 
+     * @param fields campos a incluir ({@code fields=title,price,sellers.nickname}); null para todos
+     * @param ifNoneMatch ETags que el cliente ya tiene (header If-None-Match)
+     * @param acceptEncoding codificaciones aceptadas (header Accept-Encoding)
+     * @param accept formatos aceptados (header Accept): JSON, CBOR o Smile
+     * @return ResponseEntity con ProductDetailDto completo incluyendo atributos, 
      *         información de envío y datos del vendedor. HTTP 200 si existe,
+     *         HTTP 304 si el ETag coincide, HTTP 400 si fields no es válido,
      *         HTTP 404 si no se encuentra, HTTP 500 en errores internos.
      */
     @GetMapping("{productId}")
     @Timed(value = "product_detail.getProductDetailByProductId") //metrica de actuator
     @GetProductDetailByProductId
-    public ResponseEntity<?> getProductDetailByProductId(@ProductIdParameter @PathVariable String productId) {
+    public ResponseEntity<?> getProductDetailByProductId(@ProductIdParameter @PathVariable String productId,
+            @FieldsParameter @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         // Crear span con nombre específico para trazabilidad
         Span span = tracer.nextSpan().name("ProductDetailControllers.getProductDetailByProductId").start();
         try {
+            FieldSelection selection = FieldSelection.parse(fields);
+            WireFormat format = WireFormat.negotiate(accept);
+            if (!selection.isAll()) {
+                // Solo se consultan las colecciones pedidas y solo se serializan los campos pedidos
+                JsonNode body = objectMapper.valueToTree(productDetailService.getProductDetailByProductId(productId, selection));
+                return ResponseEntity.ok().cacheControl(sharedCacheControl()).contentType(format.mediaType())
+                                     .body(selection.apply(body));
+            }
+            if (format != WireFormat.JSON) {
+                // Formato binario pedido explícitamente: mismo modelo de lectura, conversor CBOR o Smile
+                return ResponseEntity.ok().cacheControl(sharedCacheControl()).contentType(format.mediaType())
+                                     .body(productDetailService.getProductDetailByProductId(productId));
+            }
+            if (responseCache.isEnabled()) {
+                // Bytes ya serializados: un ETag que coincide se responde sin base de datos ni Jackson
+                return cachedResponse(responseCache.get(productId), ifNoneMatch, acceptEncoding);
+            }
+            if (documentsEnabled) {
+                // Modo documento: bytes JSON precalculados, sin mapeo de objetos
+                return ResponseEntity.ok().cacheControl(sharedCacheControl()).contentType(MediaType.APPLICATION_JSON)
+                                     .body(productDetailService.getProductDocumentByProductId(productId));
+            }
             // Buscar producto por ID y retornar si existe
-            return new ResponseEntity<>(productDetailService.getProductDetailByProductId(productId), HttpStatus.OK);
+            return ResponseEntity.ok().cacheControl(sharedCacheControl())
+                                 .body(productDetailService.getProductDetailByProductId(productId));
         } catch (MeliException ex) {
             // Capturar excepción, etiquetar span y generar respuesta con trace ID
             SpanErrorHandler.tagError(span, ex);
@@ -89,6 +261,33 @@ public class ProductDetailControllers {
             span.end();
         }
     }
+
+    private ResponseEntity<?> cachedResponse(CachedResponse response, String ifNoneMatch, String acceptEncoding) {
+        // Variante precomprimida según Accept-Encoding; Tomcat no vuelve a comprimir si ya hay Content-Encoding
+        ContentCoding coding = ContentCoding.negotiate(acceptEncoding, response.codings());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(response.etag(coding));
+        // La representación depende de Accept (JSON/CBOR/Smile) y, con variantes, de Accept-Encoding;
+        // también en el 304, que no pasa por SchemaVersionAdvice
+        headers.setVary(response.variants().isEmpty()
+                ? List.of(HttpHeaders.ACCEPT)
+                : List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        headers.setCacheControl(sharedCacheControl());
+        if (responseCache.notModified(response, ifNoneMatch)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (coding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return new ResponseEntity<>(response.body(coding), headers, HttpStatus.OK);
+    }
+
+    private CacheControl sharedCacheControl() {
+        // s-maxage y public: la caché del gateway puede guardarla con Authorization; los clientes revalidan
+        return CacheControl.maxAge(Duration.ZERO).cachePublic().sMaxAge(sharedMaxAge)
+                           .staleWhileRevalidate(staleWhileRevalidate);
+    }
     
     
 }
@@ -0,0 +1,117 @@
+package com.meli.product_detail.controllers;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.meli.product_detail.annotations.CursorParameter;
+import com.meli.product_detail.annotations.GetAllProductDetails;
+import com.meli.product_detail.annotations.GetProductDetailByProductId;
+import com.meli.product_detail.annotations.LimitParameter;
+import com.meli.product_detail.annotations.ProductDetailController;
+import com.meli.product_detail.annotations.ProductIdParameter;
+import com.meli.product_detail.annotations.StreamAllProductDetails;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.services.ProductDetailReactiveService;
+
+/**
+ * Controlador REST reactivo (WebFlux) para la lectura de detalles de productos.
+ *
+ * Se activa con el perfil reactive en lugar de ProductDetailControllers y
+ * expone las mismas rutas, parámetros, headers y cuerpos de error, para
+ * comparar ambas pilas bajo la misma prueba de carga.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("detail")
+@ProductDetailController
+@Profile("reactive")
+public class ProductDetailReactiveControllers {
+
+    private final ProductDetailReactiveService productDetailService;
+    private final Tracer tracer;
+
+    public ProductDetailReactiveControllers(ProductDetailReactiveService productDetailService, Tracer tracer) {
+        this.productDetailService = productDetailService;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Obtiene una página de detalles de productos (keyset sobre el ID interno).
+     *
+     * @param after cursor de la página anterior (header X-Next-Cursor); null para la primera
+     * @param limit tamaño de página solicitado, acotado a 100
+     * @return página de productos con los headers X-Next-Cursor y Link si hay más.
+     *         HTTP 200 si exitoso, HTTP 500 en errores internos.
+     */
+    @GetMapping
+    @GetAllProductDetails
+    public Mono<ResponseEntity<?>> getAllProductDetails(@CursorParameter @RequestParam(required = false) Long after,
+                                                        @LimitParameter @RequestParam(defaultValue = "50") int limit,
+                                                        ServerHttpRequest request) {
+        return productDetailService.getAllProductDetails(after, limit)
+                .<ResponseEntity<?>>map(page -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    if (page.nextCursor() != null) {
+                        headers.set(ProductDetailControllers.NEXT_CURSOR_HEADER, page.nextCursor().toString());
+                        headers.set(HttpHeaders.LINK, "<" + UriComponentsBuilder.fromHttpRequest(request)
+                                .replaceQueryParam("after", page.nextCursor())
+                                .toUriString() + ">; rel=\"next\"");
+                    }
+                    return new ResponseEntity<>(page.items(), headers, HttpStatus.OK);
+                })
+                .onErrorResume(MeliException.class, ex -> Mono.just(errorResponse(ex, request)));
+    }
+
+    /**
+     * Exporta todo el catálogo como NDJSON (un producto por línea).
+     *
+     * Los productos se leen de la base de datos según la demanda del cliente
+     * (backpressure): un cliente lento frena la lectura en lugar de acumular
+     * productos en memoria.
+     *
+     * @return flujo de productos. HTTP 200 si exitoso; un error a mitad del
+     *         envío corta la respuesta.
+     */
+    @GetMapping(produces = ProductDetailControllers.APPLICATION_NDJSON_VALUE)
+    @StreamAllProductDetails
+    public Flux<ProductDetailDto> streamAllProductDetails() {
+        return productDetailService.streamAllProductDetails();
+    }
+
+    /**
+     * Obtiene el detalle de un producto específico por su ID.
+     *
+     * @param productId ID único del producto (formato MLA + números)
+     * @return ProductDetailDto completo. HTTP 200 si existe, HTTP 404 si no se
+     *         encuentra, HTTP 500 en errores internos.
+     */
+    @GetMapping("{productId}")
+    @GetProductDetailByProductId
+    public Mono<ResponseEntity<?>> getProductDetailByProductId(@ProductIdParameter @PathVariable String productId,
+                                                               ServerHttpRequest request) {
+        return productDetailService.getProductDetailByProductId(productId)
+                .<ResponseEntity<?>>map(detail -> new ResponseEntity<>(detail, HttpStatus.OK))
+                .onErrorResume(MeliException.class, ex -> Mono.just(errorResponse(ex, request)));
+    }
+
+    // Mismo cuerpo de error que la variante MVC; el path sale de la petición reactiva
+    private ResponseEntity<?> errorResponse(MeliException ex, ServerHttpRequest request) {
+        Span span = tracer.currentSpan();
+        String traceId = span != null && span.context() != null ? span.context().traceId() : "";
+        return ResponseEntity.status(ex.getHttpStatus())
+                .body(ex.toMeliExceptionDto(request.getPath().value(), traceId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.meli.product_detail.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Vista de solo lectura de un atributo del producto.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Schema(description = "Atributo específico de un producto")
+public record AttributeDto(
+
+        @Schema(description = "Identificador único del atributo", example = "1")
+        Long id,
+
+        @Schema(description = "Nombre del atributo del producto", example = "Color")
+        String name,
+
+        @Schema(description = "Valor específico del atributo", example = "Azul")
+        String valueName) {
+}
@@ -0,0 +1,53 @@
+package com.meli.product_detail.dtos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una consulta de varios productos por ID.
+ * 
+ * @param items    productos encontrados, en el orden en que se pidieron
+ * @param notFound IDs pedidos que no existen
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public record ProductDetailBatchDto(List<ProductDetailDto> items, List<String> notFound) {
+
+    /**
+     * Normaliza los IDs pedidos: sin espacios, sin vacíos y sin repetidos,
+     * conservando el orden.
+     */
+    public static List<String> distinctIds(Collection<String> productIds) {
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        for (String productId : productIds) {
+            if (productId != null && !productId.isBlank()) {
+                result.add(productId.trim());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Arma el resultado en el orden pedido a partir de los productos encontrados.
+     * 
+     * @param productIds IDs normalizados con {@link #distinctIds}
+     * @param found      productos encontrados por productId
+     */
+    public static ProductDetailBatchDto of(List<String> productIds, Map<String, ProductDetailDto> found) {
+        List<ProductDetailDto> items = new ArrayList<>(productIds.size());
+        List<String> notFound = new ArrayList<>();
+        for (String productId : productIds) {
+            ProductDetailDto detail = found.get(productId);
+            if (detail != null) {
+                items.add(detail);
+            } else {
+                notFound.add(productId);
+            }
+        }
+        return new ProductDetailBatchDto(List.copyOf(items), List.copyOf(notFound));
+    }
+}
@@ -0,0 +1,107 @@
+package com.meli.product_detail.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Modelo de lectura inmutable del detalle de un producto.
+ * 
+ * Se llena con proyecciones JPQL (sin entidades administradas ni snapshots
+ * de dirty checking) y conserva el mismo contrato JSON que la entidad
+ * ProductDetail. Es también el esquema de los formatos binarios (CBOR y
+ * Smile), versionado con {@link #SCHEMA_VERSION}.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Schema(description = "Detalle completo de un producto de MercadoLibre")
+public record ProductDetailDto(
+
+        @Schema(description = "ID interno del registro", example = "1")
+        Long id,
+
+        @Schema(description = "ID único del producto en MercadoLibre", example = "MLA123456789")
+        String productId,
+
+        @Schema(description = "Título del producto", example = "iPhone 13 Pro 128GB")
+        String title,
+
+        @Schema(description = "Condición del producto", example = "new", allowableValues = {"new", "used", "not_specified"})
+        String condition,
+
+        @Schema(description = "ID de categoría", example = "MLA1055")
+        String categoryId,
+
+        @Schema(description = "Tipo de publicación", example = "gold_special")
+        String listingTypeId,
+
+        @Schema(description = "Sitio de MercadoLibre", example = "MLA")
+        String siteId,
+
+        @Schema(description = "Precio del producto", example = "599999.99")
+        BigDecimal price,
+
+        @Schema(description = "Moneda del precio", example = "ARS")
+        String currencyId,
+
+        @Schema(description = "Cantidad disponible", example = "10")
+        Integer availableQuantity,
+
+        @Schema(description = "Cantidad vendida", example = "5")
+        Integer soldQuantity,
+
+        @Schema(description = "Modo de compra", example = "buy_it_now")
+        String buyingMode,
+
+        @Schema(description = "Estado de la publicación", example = "active")
+        String status,
+
+        @Schema(description = "URL permanente del producto", example = "https://articulo.mercadolibre.com.ar/MLA123456789")
+        String permalink,
+
+        @Schema(description = "URL de imagen miniatura", example = "https://http2.mlstatic.com/D_123456-MLA.jpg")
+        String thumbnail,
+
+        @Schema(description = "Lista de URLs de imágenes del producto")
+        List<String> pictures,
+
+        @Schema(description = "Lista de atributos del producto (color, marca, etc.)")
+        List<AttributeDto> attributes,
+
+        @Schema(description = "Información de envío del producto")
+        List<ShippingDto> shipping,
+
+        @Schema(description = "Información del/los vendedores")
+        List<SellerDto> sellers) {
+
+    /**
+     * Versión del esquema de ProductDetailDto y sus records hijos, común a
+     * JSON, CBOR y Smile (header X-Schema-Version). Agregar campos no la
+     * cambia; quitar, renombrar o cambiar el tipo de un campo la incrementa.
+     */
+    public static final int SCHEMA_VERSION = 1;
+
+    /**
+     * Constructor usado por la proyección JPQL: solo columnas de product_detail.
+     * Las colecciones se agregan después con {@link #withChildren}.
+     */
+    public ProductDetailDto(Long id, String productId, String title, String condition, String categoryId,
+                            String listingTypeId, String siteId, BigDecimal price, String currencyId,
+                            Integer availableQuantity, Integer soldQuantity, String buyingMode, String status,
+                            String permalink, String thumbnail, List<String> pictures) {
+        this(id, productId, title, condition, categoryId, listingTypeId, siteId, price, currencyId,
+             availableQuantity, soldQuantity, buyingMode, status, permalink, thumbnail, pictures,
+             List.of(), List.of(), List.of());
+    }
+
+    /**
+     * @return copia del producto con sus atributos, envíos y vendedores
+     */
+    public ProductDetailDto withChildren(List<AttributeDto> attributes, List<ShippingDto> shipping, List<SellerDto> sellers) {
+        return new ProductDetailDto(id, productId, title, condition, categoryId, listingTypeId, siteId, price,
+                currencyId, availableQuantity, soldQuantity, buyingMode, status, permalink, thumbnail, pictures,
+                attributes, shipping, sellers);
+    }
+}
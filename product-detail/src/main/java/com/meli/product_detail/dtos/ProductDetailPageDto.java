@@ -0,0 +1,16 @@
+package com.meli.product_detail.dtos;
+
+import java.util.List;
+
+/**
+ * Página de productos obtenida por keyset sobre el ID interno.
+ * 
+ * @param items      productos de la página, ordenados por ID interno
+ * @param nextCursor ID a enviar como {@code after} para la siguiente página,
+ *                   o null si no hay más productos
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public record ProductDetailPageDto(List<ProductDetailDto> items, Long nextCursor) {
+}
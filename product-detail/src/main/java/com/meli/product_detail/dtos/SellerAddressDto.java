@@ -0,0 +1,28 @@
+package com.meli.product_detail.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Vista de solo lectura de la dirección de un vendedor.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Schema(description = "Dirección de un vendedor")
+public record SellerAddressDto(
+
+        @Schema(description = "Identificador único de la dirección del vendedor", example = "1")
+        Long id,
+
+        @Schema(description = "Ciudad donde se encuentra el vendedor", example = "Buenos Aires")
+        String city,
+
+        @Schema(description = "Estado o provincia del vendedor", example = "Buenos Aires")
+        String state,
+
+        @Schema(description = "País del vendedor", example = "Argentina")
+        String country,
+
+        @Schema(description = "Código postal de la dirección", example = "C1425")
+        String zipCode) {
+}
@@ -0,0 +1,25 @@
+package com.meli.product_detail.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Vista de solo lectura de un vendedor y su dirección.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Schema(description = "Vendedor del producto")
+public record SellerDto(
+
+        @Schema(description = "Identificador único del vendedor", example = "1")
+        Long id,
+
+        @Schema(description = "Nombre comercial o nickname del vendedor", example = "VENDEDOR123")
+        String nickname,
+
+        @Schema(description = "Tipo de vendedor en la plataforma", example = "professional")
+        String sellerType,
+
+        @Schema(description = "Dirección del vendedor")
+        SellerAddressDto address) {
+}
@@ -0,0 +1,25 @@
+package com.meli.product_detail.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Vista de solo lectura de una opción de envío del producto.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Schema(description = "Opción de envío de un producto")
+public record ShippingDto(
+
+        @Schema(description = "Identificador único de la opción de envío", example = "1")
+        Long id,
+
+        @Schema(description = "Indica si el envío es gratuito", example = "true")
+        boolean freeShipping,
+
+        @Schema(description = "Tipo de logística utilizada para el envío", example = "fulfillment")
+        String logisticType,
+
+        @Schema(description = "Modalidad de envío", example = "me2")
+        String mode) {
+}
@@ -0,0 +1,34 @@
+package com.meli.product_detail.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Documento precalculado de un producto: el JSON completo del agregado
+ * (producto, atributos, envío, vendedores y dirección) en UTF-8.
+ * 
+ * Lo mantiene ProductDocumentRebuilder; se lee con una sola consulta por
+ * clave primaria y se escribe tal cual en la respuesta.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDocument {
+
+    @Id
+    private String productId;
+
+    private Long productDetailId;
+
+    private byte[] document;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,188 @@
+package com.meli.product_detail.helpers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.Zstd;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Codificaciones de contenido (Content-Encoding) para variantes precomprimidas.
+ *
+ * Cada variante se comprime una sola vez por entrada de caché, por lo que se
+ * usan niveles altos. br y zstd dependen de librerías nativas: si no cargan en
+ * la plataforma, {@link #isAvailable()} devuelve false y esa variante no se
+ * genera (el cliente recibe otra codificación o JSON plano).
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Slf4j
+public enum ContentCoding {
+
+    ZSTD("zstd") {
+        @Override
+        public byte[] encode(byte[] body) {
+            return Zstd.compress(body, 10);
+        }
+
+        @Override
+        boolean load() {
+            Zstd.compress(new byte[0], 1);
+            return true;
+        }
+    },
+    BROTLI("br") {
+        @Override
+        public byte[] encode(byte[] body) {
+            try {
+                return Encoder.compress(body, new Encoder.Parameters().setQuality(8));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        boolean load() {
+            return Brotli4jLoader.isAvailable();
+        }
+    },
+    GZIP("gzip") {
+        @Override
+        public byte[] encode(byte[] body) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(body);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return compressed.toByteArray();
+        }
+
+        @Override
+        boolean load() {
+            return true;
+        }
+    };
+
+    private final String token;
+    private volatile Boolean available;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Valor del header Content-Encoding.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Comprime el cuerpo con esta codificación.
+     *
+     * @param body bytes sin comprimir
+     * @return bytes comprimidos
+     */
+    public abstract byte[] encode(byte[] body);
+
+    abstract boolean load();
+
+    /**
+     * Indica si la librería de esta codificación está disponible (se evalúa una vez).
+     */
+    public boolean isAvailable() {
+        Boolean loaded = available;
+        if (loaded == null) {
+            try {
+                loaded = load();
+            } catch (LinkageError | RuntimeException ex) {
+                loaded = false;
+            }
+            if (!loaded) {
+                log.warn("Codificación {} no disponible en esta plataforma; no se generarán variantes {}", token, token);
+            }
+            available = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Busca una codificación por su token (sin distinguir mayúsculas).
+     *
+     * @param token valor de Content-Encoding, p. ej. {@code br}
+     * @return la codificación, o null si no se soporta
+     */
+    public static ContentCoding fromToken(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(token.trim())) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Elige la codificación a enviar según {@code Accept-Encoding} (RFC 9110).
+     *
+     * Gana el mayor valor q entre las candidatas; a igual q, el orden de
+     * {@code candidates} (preferencia del servidor). {@code *} cubre las
+     * codificaciones no nombradas y q=0 las excluye.
+     *
+     * @param acceptEncoding valor del header, o null
+     * @param candidates     codificaciones con variante disponible, en orden de preferencia
+     * @return la codificación elegida, o null para enviar el cuerpo sin comprimir
+     */
+    public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> candidates) {
+        if (acceptEncoding == null || acceptEncoding.isBlank() || candidates.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                weights.put(name, quality(parts));
+            }
+        }
+        ContentCoding selected = null;
+        double best = 0;
+        for (ContentCoding candidate : candidates) {
+            double weight = weights.getOrDefault(candidate.token, weights.getOrDefault("*", 0.0));
+            if (weight > best) {
+                best = weight;
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,196 @@
+package com.meli.product_detail.helpers;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.exceptions.MeliException;
+
+/**
+ * Selección de campos (sparse fieldset) pedida con {@code fields=}.
+ *
+ * Acepta rutas separadas por coma sobre el esquema de ProductDetailDto, con
+ * punto para los campos de las colecciones y records hijos, por ejemplo
+ * {@code title,price,sellers.nickname,sellers.address.city}. Nombrar un
+ * campo compuesto sin subcampos ({@code sellers}) lo incluye completo.
+ *
+ * La selección se usa dos veces: el servicio consulta solo las colecciones
+ * incluidas ({@link #includes(String)}) y el controlador serializa solo los
+ * campos pedidos ({@link #apply(JsonNode)}). Los nombres se validan contra
+ * los componentes de los records, así que siguen al esquema sin mantener
+ * una lista aparte.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public final class FieldSelection {
+
+    private static final String INVALID_FIELDS_CODE = "001009";
+    private static final FieldSelection ALL = new FieldSelection(null);
+    private static final Map<String, Object> SCHEMA = schema(ProductDetailDto.class);
+
+    // null = campo completo; si no, subcampos elegidos en orden de aparición
+    private final Map<String, FieldSelection> fields;
+
+    private FieldSelection(Map<String, FieldSelection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Selección que incluye todos los campos (sin {@code fields=}).
+     */
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Interpreta el parámetro {@code fields}.
+     *
+     * @param fields rutas separadas por coma, o null/vacío para todos los campos
+     * @return la selección
+     * @throws MeliException 400 (001009) si una ruta no existe en el esquema
+     */
+    public static FieldSelection parse(String fields) throws MeliException {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Map<String, FieldSelection> root = new LinkedHashMap<>();
+        for (String raw : fields.split(",")) {
+            String path = raw.trim();
+            if (!path.isEmpty()) {
+                add(root, SCHEMA, path, path);
+            }
+        }
+        if (root.isEmpty()) {
+            return ALL;
+        }
+        return new FieldSelection(freeze(root));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void add(Map<String, FieldSelection> target, Map<String, Object> schema, String path, String fullPath)
+            throws MeliException {
+        int dot = path.indexOf('.');
+        String name = dot < 0 ? path : path.substring(0, dot);
+        if (!schema.containsKey(name)) {
+            throw new MeliException(HttpStatus.BAD_REQUEST, "fields=" + fullPath, INVALID_FIELDS_CODE);
+        }
+        if (dot < 0) {
+            // El campo completo reemplaza cualquier subcampo elegido antes
+            target.put(name, ALL);
+            return;
+        }
+        Object child = schema.get(name);
+        if (!(child instanceof Map)) {
+            throw new MeliException(HttpStatus.BAD_REQUEST, "fields=" + fullPath, INVALID_FIELDS_CODE);
+        }
+        FieldSelection current = target.get(name);
+        if (current == ALL) {
+            return;
+        }
+        Map<String, FieldSelection> nested = current == null ? new LinkedHashMap<>() : current.fields;
+        add(nested, (Map<String, Object>) child, path.substring(dot + 1), fullPath);
+        target.put(name, new FieldSelection(nested));
+    }
+
+    private static Map<String, FieldSelection> freeze(Map<String, FieldSelection> fields) {
+        Map<String, FieldSelection> frozen = new LinkedHashMap<>();
+        fields.forEach((name, selection) ->
+                frozen.put(name, selection.isAll() ? ALL : new FieldSelection(freeze(selection.fields))));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * Esquema de nombres a partir de los componentes del record: los records
+     * y listas de records se expanden, el resto son hojas (null).
+     */
+    private static Map<String, Object> schema(Class<?> type) {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            Class<?> nested = nestedRecord(component);
+            schema.put(component.getName(), nested == null ? null : schema(nested));
+        }
+        return Collections.unmodifiableMap(schema);
+    }
+
+    private static Class<?> nestedRecord(RecordComponent component) {
+        if (component.getType().isRecord()) {
+            return component.getType();
+        }
+        Type generic = component.getGenericType();
+        if (generic instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element && element.isRecord()) {
+            return element;
+        }
+        return null;
+    }
+
+    /**
+     * @return true si no hay restricción de campos
+     */
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * Indica si la respuesta necesita algún dato de la ruta dada.
+     *
+     * @param path ruta con punto, p. ej. {@code sellers} o {@code sellers.address}
+     * @return true si la ruta o alguno de sus subcampos está seleccionado
+     */
+    public boolean includes(String path) {
+        FieldSelection current = this;
+        for (String name : path.split("\\.")) {
+            if (current.isAll()) {
+                return true;
+            }
+            current = current.fields.get(name);
+            if (current == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deja en el árbol JSON solo los campos seleccionados (en listas, en cada elemento).
+     *
+     * @param node producto serializado como árbol
+     * @return el mismo nodo, recortado
+     */
+    public JsonNode apply(JsonNode node) {
+        if (isAll() || node == null) {
+            return node;
+        }
+        if (node instanceof ArrayNode array) {
+            array.forEach(this::apply);
+        } else if (node instanceof ObjectNode object) {
+            object.retain(fields.keySet());
+            fields.forEach((name, selection) -> selection.apply(object.get(name)));
+        }
+        return node;
+    }
+
+    /**
+     * Forma canónica ({@code title,sellers(nickname)}), usable como llave.
+     */
+    @Override
+    public String toString() {
+        if (isAll()) {
+            return "*";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        fields.forEach((name, selection) -> joiner.add(selection.isAll() ? name : name + "(" + selection + ")"));
+        return joiner.toString();
+    }
+}
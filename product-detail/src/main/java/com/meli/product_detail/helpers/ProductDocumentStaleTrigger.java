@@ -0,0 +1,105 @@
+package com.meli.product_detail.helpers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+import org.h2.api.Trigger;
+
+/**
+ * Trigger H2 que marca como desactualizado el documento de un producto
+ * (tabla {@code product_document_stale}) cuando cambia el producto o
+ * cualquiera de sus tablas hijas.
+ * 
+ * Se registra en Liquibase (changeset 012) sobre product_detail, attribute,
+ * shipping, seller y seller_address; ProductDocumentRebuilder reconstruye
+ * los productos marcados. En PostgreSQL cumple la misma función
+ * {@code product_document_mark_stale()}.
+ * 
+ * La columna con el ID (la misma que recibe la función de PostgreSQL) se
+ * busca por nombre en {@link #init}: el trigger no depende del orden de las
+ * columnas de la tabla.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public class ProductDocumentStaleTrigger implements Trigger {
+
+    private static final String MARK_STALE =
+            "MERGE INTO product_document_stale KEY (product_detail_id) VALUES (?)";
+    private static final String SELLER_PRODUCT = "SELECT id_product_detail FROM seller WHERE id = ?";
+
+    private String tableName;
+    private int idColumn;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        this.tableName = tableName;
+        this.idColumn = columnIndex(conn, schemaName, tableName, idColumnName(tableName));
+    }
+
+    // product_detail: su ID; seller_address: el vendedor; el resto: la FK al producto
+    private static String idColumnName(String tableName) {
+        if ("PRODUCT_DETAIL".equalsIgnoreCase(tableName)) {
+            return "ID";
+        }
+        return "SELLER_ADDRESS".equalsIgnoreCase(tableName) ? "ID_SELLER" : "ID_PRODUCT_DETAIL";
+    }
+
+    // Posición (base 0) de la columna en las filas que recibe fire
+    private static int columnIndex(Connection conn, String schemaName, String tableName, String columnName)
+            throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (columns.next()) {
+                if (columnName.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return columns.getInt("ORDINAL_POSITION") - 1;
+                }
+            }
+        }
+        throw new SQLException("Columna " + columnName + " no encontrada en "
+                + tableName.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        markStale(conn, oldRow);
+        markStale(conn, newRow);
+    }
+
+    private void markStale(Connection conn, Object[] row) throws SQLException {
+        if (row == null) {
+            return;
+        }
+        Long productDetailId = productDetailId(conn, row);
+        if (productDetailId == null) {
+            return;
+        }
+        try (PreparedStatement statement = conn.prepareStatement(MARK_STALE)) {
+            statement.setLong(1, productDetailId);
+            statement.executeUpdate();
+        }
+    }
+
+    private Long productDetailId(Connection conn, Object[] row) throws SQLException {
+        if (!"SELLER_ADDRESS".equalsIgnoreCase(tableName)) {
+            return toLong(row[idColumn]);
+        }
+        Long sellerId = toLong(row[idColumn]);
+        if (sellerId == null) {
+            return null;
+        }
+        try (PreparedStatement statement = conn.prepareStatement(SELLER_PRODUCT)) {
+            statement.setLong(1, sellerId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? toLong(resultSet.getObject(1)) : null;
+            }
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
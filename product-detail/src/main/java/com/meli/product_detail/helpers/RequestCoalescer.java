@@ -0,0 +1,122 @@
+package com.meli.product_detail.helpers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpStatus;
+
+import com.meli.product_detail.exceptions.MeliException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa cargas concurrentes de la misma llave en una sola ejecución (single-flight).
+ * 
+ * El primer hilo que pide una llave (líder) ejecuta la carga en su propio hilo;
+ * los que llegan mientras está en curso (seguidores) esperan el mismo future,
+ * como máximo {@code timeout}, y reciben el mismo resultado o la misma excepción.
+ * Nada se guarda después de completar: no es una caché.
+ * 
+ * Métricas ({@code <name>} = nombre recibido):
+ * <ul>
+ *   <li>{@code <name>.requests{role=leader|follower}}: la razón de agrupamiento es
+ *       follower / (leader + follower); las consultas a base de datos son los líderes.</li>
+ *   <li>{@code <name>.timeouts}: seguidores que dejaron de esperar.</li>
+ *   <li>{@code <name>.inflight}: llaves con carga en curso.</li>
+ * </ul>
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public class RequestCoalescer<K, V> {
+
+    private static final String TIMEOUT_CODE = "001007";
+
+    /**
+     * Carga ejecutada por el líder.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws MeliException;
+    }
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+
+    /**
+     * @param name          prefijo de las métricas
+     * @param scope         qué lecturas pasan por el agrupador, para la descripción de las métricas
+     * @param timeout       espera máxima de los seguidores
+     * @param meterRegistry registro de métricas
+     */
+    public RequestCoalescer(String name, String scope, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.leaders = Counter.builder(name + ".requests").tag("role", "leader")
+                .description("Cargas ejecutadas (" + scope + ")").register(meterRegistry);
+        this.followers = Counter.builder(name + ".requests").tag("role", "follower")
+                .description("Peticiones atendidas con una carga en curso (" + scope + ")").register(meterRegistry);
+        this.timeouts = Counter.builder(name + ".timeouts")
+                .description("Seguidores que superaron el tiempo de espera").register(meterRegistry);
+        Gauge.builder(name + ".inflight", this.inFlight, Map::size)
+                .description("Llaves con carga en curso").register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la carga o se une a la que ya está en curso para la misma llave.
+     * 
+     * @param key    llave de agrupamiento
+     * @param loader carga a ejecutar si no hay una en curso
+     * @return resultado de la carga compartida
+     * @throws MeliException la excepción de la carga, o 503 (001007) si el seguidor supera el timeout
+     */
+    public V execute(K key, Loader<V> loader) throws MeliException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            followers.increment();
+            return await(key, existing);
+        }
+        leaders.increment();
+        try {
+            V value = loader.load();
+            future.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            // La siguiente petición para la llave inicia una carga nueva
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> future) throws MeliException {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            throw new MeliException(HttpStatus.SERVICE_UNAVAILABLE, key, TIMEOUT_CODE);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MeliException meliException) {
+                throw meliException;
+            }
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001003");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MeliException(HttpStatus.SERVICE_UNAVAILABLE, key, TIMEOUT_CODE);
+        }
+    }
+}
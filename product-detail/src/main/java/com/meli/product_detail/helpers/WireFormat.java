@@ -0,0 +1,79 @@
+package com.meli.product_detail.helpers;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de serialización que exponen los endpoints de detalle.
+ *
+ * JSON es el formato público; CBOR y Smile son codificaciones binarias de
+ * Jackson sobre el mismo esquema (los records de dtos, versión
+ * {@link com.meli.product_detail.dtos.ProductDetailDto#SCHEMA_VERSION}) para
+ * consumidores internos que quieren evitar el costo de texto. Los
+ * conversores se registran en BinaryFormatConfig.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Elige el formato según {@code Accept}.
+     *
+     * Un formato binario solo se elige si se nombra explícitamente con un
+     * valor q mayor que el que obtiene JSON (directo o por comodín); ante
+     * empate, sin header o con un header inválido se responde JSON.
+     *
+     * @param accept valor del header Accept, o null
+     * @return el formato de la respuesta
+     */
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        WireFormat selected = JSON;
+        double best = quality(accepted, JSON.mediaType, true);
+        for (WireFormat format : List.of(CBOR, SMILE)) {
+            double weight = quality(accepted, format.mediaType, false);
+            if (weight > best) {
+                best = weight;
+                selected = format;
+            }
+        }
+        return selected;
+    }
+
+    // Mayor q entre los tipos aceptados que cubren el formato; los binarios no se eligen por comodín
+    private static double quality(List<MediaType> accepted, MediaType mediaType, boolean wildcards) {
+        double best = 0;
+        for (MediaType candidate : accepted) {
+            boolean matches = wildcards ? candidate.includes(mediaType) : candidate.equalsTypeAndSubtype(mediaType);
+            if (matches) {
+                best = Math.max(best, candidate.getQualityValue());
+            }
+        }
+        return best;
+    }
+}
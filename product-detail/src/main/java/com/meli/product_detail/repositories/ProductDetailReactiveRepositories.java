@@ -0,0 +1,171 @@
+package com.meli.product_detail.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.dtos.AttributeDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.SellerAddressDto;
+import com.meli.product_detail.dtos.SellerDto;
+import com.meli.product_detail.dtos.ShippingDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio R2DBC de solo lectura para el perfil reactive.
+ *
+ * Mismas consultas que el modelo de lectura de ProductDetailRepositories
+ * (producto sin colecciones y una consulta IN por colección), escritas en SQL
+ * sobre el esquema de Liquibase. Las colecciones se entregan como pares
+ * [idProducto, elemento] para que el servicio arme el agregado.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Repository
+@Profile("reactive")
+public class ProductDetailReactiveRepositories {
+
+    private static final String DETAIL_COLUMNS = "select id, product_id, title, condition, category_id, "
+            + "listing_type_id, site_id, price, currency_id, available_quantity, sold_quantity, buying_mode, "
+            + "status, permalink, thumbnail, pictures from product_detail ";
+    private static final TypeReference<List<String>> PICTURES_TYPE = new TypeReference<>() {};
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public ProductDetailReactiveRepositories(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param productId ID del producto
+     * @return producto sin colecciones, o vacío si no existe
+     */
+    public Mono<ProductDetailDto> findDetailByProductId(String productId) {
+        return databaseClient.sql(DETAIL_COLUMNS + "where product_id = :productId")
+                .bind("productId", productId)
+                .map(this::toDetail)
+                .first();
+    }
+
+    /**
+     * Página por keyset: productos con ID interno mayor al cursor, sin colecciones.
+     *
+     * @param after último ID interno de la página anterior (0 para la primera)
+     * @param limit máximo de productos a retornar
+     * @return productos ordenados por ID interno
+     */
+    public Flux<ProductDetailDto> findDetailsAfter(long after, int limit) {
+        return databaseClient.sql(DETAIL_COLUMNS + "where id > :after order by id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(this::toDetail)
+                .all();
+    }
+
+    /**
+     * Recorre todo el catálogo; las filas se piden al driver según la demanda
+     * del suscriptor.
+     *
+     * @return productos ordenados por ID interno, sin colecciones
+     */
+    public Flux<ProductDetailDto> streamAllDetails() {
+        return databaseClient.sql(DETAIL_COLUMNS + "order by id")
+                .map(this::toDetail)
+                .all();
+    }
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return pares [idProducto, atributo]
+     */
+    public Flux<Map.Entry<Long, AttributeDto>> findAttributes(Collection<Long> ids) {
+        return databaseClient.sql("select id_product_detail, id, name, value_name from attribute "
+                        + "where id_product_detail in (:ids) order by id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("id_product_detail", Long.class),
+                        new AttributeDto(row.get("id", Long.class), row.get("name", String.class),
+                                row.get("value_name", String.class))))
+                .all();
+    }
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return pares [idProducto, envío]
+     */
+    public Flux<Map.Entry<Long, ShippingDto>> findShipping(Collection<Long> ids) {
+        return databaseClient.sql("select id_product_detail, id, free_shipping, logistic_type, mode from shipping "
+                        + "where id_product_detail in (:ids) order by id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("id_product_detail", Long.class),
+                        new ShippingDto(row.get("id", Long.class), row.get("free_shipping", Boolean.class),
+                                row.get("logistic_type", String.class), row.get("mode", String.class))))
+                .all();
+    }
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return pares [idProducto, vendedor con dirección]
+     */
+    public Flux<Map.Entry<Long, SellerDto>> findSellers(Collection<Long> ids) {
+        return databaseClient.sql("select s.id_product_detail, s.id, s.nickname, s.seller_type, a.id as address_id, "
+                        + "a.city, a.state, a.country, a.zip_code from seller s "
+                        + "left join seller_address a on a.id_seller = s.id "
+                        + "where s.id_product_detail in (:ids) order by s.id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("id_product_detail", Long.class), toSeller(row)))
+                .all();
+    }
+
+    private ProductDetailDto toDetail(Readable row) {
+        return new ProductDetailDto(
+                row.get("id", Long.class),
+                row.get("product_id", String.class),
+                row.get("title", String.class),
+                row.get("condition", String.class),
+                row.get("category_id", String.class),
+                row.get("listing_type_id", String.class),
+                row.get("site_id", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("currency_id", String.class),
+                row.get("available_quantity", Integer.class),
+                row.get("sold_quantity", Integer.class),
+                row.get("buying_mode", String.class),
+                row.get("status", String.class),
+                row.get("permalink", String.class),
+                row.get("thumbnail", String.class),
+                toPictures(row.get("pictures", String.class)));
+    }
+
+    private static SellerDto toSeller(Readable row) {
+        Long addressId = row.get("address_id", Long.class);
+        SellerAddressDto address = addressId == null ? null
+                : new SellerAddressDto(addressId, row.get("city", String.class), row.get("state", String.class),
+                        row.get("country", String.class), row.get("zip_code", String.class));
+        return new SellerDto(row.get("id", Long.class), row.get("nickname", String.class),
+                row.get("seller_type", String.class), address);
+    }
+
+    // La columna pictures guarda un arreglo JSON de URLs
+    private List<String> toPictures(String pictures) {
+        if (pictures == null || pictures.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(pictures, PICTURES_TYPE);
+        } catch (JsonProcessingException ex) {
+            return List.of(pictures);
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package com.meli.product_detail.repositories;
 
+import com.meli.product_detail.dtos.ProductDetailDto;
 import com.meli.product_detail.entities.ProductDetail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la gestión de datos de ProductDetail.
@@ -23,4 +33,87 @@ public interface ProductDetailRepositories extends JpaRepository<ProductDetail,I
      * @return Optional con el producto encontrado
      */
     Optional<ProductDetail> findByProductId(String productId);
+
+    /* ---------- Modelo de lectura (proyecciones, sin entidades administradas) ---------- */
+
+    String DETAIL_PROJECTION = "select new com.meli.product_detail.dtos.ProductDetailDto("
+            + "p.id, p.productId, p.title, p.condition, p.categoryId, p.listingTypeId, p.siteId, p.price, "
+            + "p.currencyId, p.availableQuantity, p.soldQuantity, p.buyingMode, p.status, p.permalink, "
+            + "p.thumbnail, p.pictures) from ProductDetail p ";
+
+    /**
+     * Proyección de las columnas de un producto, sin colecciones.
+     * 
+     * @param productId ID del producto
+     * @return Optional con el producto encontrado
+     */
+    @Query(DETAIL_PROJECTION + "where p.productId = :productId")
+    Optional<ProductDetailDto> findDetailByProductId(@Param("productId") String productId);
+
+    /**
+     * Proyección de varios productos por ID en una sola consulta IN, sin colecciones.
+     * 
+     * @param productIds IDs de los productos
+     * @return productos encontrados ordenados por ID interno
+     */
+    @Query(DETAIL_PROJECTION + "where p.productId in :productIds order by p.id")
+    List<ProductDetailDto> findDetailsByProductIds(@Param("productIds") Collection<String> productIds);
+
+    /**
+     * Página por keyset: productos con ID interno mayor al cursor, sin colecciones.
+     * 
+     * @param after último ID interno de la página anterior (0 para la primera)
+     * @param limit máximo de productos a retornar
+     * @return productos ordenados por ID interno
+     */
+    @Query(DETAIL_PROJECTION + "where p.id > :after order by p.id")
+    List<ProductDetailDto> findDetailsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Recorre todo el catálogo con un cursor del driver (ScrollableResults);
+     * requiere una transacción abierta y debe cerrarse al terminar.
+     * 
+     * @return stream de productos ordenados por ID interno, sin colecciones
+     */
+    @Query(DETAIL_PROJECTION + "order by p.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductDetailDto> streamAllDetails();
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return filas [idProducto, id, name, valueName]
+     */
+    @Query("select a.productDetail.id, a.id, a.name, a.valueName from Attribute a "
+            + "where a.productDetail.id in :ids order by a.id")
+    List<Object[]> findAttributeRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return filas [idProducto, id, freeShipping, logisticType, mode]
+     */
+    @Query("select s.productDetail.id, s.id, s.freeShipping, s.logisticType, s.mode from Shipping s "
+            + "where s.productDetail.id in :ids order by s.id")
+    List<Object[]> findShippingRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return filas [idProducto, id, nickname, sellerType, idDirección, city, state, country, zipCode]
+     */
+    @Query("select s.productDetail.id, s.id, s.nickname, s.sellerType, a.id, a.city, a.state, a.country, a.zipCode "
+            + "from Seller s left join s.address a where s.productDetail.id in :ids order by s.id")
+    List<Object[]> findSellerRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Vendedores sin el join a seller_address, para selecciones de campos
+     * ({@code fields=}) que no piden la dirección.
+     * 
+     * @param ids IDs internos de los productos
+     * @return filas [idProducto, id, nickname, sellerType]
+     */
+    @Query("select s.productDetail.id, s.id, s.nickname, s.sellerType from Seller s "
+            + "where s.productDetail.id in :ids order by s.id")
+    List<Object[]> findSellerRowsWithoutAddress(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,75 @@
+package com.meli.product_detail.repositories;
+
+import com.meli.product_detail.entities.ProductDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio de documentos precalculados de productos y de la cola de
+ * productos a reconstruir (tabla product_document_stale, llenada por triggers).
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public interface ProductDocumentRepositories extends JpaRepository<ProductDocument, String> {
+
+    /**
+     * Lectura por clave primaria de los bytes del documento, sin entidad administrada.
+     * 
+     * @param productId ID del producto
+     * @return JSON UTF-8 del producto completo, o vacío si no hay documento
+     */
+    @Query("select d.document from ProductDocument d where d.productId = :productId")
+    Optional<byte[]> findDocumentByProductId(@Param("productId") String productId);
+
+    /**
+     * @param limit máximo de IDs a retornar
+     * @return IDs internos de productos marcados para reconstrucción
+     */
+    @Query(value = "select product_detail_id from product_document_stale order by product_detail_id limit :limit",
+           nativeQuery = true)
+    List<Long> findStaleIds(@Param("limit") int limit);
+
+    /**
+     * Página por keyset de productos sin documento (carga inicial).
+     * 
+     * @param after último ID interno de la página anterior (0 para la primera)
+     * @param limit máximo de IDs a retornar
+     * @return IDs internos ordenados
+     */
+    @Query(value = "select p.id from product_detail p where p.id > :after and not exists "
+            + "(select 1 from product_document d where d.product_detail_id = p.id) order by p.id limit :limit",
+           nativeQuery = true)
+    List<Long> findMissingIdsAfter(@Param("after") long after, @Param("limit") int limit);
+
+    /**
+     * @param ids IDs internos de los productos
+     * @return filas [id, productId] de los productos que aún existen
+     */
+    @Query("select p.id, p.productId from ProductDetail p where p.id in :ids")
+    List<Object[]> findProductIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Saca productos de la cola de reconstrucción.
+     * 
+     * @param ids IDs internos de los productos
+     */
+    @Modifying
+    @Query(value = "delete from product_document_stale where product_detail_id in (:ids)", nativeQuery = true)
+    void deleteStale(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Borra los documentos de productos eliminados o cuyo productId cambió.
+     * 
+     * @param ids IDs internos de los productos
+     */
+    @Modifying
+    @Query("delete from ProductDocument d where d.productDetailId in :ids")
+    void deleteByProductDetailIds(@Param("ids") Collection<Long> ids);
+}
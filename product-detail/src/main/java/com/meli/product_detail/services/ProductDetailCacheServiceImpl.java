@@ -0,0 +1,221 @@
+package com.meli.product_detail.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Capa de caché en memoria delante de ProductDetailServiceImpl (a través de
+ * ProductDetailCoalescingServiceImpl).
+ *
+ * Guarda por productId el modelo de lectura inmutable del producto
+ * (atributos, envío, vendedores y dirección) con desalojo por tamaño y TTL, refresco anticipado
+ * de las llaves consultadas con frecuencia y carga única por llave: un pico
+ * sobre la misma publicación genera una sola consulta a la base de datos.
+ * Los productos inexistentes (404 - 001002) se cachean con un TTL corto.
+ * Las lecturas con selección de campos usan la entrada completa si ya está
+ * en caché y si no cargan solo lo pedido, sin guardarlo.
+ * Las consultas por lote toman de la caché los IDs presentes y cargan el
+ * resto con una sola llamada por lote al servicio de base de datos.
+ *
+ * Publica hit ratio, latencia de carga y desalojos en Micrometer bajo el
+ * nombre {@code product_detail.cache}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Service
+@Primary
+@Slf4j
+public class ProductDetailCacheServiceImpl implements ProductDetailService {
+
+    private static final String CACHE_NAME = "product_detail.cache";
+    private static final String NOT_FOUND_CODE = "001002";
+
+    private final ProductDetailService delegate;
+    private final LoadingCache<String, Optional<ProductDetailDto>> cache;
+    private final boolean enabled;
+    private final int maxBatchIds;
+
+    public ProductDetailCacheServiceImpl(
+            @Qualifier("productDetailCoalescingServiceImpl") ProductDetailService delegate,
+            MeterRegistry meterRegistry,
+            @Value("${application.cache.product-detail.enabled:true}") boolean enabled,
+            @Value("${application.cache.product-detail.maximum-size:10000}") long maximumSize,
+            @Value("${application.cache.product-detail.ttl:10m}") Duration ttl,
+            @Value("${application.cache.product-detail.refresh-after:1m}") Duration refreshAfter,
+            @Value("${application.cache.product-detail.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${application.batch.max-ids:50}") int maxBatchIds) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.maxBatchIds = maxBatchIds;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ProductDetailExpiry(ttl, negativeTtl))
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(new ProductDetailLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    @Override
+    public ProductDetailPageDto getAllProductDetails(Long after, int limit) throws MeliException {
+        return delegate.getAllProductDetails(after, limit);
+    }
+
+    @Override
+    public void streamAllProductDetails(Consumer<ProductDetailDto> consumer) throws MeliException {
+        delegate.streamAllProductDetails(consumer);
+    }
+
+    @Override
+    public ProductDetailDto getProductDetailByProductId(String productId) throws MeliException {
+        if (!enabled) {
+            return delegate.getProductDetailByProductId(productId);
+        }
+        try {
+            // Un solo hilo carga la llave; los concurrentes esperan el mismo resultado
+            return cache.get(productId)
+                        .orElseThrow(() -> new MeliException(HttpStatus.NOT_FOUND, productId, NOT_FOUND_CODE));
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    @Override
+    public ProductDetailDto getProductDetailByProductId(String productId, FieldSelection fields) throws MeliException {
+        if (fields.isAll()) {
+            return getProductDetailByProductId(productId);
+        }
+        if (enabled) {
+            // El producto completo en caché ya cubre cualquier selección
+            Optional<ProductDetailDto> cached = cache.getIfPresent(productId);
+            if (cached != null) {
+                return cached.orElseThrow(() -> new MeliException(HttpStatus.NOT_FOUND, productId, NOT_FOUND_CODE));
+            }
+        }
+        // Carga parcial: no se guarda, la caché solo tiene productos completos
+        return delegate.getProductDetailByProductId(productId, fields);
+    }
+
+    @Override
+    public byte[] getProductDocumentByProductId(String productId) throws MeliException {
+        return delegate.getProductDocumentByProductId(productId);
+    }
+
+    @Override
+    public ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException {
+        List<String> ids = ProductDetailBatchDto.distinctIds(productIds);
+        if (!enabled || ids.size() > maxBatchIds) {
+            // Sin caché o lote inválido: el servicio de base de datos responde o rechaza
+            return delegate.getProductDetailsByProductIds(productIds);
+        }
+        try {
+            // Aciertos desde la caché; los faltantes en una sola carga por lote
+            Map<String, ProductDetailDto> found = new HashMap<>();
+            cache.getAll(ids).forEach((productId, detail) -> detail.ifPresent(value -> found.put(productId, value)));
+            return ProductDetailBatchDto.of(ids, found);
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    /**
+     * Invalida la entrada de un producto (por ejemplo, tras una actualización).
+     *
+     * @param productId ID del producto
+     */
+    public void evict(String productId) {
+        cache.invalidate(productId);
+    }
+
+    // MeliException (500) del servicio de base de datos: no se cachea
+    private static MeliException unwrap(CompletionException ex) {
+        if (ex.getCause() instanceof MeliException meliException) {
+            return meliException;
+        }
+        throw ex;
+    }
+
+    /**
+     * Carga productos desde la base de datos; un 404 se convierte en
+     * resultado negativo cacheable, cualquier otro error se propaga.
+     */
+    private final class ProductDetailLoader implements CacheLoader<String, Optional<ProductDetailDto>> {
+
+        @Override
+        public Optional<ProductDetailDto> load(String productId) throws MeliException {
+            try {
+                return Optional.of(delegate.getProductDetailByProductId(productId));
+            } catch (MeliException ex) {
+                if (NOT_FOUND_CODE.equals(ex.getErrorCode())) {
+                    return Optional.empty();
+                }
+                throw ex;
+            }
+        }
+
+        @Override
+        public Map<String, Optional<ProductDetailDto>> loadAll(Set<? extends String> productIds) throws MeliException {
+            ProductDetailBatchDto batch = delegate.getProductDetailsByProductIds(List.copyOf(productIds));
+            Map<String, Optional<ProductDetailDto>> result = new HashMap<>();
+            batch.items().forEach(detail -> result.put(detail.productId(), Optional.of(detail)));
+            batch.notFound().forEach(productId -> result.put(productId, Optional.empty()));
+            return result;
+        }
+    }
+
+    /**
+     * TTL por entrada: completo para productos encontrados, corto para negativos.
+     */
+    private static final class ProductDetailExpiry implements Expiry<String, Optional<ProductDetailDto>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private ProductDetailExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<ProductDetailDto> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<ProductDetailDto> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<ProductDetailDto> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.meli.product_detail.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
+import com.meli.product_detail.helpers.RequestCoalescer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa consultas concurrentes del mismo productId en una sola consulta a la
+ * base de datos.
+ * 
+ * Se ubica entre la caché (ProductDetailCacheServiceImpl) y ProductDetailServiceImpl.
+ * Con la caché activa, las lecturas completas ya llegan agrupadas: Caffeine
+ * ejecuta una sola carga por llave (también para los productos inexistentes y
+ * los refrescos), así que aquí solo se agrupan:
+ * <ul>
+ *   <li>las lecturas con selección de campos ({@code fields=}) que no
+ *       encuentran la entrada completa en caché, que la caché no guarda;</li>
+ *   <li>todas las lecturas por productId con la caché desactivada
+ *       ({@code application.cache.product-detail.enabled: false}).</li>
+ * </ul>
+ * En esos casos la carga de la base de datos queda proporcional a los
+ * productId distintos y no a las peticiones por segundo. Publica la razón de
+ * agrupamiento en {@code product_detail.coalescing.*}; con la caché activa
+ * solo cuenta lecturas {@code fields=}.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Service
+public class ProductDetailCoalescingServiceImpl implements ProductDetailService {
+
+    private static final String METRIC_NAME = "product_detail.coalescing";
+    private static final String SCOPE = "lecturas fields= fuera de caché, o todas con la caché desactivada";
+
+    private final ProductDetailService delegate;
+    private final RequestCoalescer<String, ProductDetailDto> coalescer;
+    private final boolean enabled;
+
+    public ProductDetailCoalescingServiceImpl(
+            @Qualifier("productDetailServiceImpl") ProductDetailService delegate,
+            MeterRegistry meterRegistry,
+            @Value("${application.coalescing.product-detail.enabled:true}") boolean enabled,
+            @Value("${application.coalescing.product-detail.timeout:2s}") Duration timeout) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.coalescer = new RequestCoalescer<>(METRIC_NAME, SCOPE, timeout, meterRegistry);
+    }
+
+    @Override
+    public ProductDetailPageDto getAllProductDetails(Long after, int limit) throws MeliException {
+        return delegate.getAllProductDetails(after, limit);
+    }
+
+    @Override
+    public void streamAllProductDetails(Consumer<ProductDetailDto> consumer) throws MeliException {
+        delegate.streamAllProductDetails(consumer);
+    }
+
+    @Override
+    public ProductDetailDto getProductDetailByProductId(String productId) throws MeliException {
+        if (!enabled || productId == null) {
+            return delegate.getProductDetailByProductId(productId);
+        }
+        return coalescer.execute(productId, () -> delegate.getProductDetailByProductId(productId));
+    }
+
+    @Override
+    public ProductDetailDto getProductDetailByProductId(String productId, FieldSelection fields) throws MeliException {
+        if (!enabled || productId == null) {
+            return delegate.getProductDetailByProductId(productId, fields);
+        }
+        // Misma selección, misma consulta: la llave incluye la forma canónica de los campos
+        return coalescer.execute(productId + "?fields=" + fields,
+                () -> delegate.getProductDetailByProductId(productId, fields));
+    }
+
+    @Override
+    public byte[] getProductDocumentByProductId(String productId) throws MeliException {
+        return delegate.getProductDocumentByProductId(productId);
+    }
+
+    @Override
+    public ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException {
+        return delegate.getProductDetailsByProductIds(productIds);
+    }
+}
@@ -0,0 +1,44 @@
+package com.meli.product_detail.services;
+
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Servicio reactivo de lectura de detalles de productos (perfil reactive).
+ * 
+ * Mismo contrato que ProductDetailService para las lecturas; los errores se
+ * emiten como señal {@link MeliException} con los mismos códigos.
+ * 
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+public interface ProductDetailReactiveService {
+
+    /**
+     * Obtiene una página de detalles de productos por keyset sobre el ID interno.
+     * 
+     * @param after último ID interno de la página anterior (null para la primera)
+     * @param limit tamaño de página solicitado (se acota al máximo permitido)
+     * @return Página de productos con el cursor de la siguiente
+     */
+    Mono<ProductDetailPageDto> getAllProductDetails(Long after, int limit);
+
+    /**
+     * Recorre todo el catálogo respetando la demanda del suscriptor.
+     * 
+     * @return productos completos en orden de ID interno
+     */
+    Flux<ProductDetailDto> streamAllProductDetails();
+
+    /**
+     * Obtiene un producto por su ID.
+     * 
+     * @param productId ID del producto
+     * @return Detalle del producto, o error 404 (001002) si no existe
+     */
+    Mono<ProductDetailDto> getProductDetailByProductId(String productId);
+}
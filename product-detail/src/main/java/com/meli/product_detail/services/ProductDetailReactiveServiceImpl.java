@@ -0,0 +1,147 @@
+package com.meli.product_detail.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.meli.product_detail.dtos.AttributeDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.dtos.SellerDto;
+import com.meli.product_detail.dtos.ShippingDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.exceptions.SpanErrorHandler;
+import com.meli.product_detail.repositories.ProductDetailReactiveRepositories;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación reactiva (R2DBC) de las lecturas de detalles de productos.
+ *
+ * Arma el agregado igual que ProductDetailServiceImpl, pero sin bloquear:
+ * las tres consultas de colecciones (atributos, envío, vendedores con
+ * dirección) de un producto, página o lote del stream se lanzan en paralelo
+ * y se combinan al llegar. El stream pide productos al cursor según la
+ * demanda del cliente y completa las colecciones de a un lote a la vez.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Service
+@Profile("reactive")
+public class ProductDetailReactiveServiceImpl implements ProductDetailReactiveService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_CHUNK_SIZE = 100;
+
+    private final ProductDetailReactiveRepositories repositories;
+    private final Tracer tracer;
+
+    public ProductDetailReactiveServiceImpl(ProductDetailReactiveRepositories repositories, Tracer tracer) {
+        this.repositories = repositories;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Mono<ProductDetailPageDto> getAllProductDetails(Long after, int limit) {
+        // Acotar la página y pedir un elemento extra para saber si hay más
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return traced("ProductDetailReactiveServiceImpl.getAllProductDetails", () -> repositories
+                .findDetailsAfter(after == null ? 0L : after, pageSize + 1)
+                .collectList()
+                .flatMap(result -> {
+                    boolean hasMore = result.size() > pageSize;
+                    return withChildren(hasMore ? result.subList(0, pageSize) : result)
+                            .collectList()
+                            .map(items -> new ProductDetailPageDto(items, hasMore ? items.get(pageSize - 1).id() : null));
+                })
+                .onErrorMap(ex -> !(ex instanceof MeliException),
+                        ex -> new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001001", ex)));
+    }
+
+    @Override
+    public Flux<ProductDetailDto> streamAllProductDetails() {
+        return Flux.defer(() -> {
+            // El span cubre todo el recorrido, hasta completar, fallar o cancelar
+            Span span = tracer.nextSpan().name("ProductDetailReactiveServiceImpl.streamAllProductDetails").start();
+            return repositories.streamAllDetails()
+                    .buffer(STREAM_CHUNK_SIZE)
+                    .concatMap(this::withChildren, 1)
+                    .onErrorMap(ex -> new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001004", ex))
+                    .doOnError(ex -> SpanErrorHandler.tagError(span, (Exception) ex))
+                    .doFinally(signal -> span.end());
+        });
+    }
+
+    @Override
+    public Mono<ProductDetailDto> getProductDetailByProductId(String productId) {
+        return traced("ProductDetailReactiveServiceImpl.getProductDetailByProductId", () -> repositories
+                .findDetailByProductId(productId)
+                .switchIfEmpty(Mono.error(() -> new MeliException(HttpStatus.NOT_FOUND, productId, "001002")))
+                .flatMap(detail -> withChildren(List.of(detail)).next())
+                .onErrorMap(ex -> !(ex instanceof MeliException),
+                        ex -> new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001003", ex)));
+    }
+
+    /**
+     * Agrega atributos, envío y vendedores a los productos con una consulta
+     * por colección para todo el lote; las tres se ejecutan en paralelo.
+     *
+     * @param details productos proyectados sin colecciones
+     * @return productos completos, en el mismo orden
+     */
+    private Flux<ProductDetailDto> withChildren(List<ProductDetailDto> details) {
+        if (details.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = details.stream().map(ProductDetailDto::id).toList();
+        return Mono.zip(groupByProduct(repositories.findAttributes(ids)),
+                        groupByProduct(repositories.findShipping(ids)),
+                        groupByProduct(repositories.findSellers(ids)))
+                .flatMapIterable(children -> {
+                    Map<Long, List<AttributeDto>> attributes = children.getT1();
+                    Map<Long, List<ShippingDto>> shipping = children.getT2();
+                    Map<Long, List<SellerDto>> sellers = children.getT3();
+                    return details.stream()
+                            .map(detail -> detail.withChildren(
+                                    attributes.getOrDefault(detail.id(), List.of()),
+                                    shipping.getOrDefault(detail.id(), List.of()),
+                                    sellers.getOrDefault(detail.id(), List.of())))
+                            .toList();
+                });
+    }
+
+    /**
+     * Agrupa pares [idProducto, elemento] por producto conservando su orden.
+     */
+    private static <T> Mono<Map<Long, List<T>>> groupByProduct(Flux<Map.Entry<Long, T>> rows) {
+        return rows.collect(HashMap<Long, List<T>>::new,
+                        (result, row) -> result.computeIfAbsent(row.getKey(), id -> new ArrayList<>()).add(row.getValue()))
+                .map(result -> {
+                    result.replaceAll((id, list) -> List.copyOf(list));
+                    return result;
+                });
+    }
+
+    /**
+     * Envuelve la operación en un span que se abre al suscribirse y se
+     * cierra con la señal final; los errores quedan etiquetados en él.
+     */
+    private <T> Mono<T> traced(String name, Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            Span span = tracer.nextSpan().name(name).start();
+            return operation.get()
+                    .doOnError(ex -> SpanErrorHandler.tagError(span, (Exception) ex))
+                    .doFinally(signal -> span.end());
+        });
+    }
+}
@@ -0,0 +1,267 @@
+package com.meli.product_detail.services;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.ContentCoding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de respuestas ya serializadas de GET /detail/{productId}.
+ *
+ * Guarda por productId los bytes JSON (UTF-8) del producto, sus variantes
+ * precomprimidas ({@code encodings}: zstd, br, gzip) y un ETag fuerte derivado
+ * del contenido (SHA-256). Un acierto con {@code If-None-Match} se resuelve
+ * comparando el ETag: sin base de datos ni Jackson. Las variantes solo se
+ * generan si el tipo application/json está en {@code server.compression.mime-types},
+ * el cuerpo alcanza {@code server.compression.min-response-size} y la
+ * compresión efectivamente lo reduce; así los productos consultados con
+ * frecuencia se comprimen una vez por entrada y no una vez por respuesta.
+ *
+ * Las entradas se arman a través del servicio principal (caché de entidades,
+ * documentos precalculados si están activos) y vencen a los {@code ttl}; el
+ * tamaño total se acota por bytes. Los productos inexistentes no se guardan
+ * aquí (la caché de entidades ya los cachea).
+ *
+ * Publica hit ratio y desalojos bajo {@code product_detail.response_cache},
+ * las respuestas 304 en {@code product_detail.response_cache.not_modified} y
+ * el tiempo de compresión por codificación en
+ * {@code product_detail.response_cache.compression}.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Service
+public class ProductDetailResponseCache {
+
+    private static final String CACHE_NAME = "product_detail.response_cache";
+    private static final String SERIALIZATION_ERROR_CODE = "001008";
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    /**
+     * Respuesta serializada de un producto.
+     *
+     * @param etag     ETag fuerte (entre comillas) del JSON sin comprimir
+     * @param body     JSON del producto
+     * @param variants cuerpos precomprimidos, en orden de preferencia del servidor
+     */
+    public record CachedResponse(String etag, byte[] body, Map<ContentCoding, byte[]> variants) {
+
+        /**
+         * Codificaciones con variante guardada, en orden de preferencia.
+         */
+        public List<ContentCoding> codings() {
+            return List.copyOf(variants.keySet());
+        }
+
+        /**
+         * Cuerpo en la codificación pedida.
+         *
+         * @param coding codificación, o null para el JSON plano
+         */
+        public byte[] body(ContentCoding coding) {
+            return coding == null ? body : variants.get(coding);
+        }
+
+        /**
+         * ETag de una representación: cada codificación tiene el suyo, como
+         * exige un validador fuerte, con el mismo hash ({@code "<hash>-br"}).
+         *
+         * @param coding codificación, o null para el JSON plano
+         */
+        public String etag(ContentCoding coding) {
+            return coding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + coding.token() + "\"";
+        }
+
+        int weight() {
+            return ENTRY_OVERHEAD_BYTES + body.length + variants.values().stream().mapToInt(variant -> variant.length).sum();
+        }
+    }
+
+    private final ProductDetailService productDetailService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean documentsEnabled;
+    private final List<ContentCoding> codings;
+    private final int minSize;
+    private final LoadingCache<String, CachedResponse> cache;
+    private final Counter notModified;
+
+    public ProductDetailResponseCache(
+            ProductDetailService productDetailService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.cache.product-detail-response.enabled:true}") boolean enabled,
+            @Value("${application.cache.product-detail-response.max-bytes:64MB}") DataSize maxBytes,
+            @Value("${application.cache.product-detail-response.ttl:1m}") Duration ttl,
+            @Value("${application.cache.product-detail-response.encodings:zstd,br,gzip}") List<String> encodings,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minSize,
+            @Value("${server.compression.mime-types:application/json}") List<String> mimeTypes,
+            @Value("${application.document.product-detail.enabled:false}") boolean documentsEnabled) {
+        this.productDetailService = productDetailService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.documentsEnabled = documentsEnabled;
+        this.codings = compressesJson(mimeTypes) ? codings(encodings) : List.of();
+        this.minSize = (int) minSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String productId, CachedResponse response) -> response.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::render);
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+        this.notModified = Counter.builder(CACHE_NAME + ".not_modified")
+                .description("Respuestas 304 resueltas con el ETag en caché").register(meterRegistry);
+    }
+
+    private static boolean compressesJson(List<String> mimeTypes) {
+        MediaType json = MediaType.APPLICATION_JSON;
+        return mimeTypes.stream().map(String::trim).filter(type -> !type.isEmpty())
+                .anyMatch(type -> MediaType.parseMediaType(type).includes(json));
+    }
+
+    // Codificaciones configuradas, conocidas y con librería disponible, sin repetir
+    private static List<ContentCoding> codings(List<String> encodings) {
+        return encodings.stream()
+                .map(String::trim)
+                .filter(token -> !token.isEmpty())
+                .map(ContentCoding::fromToken)
+                .filter(coding -> coding != null && coding.isAvailable())
+                .distinct()
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Obtiene la respuesta serializada del producto, armándola una sola vez por llave.
+     *
+     * @param productId ID del producto
+     * @return bytes JSON, variantes precomprimidas y ETag
+     * @throws MeliException 404 (001002) si el producto no existe, 500 en errores internos
+     */
+    public CachedResponse get(String productId) throws MeliException {
+        try {
+            return cache.get(productId);
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof MeliException meliException) {
+                throw meliException;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Indica si el cliente ya tiene esta respuesta según {@code If-None-Match}.
+     *
+     * Usa la comparación débil de RFC 9110 (ignora {@code W/}) y acepta el
+     * ETag de cualquiera de las representaciones.
+     *
+     * @param response    respuesta en caché
+     * @param ifNoneMatch valor del header, o null
+     * @return true si corresponde responder 304
+     */
+    public boolean notModified(CachedResponse response, String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || matches(response, tag)) {
+                notModified.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(CachedResponse response, String tag) {
+        if (tag.equals(response.etag())) {
+            return true;
+        }
+        return response.codings().stream().anyMatch(coding -> tag.equals(response.etag(coding)));
+    }
+
+    /**
+     * Invalida la respuesta de un producto (por ejemplo, tras una actualización).
+     *
+     * @param productId ID del producto
+     */
+    public void evict(String productId) {
+        cache.invalidate(productId);
+    }
+
+    private CachedResponse render(String productId) throws MeliException {
+        byte[] body = documentsEnabled
+                ? productDetailService.getProductDocumentByProductId(productId)
+                : serialize(productId);
+        return new CachedResponse(etag(body), body, variants(body));
+    }
+
+    private byte[] serialize(String productId) throws MeliException {
+        try {
+            return objectMapper.writeValueAsBytes(productDetailService.getProductDetailByProductId(productId));
+        } catch (IOException ex) {
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, SERIALIZATION_ERROR_CODE);
+        }
+    }
+
+    // 128 bits de SHA-256 en base64url: suficiente para distinguir versiones de un producto
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Solo si supera el mínimo; cada variante se guarda si efectivamente reduce el tamaño
+    private Map<ContentCoding, byte[]> variants(byte[] body) {
+        if (codings.isEmpty() || body.length < minSize) {
+            return Map.of();
+        }
+        Map<ContentCoding, byte[]> variants = new LinkedHashMap<>();
+        for (ContentCoding coding : codings) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            byte[] encoded = coding.encode(body);
+            sample.stop(Timer.builder(CACHE_NAME + ".compression").tag("encoding", coding.token())
+                    .description("Tiempo de compresión de una variante").register(meterRegistry));
+            if (encoded.length < body.length) {
+                variants.put(coding, encoded);
+            }
+        }
+        return Collections.unmodifiableMap(variants);
+    }
+}
@@ -1,11 +1,15 @@
 package com.meli.product_detail.services;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
-import com.meli.product_detail.entities.ProductDetail;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
 import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
 
 /**
  * Servicio para la gestión de detalles de productos.
@@ -20,12 +24,23 @@ import com.meli.product_detail.exceptions.MeliException;
 public interface ProductDetailService {
     
     /**
-     * Obtiene todos los detalles de productos.
+     * Obtiene una página de detalles de productos por keyset sobre el ID interno.
      * 
-     * @return Lista de productos
+     * @param after último ID interno de la página anterior (null para la primera)
+     * @param limit tamaño de página solicitado (se acota al máximo permitido)
+     * @return Página de productos con el cursor de la siguiente
      * @throws MeliException si ocurre un error interno
      */
-    List<ProductDetail> getAllProductDetails() throws MeliException;
+    ProductDetailPageDto getAllProductDetails(Long after, int limit) throws MeliException;
+
+    /**
+     * Recorre todo el catálogo entregando cada producto al consumidor a medida
+     * que se lee, sin acumular la lista en memoria.
+     * 
+     * @param consumer receptor de cada producto, en orden de ID interno
+     * @throws MeliException si ocurre un error interno
+     */
+    void streamAllProductDetails(Consumer<ProductDetailDto> consumer) throws MeliException;
     
     /**
      * Obtiene un producto por su ID.
@@ -34,5 +49,38 @@ public interface ProductDetailService {
      * @return Detalle del producto
      * @throws MeliException si el producto no existe o hay error interno
      */
-    ProductDetail getProductDetailByProductId(String productId) throws MeliException;
+    ProductDetailDto getProductDetailByProductId(String productId) throws MeliException;
+
+    /**
+     * Obtiene un producto por su ID consultando solo las colecciones que
+     * pide la selección de campos; las no pedidas quedan vacías.
+     * 
+     * @param productId ID del producto
+     * @param fields campos pedidos ({@code fields=})
+     * @return Detalle del producto con las colecciones seleccionadas
+     * @throws MeliException si el producto no existe o hay error interno
+     */
+    ProductDetailDto getProductDetailByProductId(String productId, FieldSelection fields) throws MeliException;
+
+    /**
+     * Obtiene el JSON UTF-8 ya serializado de un producto, listo para escribir
+     * en la respuesta sin pasar por Jackson.
+     * 
+     * @param productId ID del producto
+     * @return Documento JSON del producto completo
+     * @throws MeliException si el producto no existe o hay error interno
+     */
+    byte[] getProductDocumentByProductId(String productId) throws MeliException;
+
+    /**
+     * Obtiene varios productos por ID en una sola operación.
+     * 
+     * Los IDs se normalizan (sin vacíos ni repetidos); los inexistentes se
+     * reportan en notFound sin fallar el resto del lote.
+     * 
+     * @param productIds IDs de los productos
+     * @return Productos encontrados en el orden pedido e IDs no encontrados
+     * @throws MeliException si se supera el máximo de IDs por lote o hay error interno
+     */
+    ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException;
 }
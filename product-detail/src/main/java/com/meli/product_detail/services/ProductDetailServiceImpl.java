@@ -1,21 +1,42 @@
 package com.meli.product_detail.services;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.meli.product_detail.entities.ProductDetail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.meli.product_detail.dtos.AttributeDto;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.dtos.SellerAddressDto;
+import com.meli.product_detail.dtos.SellerDto;
+import com.meli.product_detail.dtos.ShippingDto;
 import com.meli.product_detail.exceptions.MeliException;
 import com.meli.product_detail.exceptions.SpanErrorHandler;
+import com.meli.product_detail.helpers.FieldSelection;
 import com.meli.product_detail.repositories.ProductDetailRepositories;
+import com.meli.product_detail.repositories.ProductDocumentRepositories;
 
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
-import jakarta.transaction.Transactional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,29 +46,61 @@ import lombok.extern.slf4j.Slf4j;
  * Maneja la lógica de negocio con trazabilidad distribuida,
  * transacciones y logging estructurado.
  * 
+ * Las lecturas usan proyecciones a records inmutables dentro de transacciones
+ * de solo lectura (flush MANUAL, sin snapshots): un producto completo son
+ * cuatro consultas (producto, atributos, envío, vendedores con dirección)
+ * por página o por lote del stream.
+ * 
+ * El listado se pagina por keyset sobre el ID interno con un tamaño de página
+ * acotado; el stream recorre el catálogo con un cursor del driver y completa
+ * las colecciones por lotes, por lo que la memoria no crece con el catálogo.
+ * 
+ * Con una selección de campos ({@code fields=}) solo se consultan las
+ * colecciones pedidas: {@code fields=title,price} es una sola consulta.
+ * 
+ * En modo documento ({@code application.document.product-detail.enabled})
+ * un producto se lee con una sola consulta por clave primaria a
+ * product_document, que ya guarda el JSON del agregado; si el documento aún
+ * no existe se arma con el modelo de lectura.
+ * 
  * @author Osneider Manuel Acevedo Naranjo
  * @version 1.0.0
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @Slf4j
 public class ProductDetailServiceImpl implements ProductDetailService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     @Autowired
     private ProductDetailRepositories repositories;
 
+    @Autowired
+    private ProductDocumentRepositories documentRepositories;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private Tracer tracer;
 
+    @Value("${application.batch.max-ids:50}")
+    private int maxBatchIds;
+
     @Override
-    public List<ProductDetail> getAllProductDetails() throws MeliException {
+    public ProductDetailPageDto getAllProductDetails(Long after, int limit) throws MeliException {
         // Iniciar span para tracking de la operación
         Span span = tracer.nextSpan().name("ProductDetailServiceImpl.getAllProductDetails").start();
         try {          
-            // Consultar todos los productos en la base de datos
-            List<ProductDetail> result = repositories.findAll();
-            // Retornar la lista obtenida
-            return result;
+            // Acotar la página y pedir un elemento extra para saber si hay más
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<ProductDetailDto> result = repositories.findDetailsAfter(after == null ? 0L : after, Limit.of(pageSize + 1));
+            boolean hasMore = result.size() > pageSize;
+            List<ProductDetailDto> items = withChildren(hasMore ? result.subList(0, pageSize) : result);
+            // Retornar la página con el cursor de la siguiente
+            return new ProductDetailPageDto(items, hasMore ? items.get(pageSize - 1).id() : null);
         } catch (Exception ex) {
             // Etiquetar error y lanzar excepción personalizada
             SpanErrorHandler.tagError(span, ex);
@@ -58,15 +111,48 @@ public class ProductDetailServiceImpl implements ProductDetailService {
         }
             
     }
+
+    @Override
+    public void streamAllProductDetails(Consumer<ProductDetailDto> consumer) throws MeliException {
+        // Iniciar span que cubre todo el recorrido del catálogo
+        Span span = tracer.nextSpan().name("ProductDetailServiceImpl.streamAllProductDetails").start();
+        try (Stream<ProductDetailDto> details = repositories.streamAllDetails()) {
+            // Leer del cursor y completar colecciones por lotes acotados
+            List<ProductDetailDto> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<ProductDetailDto> iterator = details.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    withChildren(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            }
+            withChildren(chunk).forEach(consumer);
+        } catch (Exception ex) {
+            // Etiquetar error (incluye desconexión del cliente) y lanzar excepción personalizada
+            SpanErrorHandler.tagError(span, ex);
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001004");
+        } finally {
+            // Cerrar span al terminar el recorrido
+            span.end();
+        }
+    }
     
     @Override
-    public ProductDetail getProductDetailByProductId(String productId) throws MeliException {
+    public ProductDetailDto getProductDetailByProductId(String productId) throws MeliException {
+        return getProductDetailByProductId(productId, FieldSelection.all());
+    }
+
+    @Override
+    public ProductDetailDto getProductDetailByProductId(String productId, FieldSelection fields) throws MeliException {
         // Crear span con ID del producto para trazabilidad
         Span span = tracer.nextSpan().name("ProductDetailServiceImpl.getProductDetailByProductId").start();
         try {
             // Buscar producto por ID, lanzar excepción si no existe
-            return repositories.findByProductId(productId)
+            ProductDetailDto productDetail = repositories.findDetailByProductId(productId)
                                  .orElseThrow(() -> new NoSuchElementException());
+            // Completar solo las colecciones que pide la selección de campos
+            return withChildren(List.of(productDetail), fields).get(0);
         } catch (NoSuchElementException ex) {
             // Manejar caso cuando el producto no existe
             SpanErrorHandler.tagError(span, ex);
@@ -81,4 +167,113 @@ public class ProductDetailServiceImpl implements ProductDetailService {
         }
     }
 
+    @Override
+    public byte[] getProductDocumentByProductId(String productId) throws MeliException {
+        // Crear span para la lectura del documento precalculado
+        Span span = tracer.nextSpan().name("ProductDetailServiceImpl.getProductDocumentByProductId").start();
+        try {
+            // Una consulta por clave primaria; sin documento aún, armar y serializar el agregado
+            Optional<byte[]> document = documentRepositories.findDocumentByProductId(productId);
+            if (document.isPresent()) {
+                return document.get();
+            }
+            return objectMapper.writeValueAsBytes(getProductDetailByProductId(productId));
+        } catch (MeliException ex) {
+            // Producto inexistente (001002) o error al armarlo: propagar tal cual
+            SpanErrorHandler.tagError(span, ex);
+            throw ex;
+        } catch (Exception ex) {
+            // Manejar cualquier otro error interno
+            SpanErrorHandler.tagError(span, ex);
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001008");
+        } finally {
+            // Finalizar span sin importar el resultado
+            span.end();
+        }
+    }
+
+    @Override
+    public ProductDetailBatchDto getProductDetailsByProductIds(List<String> productIds) throws MeliException {
+        // Crear span para la consulta por lote
+        Span span = tracer.nextSpan().name("ProductDetailServiceImpl.getProductDetailsByProductIds").start();
+        try {
+            // Normalizar y validar el tamaño del lote
+            List<String> ids = ProductDetailBatchDto.distinctIds(productIds);
+            if (ids.size() > maxBatchIds) {
+                throw new MeliException(HttpStatus.BAD_REQUEST, "productIds", "001005");
+            }
+            if (ids.isEmpty()) {
+                return ProductDetailBatchDto.of(ids, Map.of());
+            }
+            // Una consulta IN para los productos y una por colección para todo el lote
+            Map<String, ProductDetailDto> found = withChildren(repositories.findDetailsByProductIds(ids))
+                    .stream()
+                    .collect(Collectors.toMap(ProductDetailDto::productId, Function.identity(), (first, second) -> first));
+            return ProductDetailBatchDto.of(ids, found);
+        } catch (MeliException ex) {
+            // Lote inválido: propagar tal cual
+            SpanErrorHandler.tagError(span, ex);
+            throw ex;
+        } catch (Exception ex) {
+            // Manejar cualquier otro error interno
+            SpanErrorHandler.tagError(span, ex);
+            throw new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001006");
+        } finally {
+            // Finalizar span sin importar el resultado
+            span.end();
+        }
+    }
+
+    private List<ProductDetailDto> withChildren(List<ProductDetailDto> details) {
+        return withChildren(details, FieldSelection.all());
+    }
+
+    /**
+     * Agrega atributos, envío y vendedores a los productos con una consulta
+     * por colección para todo el lote. Las colecciones que la selección de
+     * campos no incluye no se consultan (quedan vacías), y la dirección del
+     * vendedor solo se une si se pide.
+     *
+     * @param details productos proyectados sin colecciones
+     * @param fields  campos pedidos
+     * @return productos con las colecciones seleccionadas, en el mismo orden
+     */
+    private List<ProductDetailDto> withChildren(List<ProductDetailDto> details, FieldSelection fields) {
+        if (details.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = details.stream().map(ProductDetailDto::id).toList();
+        Map<Long, List<AttributeDto>> attributes = !fields.includes("attributes") ? Map.of()
+                : groupByProduct(repositories.findAttributeRows(ids),
+                        row -> new AttributeDto((Long) row[1], (String) row[2], (String) row[3]));
+        Map<Long, List<ShippingDto>> shipping = !fields.includes("shipping") ? Map.of()
+                : groupByProduct(repositories.findShippingRows(ids),
+                        row -> new ShippingDto((Long) row[1], (Boolean) row[2], (String) row[3], (String) row[4]));
+        Map<Long, List<SellerDto>> sellers = !fields.includes("sellers") ? Map.of()
+                : fields.includes("sellers.address")
+                ? groupByProduct(repositories.findSellerRows(ids),
+                        row -> new SellerDto((Long) row[1], (String) row[2], (String) row[3], row[4] == null ? null
+                                : new SellerAddressDto((Long) row[4], (String) row[5], (String) row[6], (String) row[7], (String) row[8])))
+                : groupByProduct(repositories.findSellerRowsWithoutAddress(ids),
+                        row -> new SellerDto((Long) row[1], (String) row[2], (String) row[3], null));
+        return details.stream()
+                      .map(detail -> detail.withChildren(
+                              attributes.getOrDefault(detail.id(), List.of()),
+                              shipping.getOrDefault(detail.id(), List.of()),
+                              sellers.getOrDefault(detail.id(), List.of())))
+                      .toList();
+    }
+
+    /**
+     * Agrupa filas [idProducto, ...] por producto conservando su orden.
+     */
+    private static <T> Map<Long, List<T>> groupByProduct(List<Object[]> rows, Function<Object[], T> mapper) {
+        Map<Long, List<T>> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(mapper.apply(row));
+        }
+        result.replaceAll((id, list) -> List.copyOf(list));
+        return result;
+    }
+
 }
@@ -0,0 +1,195 @@
+package com.meli.product_detail.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.entities.ProductDocument;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.repositories.ProductDocumentRepositories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene la tabla product_document al día con las tablas del agregado.
+ *
+ * Al arrancar construye los documentos de todos los productos que no tienen
+ * uno (recorrido por keyset). Después revisa cada {@code rebuild-interval} la
+ * cola product_document_stale, que llenan los triggers de Liquibase ante
+ * cualquier cambio en product_detail, attribute, shipping, seller o
+ * seller_address, y reconstruye solo esos productos. Cada lote se arma con el
+ * mismo modelo de lectura que la API (una consulta por colección) y se guarda
+ * serializado con el ObjectMapper de la aplicación, en una transacción que
+ * también saca los IDs de la cola.
+ *
+ * Métricas: {@code product_detail.document.rebuild} (duración por lote) y
+ * {@code product_detail.document.rebuilt} (documentos escritos).
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.document.product-detail.enabled", havingValue = "true")
+public class ProductDocumentRebuilder implements SmartLifecycle {
+
+    private final ProductDocumentRepositories repositories;
+    private final ProductDetailService productDetailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration interval;
+    private final Timer rebuildTimer;
+    private final Counter rebuilt;
+    private ScheduledExecutorService scheduler;
+    private boolean initialBuildDone;
+
+    public ProductDocumentRebuilder(
+            ProductDocumentRepositories repositories,
+            @Qualifier("productDetailServiceImpl") ProductDetailService productDetailService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.document.product-detail.batch-size:50}") int batchSize,
+            @Value("${application.batch.max-ids:50}") int maxBatchIds,
+            @Value("${application.document.product-detail.rebuild-interval:1s}") Duration interval) {
+        this.repositories = repositories;
+        this.productDetailService = productDetailService;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Cada lote se arma con una consulta por lote del servicio, limitada a max-ids
+        this.batchSize = Math.max(1, Math.min(batchSize, maxBatchIds));
+        this.interval = interval;
+        this.rebuildTimer = Timer.builder("product_detail.document.rebuild")
+                .description("Duración de la reconstrucción de un lote de documentos").register(meterRegistry);
+        this.rebuilt = Counter.builder("product_detail.document.rebuilt")
+                .description("Documentos de producto reconstruidos").register(meterRegistry);
+    }
+
+    /**
+     * Construye los documentos de los productos que no tienen uno.
+     */
+    void buildMissing() {
+        long after = 0L;
+        List<Long> ids;
+        do {
+            List<Long> page = repositories.findMissingIdsAfter(after, batchSize);
+            ids = page;
+            if (!page.isEmpty()) {
+                rebuildTimer.record(() -> transaction.executeWithoutResult(status -> rebuild(page)));
+                after = page.get(page.size() - 1);
+            }
+        } while (ids.size() == batchSize);
+    }
+
+    /**
+     * Reconstruye los productos marcados por los triggers hasta vaciar la cola.
+     */
+    void rebuildStale() {
+        Integer processed;
+        do {
+            processed = rebuildTimer.record(() -> transaction.execute(status -> {
+                List<Long> ids = repositories.findStaleIds(batchSize);
+                if (!ids.isEmpty()) {
+                    repositories.deleteStale(ids);
+                    rebuild(ids);
+                }
+                return ids.size();
+            }));
+        } while (processed != null && processed == batchSize);
+    }
+
+    // Reemplaza los documentos de los productos; los eliminados quedan sin documento
+    private void rebuild(List<Long> ids) {
+        Map<Long, String> productIds = new HashMap<>();
+        repositories.findProductIds(ids).forEach(row -> productIds.put((Long) row[0], (String) row[1]));
+        repositories.deleteByProductDetailIds(ids);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        ProductDetailBatchDto batch = loadBatch(List.copyOf(productIds.values()));
+        Instant now = Instant.now();
+        for (ProductDetailDto detail : batch.items()) {
+            if (productIds.containsKey(detail.id())) {
+                repositories.save(new ProductDocument(detail.productId(), detail.id(), serialize(detail), now));
+                rebuilt.increment();
+            }
+        }
+    }
+
+    private ProductDetailBatchDto loadBatch(List<String> productIds) {
+        try {
+            return productDetailService.getProductDetailsByProductIds(productIds);
+        } catch (MeliException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    private byte[] serialize(ProductDetailDto detail) {
+        try {
+            return objectMapper.writeValueAsBytes(detail);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    // Solo corre en el hilo del scheduler
+    private void runCycle() {
+        try {
+            if (!initialBuildDone) {
+                buildMissing();
+                initialBuildDone = true;
+            }
+            rebuildStale();
+        } catch (RuntimeException ex) {
+            // Se reintenta en el próximo ciclo; mientras tanto las lecturas caen al modelo de lectura
+            log.warn("No se pudieron reconstruir documentos de producto: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-document-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runCycle, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
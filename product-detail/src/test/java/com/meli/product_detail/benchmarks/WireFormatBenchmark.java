@@ -0,0 +1,128 @@
+package com.meli.product_detail.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.ProductDetailApplication;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.services.ProductDetailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON, CBOR y Smile sobre el catálogo semilla de Liquibase.
+ *
+ * Mide throughput de serialización y deserialización del catálogo completo
+ * y de un producto. El catálogo se carga una vez con el modelo de lectura
+ * real (contexto Spring con perfil test y H2 en memoria), y los mappers son
+ * los mismos que usa el servicio: el ObjectMapper de Boot para JSON y los de
+ * los conversores de BinaryFormatConfig, construidos con
+ * Jackson2ObjectMapperBuilder.
+ *
+ * Ejecutar (JMH lanza una JVM aparte, que necesita el classpath explícito):
+ * {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.meli.product_detail.benchmarks.WireFormatBenchmark"}
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<ProductDetailDto>> CATALOG = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<ProductDetailDto> catalog;
+    private ProductDetailDto product;
+    private byte[] encodedCatalog;
+    private byte[] encodedProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductDetailApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("eureka.client.enabled=false", "spring.cloud.config.enabled=false",
+                        "application.cache.product-detail.enabled=false")
+                .run()) {
+            mapper = switch (format) {
+                case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+                case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+                default -> context.getBean(ObjectMapper.class);
+            };
+            catalog = loadCatalog(context.getBean(ProductDetailService.class));
+        } catch (Exception ex) {
+            throw new IllegalStateException("No se pudo cargar el catálogo semilla", ex);
+        }
+        product = catalog.get(0);
+        encodedCatalog = mapper.writeValueAsBytes(catalog);
+        encodedProduct = mapper.writeValueAsBytes(product);
+    }
+
+    private static List<ProductDetailDto> loadCatalog(ProductDetailService service) throws MeliException {
+        List<ProductDetailDto> products = new ArrayList<>();
+        Long after = null;
+        do {
+            ProductDetailPageDto page = service.getAllProductDetails(after, 100);
+            products.addAll(page.items());
+            after = page.nextCursor();
+        } while (after != null);
+        return products;
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws IOException {
+        return mapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public List<ProductDetailDto> deserializeCatalog() throws IOException {
+        return mapper.readValue(encodedCatalog, CATALOG);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws IOException {
+        return mapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public ProductDetailDto deserializeProduct() throws IOException {
+        return mapper.readValue(encodedProduct, ProductDetailDto.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WireFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
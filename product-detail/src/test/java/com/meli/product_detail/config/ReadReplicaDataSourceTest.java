@@ -0,0 +1,160 @@
+package com.meli.product_detail.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para ReadReplicaDataSource.
+ *
+ * Usa una base H2 en memoria por nodo (primario y réplicas); cada una tiene
+ * una tabla {@code node} con su nombre y una tabla {@code replica_lag} que
+ * simula el retraso de replicación.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class ReadReplicaDataSourceTest {
+
+    private static final String LAG_QUERY = "select seconds from replica_lag";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final String suffix = UUID.randomUUID().toString();
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private ReadReplicaDataSource readReplicas;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replicaA = node("replica-a");
+        replicaB = node("replica-b");
+        readReplicas = new ReadReplicaDataSource("test.datasource", primary,
+                List.of(ReadReplicaDataSource.replica("replica-a", replicaA), ReadReplicaDataSource.replica("replica-b", replicaB)),
+                LAG_QUERY, Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (DataSource dataSource : List.of(primary, replicaA, replicaB)) {
+            new JdbcTemplate(dataSource).execute("shutdown");
+        }
+    }
+
+    private DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + suffix + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(50))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        jdbcTemplate.execute("create table replica_lag (seconds double)");
+        jdbcTemplate.update("insert into replica_lag values (0)");
+        return dataSource;
+    }
+
+    private String readNode() throws SQLException {
+        try (Connection connection = readReplicas.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    @Test
+    void getConnection_ShouldBalanceAcrossReplicas() throws SQLException {
+        Map<String, Integer> reads = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            reads.merge(readNode(), 1, Integer::sum);
+        }
+
+        assertEquals(Map.of("replica-a", 5, "replica-b", 5), reads);
+        assertEquals(10.0, meterRegistry.get("test.datasource.reads").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void checkReplicas_LaggingReplica_ShouldBeEjectedAndReinstated() throws SQLException {
+        // Given: replica-b con 30 s de retraso
+        new JdbcTemplate(replicaB).update("update replica_lag set seconds = 30");
+
+        // When
+        readReplicas.checkReplicas();
+
+        // Then: todas las lecturas van a replica-a
+        assertEquals(1, readReplicas.healthyCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-a", readNode());
+        }
+        assertEquals(1.0, meterRegistry.get("test.datasource.replicas.healthy").gauge().value());
+
+        // When: se pone al día
+        new JdbcTemplate(replicaB).update("update replica_lag set seconds = 1");
+        readReplicas.checkReplicas();
+
+        // Then
+        assertEquals(2, readReplicas.healthyCount());
+    }
+
+    @Test
+    void getConnection_NoHealthyReplicas_ShouldReadFromPrimary() throws SQLException {
+        // Given
+        new JdbcTemplate(replicaA).update("update replica_lag set seconds = 60");
+        new JdbcTemplate(replicaB).update("update replica_lag set seconds = 60");
+        readReplicas.checkReplicas();
+
+        // When & Then
+        assertEquals("primary", readNode());
+        assertEquals(1.0, meterRegistry.get("test.datasource.reads").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    void getConnection_ReplicaDown_ShouldEjectAndTryNext() throws SQLException {
+        // Given: una réplica que no acepta conexiones
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:replica-down-" + suffix + ";IFEXISTS=TRUE");
+        readReplicas = new ReadReplicaDataSource("test.datasource.down", primary,
+                List.of(ReadReplicaDataSource.replica("replica-a", down), ReadReplicaDataSource.replica("replica-b", replicaB)),
+                LAG_QUERY, Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+
+        // When & Then
+        assertEquals("replica-b", readNode());
+        assertEquals("replica-b", readNode());
+        assertEquals(1, readReplicas.healthyCount());
+    }
+
+    @Test
+    void lazyProxy_ShouldRouteReadOnlyTransactionsToReplicasAndWritesToPrimary() {
+        // Given: el mismo armado que ReadReplicaDataSourceConfig
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readReplicas);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTransaction.setReadOnly(true);
+
+        // When & Then
+        assertTrue(readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class))
+                .startsWith("replica-"));
+        assertEquals("primary", transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class)));
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+}
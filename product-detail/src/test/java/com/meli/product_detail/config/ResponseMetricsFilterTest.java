@@ -0,0 +1,54 @@
+package com.meli.product_detail.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ResponseMetricsFilter.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class ResponseMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseMetricsFilter filter = new ResponseMetricsFilter(meterRegistry);
+
+    @Test
+    void doFilter_ShouldRecordBodyBytesByEncoding() throws Exception {
+        // Given: una respuesta precomprimida y una sin comprimir
+        FilterChain compressed = (request, response) -> {
+            ((HttpServletResponse) response).setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+            response.getOutputStream().write(new byte[120]);
+        };
+        FilterChain plain = (request, response) -> response.getOutputStream().write(new byte[900]);
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/detail/MLA1"), new MockHttpServletResponse(), compressed);
+        filter.doFilter(new MockHttpServletRequest("GET", "/detail"), new MockHttpServletResponse(), plain);
+
+        // Then
+        assertEquals(120.0, meterRegistry.get(ResponseMetricsFilter.BYTES_METRIC).tag("encoding", "br").summary().totalAmount());
+        assertEquals(900.0, meterRegistry.get(ResponseMetricsFilter.BYTES_METRIC).tag("encoding", "identity").summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_ShouldRecordCpuTimeWhenSupported() throws Exception {
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/detail/MLA1"), new MockHttpServletResponse(),
+                (request, response) -> response.getOutputStream().write(new byte[10]));
+
+        // Then: una medición por respuesta si la JVM mide CPU por hilo
+        boolean supported = ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported();
+        assertEquals(supported ? 1 : 0, meterRegistry.find(ResponseMetricsFilter.CPU_METRIC).timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+}
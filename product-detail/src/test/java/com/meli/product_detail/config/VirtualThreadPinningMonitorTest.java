@@ -0,0 +1,57 @@
+package com.meli.product_detail.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para VirtualThreadPinningMonitor.
+ *
+ * Valida que el monitor solo se registre con hilos virtuales activos,
+ * su ciclo de vida y la publicación del timer de hilos fijados.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(SimpleMeterRegistry.class)
+            .withUserConfiguration(VirtualThreadPinningMonitor.class);
+
+    @Test
+    void monitor_VirtualThreadsDisabled_ShouldNotBeRegistered() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    void monitor_VirtualThreadsEnabled_ShouldStartWithContext() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class);
+            assertTrue(context.getBean(VirtualThreadPinningMonitor.class).isRunning());
+            Timer timer = context.getBean(SimpleMeterRegistry.class).get(VirtualThreadPinningMonitor.METRIC_NAME).timer();
+            assertEquals(0, timer.count());
+        });
+    }
+
+    @Test
+    void stop_ShouldCloseRecordingStream() {
+        // Given
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), Duration.ofMillis(20));
+        monitor.start();
+
+        // When
+        monitor.stop();
+
+        // Then
+        assertFalse(monitor.isRunning());
+    }
+}
@@ -1,8 +1,16 @@
 package com.meli.product_detail.controllers;
 
-import com.meli.product_detail.entities.ProductDetail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.meli.product_detail.config.BinaryFormatConfig;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
 import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
+import com.meli.product_detail.services.ProductDetailResponseCache;
 import com.meli.product_detail.services.ProductDetailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.TraceContext;
 import io.micrometer.tracing.Tracer;
@@ -11,20 +19,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +63,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @MockitoSettings(strictness = Strictness.LENIENT)
 class ProductDetailControllersTest {
 
+    private static final String SHARED_CACHE_CONTROL = "max-age=0, public, s-maxage=10, stale-while-revalidate=30";
+
     @Mock
     private ProductDetailService productDetailService;
 
@@ -53,16 +77,24 @@ class ProductDetailControllersTest {
     @Mock
     private TraceContext traceContext;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ProductDetailResponseCache responseCache;
+
     @InjectMocks
     private ProductDetailControllers controller;
 
     private MockMvc mockMvc;
-    private ProductDetail sampleProductDetail;
-    private List<ProductDetail> sampleProductList;
+    private ProductDetailDto sampleProductDetail;
+    private List<ProductDetailDto> sampleProductList;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        ReflectionTestUtils.setField(controller, "sharedMaxAge", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(controller, "staleWhileRevalidate", Duration.ofSeconds(30));
         
         // Configurar mock de Span y TraceContext
         when(tracer.nextSpan()).thenReturn(span);
@@ -76,28 +108,12 @@ class ProductDetailControllersTest {
     }
 
     private void setupTestData() {
-        sampleProductDetail = new ProductDetail();
-        sampleProductDetail.setId(1L);
-        sampleProductDetail.setProductId("MLA123456789");
-        sampleProductDetail.setTitle("iPhone 13 Pro 128GB");
-        sampleProductDetail.setCondition("new");
-        sampleProductDetail.setCategoryId("MLA1055");
-        sampleProductDetail.setPrice(new BigDecimal("599999.99"));
-        sampleProductDetail.setCurrencyId("ARS");
-        sampleProductDetail.setAvailableQuantity(10);
-        sampleProductDetail.setSoldQuantity(5);
-        sampleProductDetail.setStatus("active");
-        sampleProductDetail.setPermalink("https://articulo.mercadolibre.com.ar/MLA123456789");
-        sampleProductDetail.setThumbnail("https://http2.mlstatic.com/D_123456-MLA.jpg");
-
-        ProductDetail secondProduct = new ProductDetail();
-        secondProduct.setId(2L);
-        secondProduct.setProductId("MLA987654321");
-        secondProduct.setTitle("Samsung Galaxy S21");
-        secondProduct.setCondition("new");
-        secondProduct.setPrice(new BigDecimal("450000.00"));
-        secondProduct.setCurrencyId("ARS");
-        secondProduct.setAvailableQuantity(15);
+        sampleProductDetail = new ProductDetailDto(1L, "MLA123456789", "iPhone 13 Pro 128GB", "new", "MLA1055",
+                null, null, new BigDecimal("599999.99"), "ARS", 10, 5, null, "active",
+                "https://articulo.mercadolibre.com.ar/MLA123456789", "https://http2.mlstatic.com/D_123456-MLA.jpg", null);
+
+        ProductDetailDto secondProduct = new ProductDetailDto(2L, "MLA987654321", "Samsung Galaxy S21", "new", null,
+                null, null, new BigDecimal("450000.00"), "ARS", 15, null, null, null, null, null, null);
 
         sampleProductList = Arrays.asList(sampleProductDetail, secondProduct);
     }
@@ -105,7 +121,7 @@ class ProductDetailControllersTest {
     @Test
     void getAllProductDetails_Success_ShouldReturnListOfProducts() throws Exception {
         // Given
-        when(productDetailService.getAllProductDetails()).thenReturn(sampleProductList);
+        when(productDetailService.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(sampleProductList, null));
 
         // When & Then
         mockMvc.perform(get("/detail")
@@ -123,7 +139,7 @@ class ProductDetailControllersTest {
                 .andExpect(jsonPath("$[1].title").value("Samsung Galaxy S21"));
 
         // Verify interactions
-        verify(productDetailService, times(1)).getAllProductDetails();
+        verify(productDetailService, times(1)).getAllProductDetails(null, 50);
         verify(tracer, times(1)).nextSpan();
         verify(span, times(1)).name("ProductDetailControllers.getAllProductDetails");
         verify(span, times(1)).start();
@@ -133,7 +149,7 @@ class ProductDetailControllersTest {
     @Test
     void getAllProductDetails_EmptyList_ShouldReturnEmptyArray() throws Exception {
         // Given
-        when(productDetailService.getAllProductDetails()).thenReturn(Arrays.asList());
+        when(productDetailService.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(Arrays.asList(), null));
 
         // When & Then
         mockMvc.perform(get("/detail")
@@ -144,14 +160,14 @@ class ProductDetailControllersTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(productDetailService, times(1)).getAllProductDetails();
+        verify(productDetailService, times(1)).getAllProductDetails(null, 50);
     }
 
     @Test
     void getAllProductDetails_ServiceException_ShouldReturnInternalServerError() throws Exception {
         // Given
         MeliException exception = new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001001");
-        when(productDetailService.getAllProductDetails()).thenThrow(exception);
+        when(productDetailService.getAllProductDetails(null, 50)).thenThrow(exception);
 
         // When & Then
         mockMvc.perform(get("/detail")
@@ -163,7 +179,7 @@ class ProductDetailControllersTest {
                 .andExpect(jsonPath("$.error").value("Internal Server Error"))
                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("001001")));
 
-        verify(productDetailService, times(1)).getAllProductDetails();
+        verify(productDetailService, times(1)).getAllProductDetails(null, 50);
         verify(span, times(1)).end();
     }
 
@@ -179,6 +195,7 @@ class ProductDetailControllersTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, SHARED_CACHE_CONTROL))
                 .andExpect(jsonPath("$.productId").value(productId))
                 .andExpect(jsonPath("$.title").value("iPhone 13 Pro 128GB"))
                 .andExpect(jsonPath("$.condition").value("new"))
@@ -207,6 +224,7 @@ class ProductDetailControllersTest {
                 .andDo(print())
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL))
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.error").value("Not Found"))
                                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("001002")))
@@ -256,7 +274,7 @@ class ProductDetailControllersTest {
     @Test
     void testTracingIntegration_ShouldCreateAndCloseSpans() throws Exception {
         // Given
-        when(productDetailService.getAllProductDetails()).thenReturn(sampleProductList);
+        when(productDetailService.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(sampleProductList, null));
 
         // When
         mockMvc.perform(get("/detail"));
@@ -272,7 +290,7 @@ class ProductDetailControllersTest {
     void testMetricsAnnotation_ShouldHaveTimedAnnotation() throws Exception {
         // Verify that the controller methods have @Timed annotations
         // This is validated through reflection or by checking if the annotation is present
-        var method = ProductDetailControllers.class.getMethod("getAllProductDetails");
+        var method = ProductDetailControllers.class.getMethod("getAllProductDetails", Long.class, int.class);
         var timedAnnotation = method.getAnnotation(io.micrometer.core.annotation.Timed.class);
         
         // Assert that @Timed annotation exists and has correct value
@@ -295,4 +313,262 @@ class ProductDetailControllersTest {
 
         verify(productDetailService, times(1)).getProductDetailByProductId(productIdWithSpecialChars);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllProductDetails_WithMorePages_ShouldReturnNextCursorHeaders() throws Exception {
+        // Given
+        when(productDetailService.getAllProductDetails(null, 1))
+                .thenReturn(new ProductDetailPageDto(List.of(sampleProductDetail), 1L));
+
+        // When & Then
+        mockMvc.perform(get("/detail?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(header().string("Link", "<http://localhost/detail?limit=1&after=1>; rel=\"next\""));
+    }
+
+    @Test
+    void getAllProductDetails_LastPage_ShouldNotReturnCursorHeaders() throws Exception {
+        // Given
+        when(productDetailService.getAllProductDetails(1L, 50))
+                .thenReturn(new ProductDetailPageDto(List.of(sampleProductList.get(1)), null));
+
+        // When & Then
+        mockMvc.perform(get("/detail").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value("MLA987654321"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllProductDetails_Ndjson_ShouldWriteOneProductPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<ProductDetailDto> consumer = invocation.getArgument(0);
+            sampleProductList.forEach(consumer);
+            return null;
+        }).when(productDetailService).streamAllProductDetails(any(Consumer.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/detail").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+        org.junit.jupiter.api.Assertions.assertEquals("MLA123456789", objectMapper.readTree(lines[0]).get("productId").asText());
+        org.junit.jupiter.api.Assertions.assertEquals("MLA987654321", objectMapper.readTree(lines[1]).get("productId").asText());
+        verify(productDetailService, never()).getAllProductDetails(any(), anyInt());
+        verify(span, times(1)).name("ProductDetailControllers.streamAllProductDetails");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getAllProductDetails_DefaultAccept_ShouldReturnJsonPage() throws Exception {
+        // Given
+        when(productDetailService.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(sampleProductList, null));
+
+        // When & Then
+        mockMvc.perform(get("/detail").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void getProductDetailsByProductIds_ShouldReturnItemsAndNotFound() throws Exception {
+        // Given
+        List<String> ids = List.of("MLA123456789", "MLA000000000");
+        when(productDetailService.getProductDetailsByProductIds(ids))
+                .thenReturn(new ProductDetailBatchDto(List.of(sampleProductDetail), List.of("MLA000000000")));
+
+        // When & Then
+        mockMvc.perform(get("/detail").param("ids", "MLA123456789,MLA000000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].productId").value("MLA123456789"))
+                .andExpect(jsonPath("$.notFound[0]").value("MLA000000000"));
+
+        verify(productDetailService, times(1)).getProductDetailsByProductIds(ids);
+        verify(productDetailService, never()).getAllProductDetails(any(), anyInt());
+        verify(span, times(1)).name("ProductDetailControllers.getProductDetailsByProductIds");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDetailsByProductIds_TooManyIds_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(productDetailService.getProductDetailsByProductIds(any()))
+                .thenThrow(new MeliException(HttpStatus.BAD_REQUEST, "productIds", "001005"));
+
+        // When & Then
+        mockMvc.perform(get("/detail").param("ids", "MLA1,MLA2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("001005")));
+    }
+
+    private void enableResponseCache(DataSize minSize) {
+        ReflectionTestUtils.setField(controller, "responseCache", new ProductDetailResponseCache(productDetailService,
+                objectMapper, new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1), Duration.ofMinutes(1),
+                List.of("gzip"), minSize, List.of("application/json"), false));
+    }
+
+    @Test
+    void getProductDetailByProductId_ResponseCache_ShouldReturnEtagAndNotModified() throws Exception {
+        // Given
+        enableResponseCache(DataSize.ofKilobytes(1));
+        String productId = "MLA123456789";
+        when(productDetailService.getProductDetailByProductId(productId)).thenReturn(sampleProductDetail);
+
+        // When: primera petición con cuerpo y ETag
+        MvcResult first = mockMvc.perform(get("/detail/{productId}", productId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, SHARED_CACHE_CONTROL))
+                .andExpect(jsonPath("$.productId").value(productId))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then: con el mismo ETag, 304 sin cuerpo y sin volver al servicio (con el mismo Vary que el 200)
+        mockMvc.perform(get("/detail/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, SHARED_CACHE_CONTROL))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/detail/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, "\"otro\""))
+                .andExpect(status().isOk());
+
+        verify(productDetailService, times(1)).getProductDetailByProductId(productId);
+        verify(span, times(3)).end();
+    }
+
+    @Test
+    void getProductDetailByProductId_ResponseCacheGzip_ShouldNegotiateEncoding() throws Exception {
+        // Given
+        enableResponseCache(DataSize.ofBytes(0));
+        String productId = "MLA123456789";
+        when(productDetailService.getProductDetailByProductId(productId)).thenReturn(sampleProductDetail);
+
+        // When & Then
+        mockMvc.perform(get("/detail/{productId}", productId).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.endsWith("-gzip\"")));
+        mockMvc.perform(get("/detail/{productId}", productId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.productId").value(productId));
+    }
+
+    @Test
+    void getProductDetailByProductId_ResponseCacheNotFound_ShouldReturnNotFoundError() throws Exception {
+        // Given
+        enableResponseCache(DataSize.ofKilobytes(1));
+        when(productDetailService.getProductDetailByProductId("MLA999999999"))
+                .thenThrow(new MeliException(HttpStatus.NOT_FOUND, "MLA999999999", "001002"));
+
+        // When & Then
+        mockMvc.perform(get("/detail/{productId}", "MLA999999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("001002")));
+    }
+
+    @Test
+    void getProductDetailByProductId_AcceptCbor_ShouldReturnCborWithSchemaVersion() throws Exception {
+        // Given: conversores JSON y CBOR como en BinaryFormatConfig, con la caché de respuestas activa
+        enableResponseCache(DataSize.ofKilobytes(1));
+        MockMvc binaryMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper),
+                        new MappingJackson2CborHttpMessageConverter(new CBORMapper()))
+                .setControllerAdvice(new BinaryFormatConfig.SchemaVersionAdvice())
+                .build();
+        String productId = "MLA123456789";
+        when(productDetailService.getProductDetailByProductId(productId)).thenReturn(sampleProductDetail);
+
+        // When
+        MvcResult result = binaryMockMvc.perform(get("/detail/{productId}", productId)
+                        .header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(BinaryFormatConfig.SCHEMA_VERSION_HEADER,
+                        String.valueOf(ProductDetailDto.SCHEMA_VERSION)))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andReturn();
+
+        // Then: el mismo DTO se decodifica desde CBOR
+        ProductDetailDto decoded = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), ProductDetailDto.class);
+        org.junit.jupiter.api.Assertions.assertEquals(sampleProductDetail, decoded);
+        verify(span).end();
+    }
+
+    @Test
+    void getProductDetailByProductId_SchemaVersionAdvice_ShouldMergeAcceptIntoVary() throws Exception {
+        // Given: JSON desde la caché de respuestas con variantes comprimidas, a través de la advice
+        enableResponseCache(DataSize.ofBytes(0));
+        MockMvc adviceMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new BinaryFormatConfig.SchemaVersionAdvice())
+                .build();
+        String productId = "MLA123456789";
+        when(productDetailService.getProductDetailByProductId(productId)).thenReturn(sampleProductDetail);
+
+        // When & Then: Accept aparece una sola vez junto a Accept-Encoding
+        adviceMockMvc.perform(get("/detail/{productId}", productId).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+
+        // When & Then: los errores también dependen de Accept
+        when(productDetailService.getProductDetailByProductId("MLA999999999"))
+                .thenThrow(new MeliException(HttpStatus.NOT_FOUND, "MLA999999999", "001002"));
+        adviceMockMvc.perform(get("/detail/{productId}", "MLA999999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getProductDetailByProductId_Fields_ShouldSerializeOnlySelectedFields() throws Exception {
+        // Given: la selección va al servicio y la caché de respuestas no participa
+        enableResponseCache(DataSize.ofKilobytes(1));
+        String productId = "MLA123456789";
+        when(productDetailService.getProductDetailByProductId(eq(productId), any(FieldSelection.class)))
+                .thenReturn(sampleProductDetail);
+
+        // When & Then
+        mockMvc.perform(get("/detail/{productId}", productId).param("fields", "title,price,sellers.nickname"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.title").value("iPhone 13 Pro 128GB"))
+                .andExpect(jsonPath("$.price").value(599999.99))
+                .andExpect(jsonPath("$.sellers").isArray())
+                .andExpect(jsonPath("$.productId").doesNotExist())
+                .andExpect(jsonPath("$.attributes").doesNotExist());
+
+        verify(productDetailService).getProductDetailByProductId(eq(productId),
+                argThat((FieldSelection fields) -> !fields.includes("attributes") && !fields.includes("sellers.address")));
+        verify(productDetailService, never()).getProductDetailByProductId(productId);
+    }
+
+    @Test
+    void getProductDetailByProductId_InvalidFields_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/detail/{productId}", "MLA123456789").param("fields", "title,colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("001009")));
+
+        verifyNoInteractions(productDetailService);
+    }
+}
@@ -0,0 +1,70 @@
+package com.meli.product_detail.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests unitarios para ContentCoding.
+ *
+ * Valida la negociación de Accept-Encoding (valores q, comodín y preferencia
+ * del servidor) y que cada codificación disponible reduzca un JSON repetitivo.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class ContentCodingTest {
+
+    private static final List<ContentCoding> ALL = List.of(ContentCoding.ZSTD, ContentCoding.BROTLI, ContentCoding.GZIP);
+
+    @Test
+    void negotiate_EqualQuality_ShouldFollowServerPreference() {
+        assertEquals(ContentCoding.ZSTD, ContentCoding.negotiate("gzip, br, zstd", ALL));
+        assertEquals(ContentCoding.BROTLI, ContentCoding.negotiate("gzip, deflate, br", ALL));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate", ALL));
+    }
+
+    @Test
+    void negotiate_QualityValues_ShouldPickHighest() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("br;q=0.5, gzip;q=0.9", ALL));
+        assertEquals(ContentCoding.BROTLI, ContentCoding.negotiate("zstd;q=0, br", ALL));
+    }
+
+    @Test
+    void negotiate_Wildcard_ShouldCoverUnlistedCodings() {
+        assertEquals(ContentCoding.ZSTD, ContentCoding.negotiate("*", ALL));
+        assertEquals(ContentCoding.BROTLI, ContentCoding.negotiate("zstd;q=0, *;q=0.5", ALL));
+    }
+
+    @Test
+    void negotiate_NothingAcceptable_ShouldSendIdentity() {
+        assertNull(ContentCoding.negotiate(null, ALL));
+        assertNull(ContentCoding.negotiate("identity", ALL));
+        assertNull(ContentCoding.negotiate("gzip;q=0", ALL));
+        assertNull(ContentCoding.negotiate("gzip", List.of(ContentCoding.BROTLI)));
+        assertNull(ContentCoding.negotiate("gzip", List.of()));
+    }
+
+    @Test
+    void fromToken_ShouldIgnoreCaseAndRejectUnknown() {
+        assertEquals(ContentCoding.BROTLI, ContentCoding.fromToken(" BR "));
+        assertNull(ContentCoding.fromToken("compress"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ContentCoding.class)
+    void encode_AvailableCoding_ShouldShrinkRepetitiveJson(ContentCoding coding) {
+        assumeTrue(coding.isAvailable());
+        byte[] body = "{\"attributes\":[{\"name\":\"Marca\",\"valueName\":\"Apple\"}]}".repeat(50)
+                .getBytes(StandardCharsets.UTF_8);
+
+        byte[] encoded = coding.encode(body);
+
+        assertTrue(encoded.length < body.length / 4);
+    }
+}
@@ -0,0 +1,94 @@
+package com.meli.product_detail.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.SellerAddressDto;
+import com.meli.product_detail.dtos.SellerDto;
+import com.meli.product_detail.exceptions.MeliException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para FieldSelection.
+ *
+ * Valida la interpretación de {@code fields=}, las colecciones que la
+ * selección obliga a consultar y el recorte del JSON serializado.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class FieldSelectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_Empty_ShouldSelectAll() throws MeliException {
+        assertTrue(FieldSelection.parse(null).isAll());
+        assertTrue(FieldSelection.parse(" ").isAll());
+        assertTrue(FieldSelection.parse(",").isAll());
+        assertTrue(FieldSelection.all().includes("sellers.address"));
+    }
+
+    @Test
+    void includes_ShouldReflectRequestedCollections() throws MeliException {
+        FieldSelection selection = FieldSelection.parse("title, price,sellers.nickname");
+
+        assertFalse(selection.isAll());
+        assertTrue(selection.includes("title"));
+        assertTrue(selection.includes("sellers"));
+        assertFalse(selection.includes("sellers.address"));
+        assertFalse(selection.includes("attributes"));
+        assertFalse(selection.includes("shipping"));
+        assertEquals("title,price,sellers(nickname)", selection.toString());
+    }
+
+    @Test
+    void parse_WholeCollection_ShouldIncludeNestedFields() throws MeliException {
+        FieldSelection selection = FieldSelection.parse("sellers.nickname,sellers");
+
+        assertTrue(selection.includes("sellers.address"));
+        assertEquals("sellers", selection.toString());
+        assertTrue(FieldSelection.parse("sellers,sellers.nickname").includes("sellers.address"));
+    }
+
+    @Test
+    void parse_UnknownField_ShouldThrowBadRequest() {
+        MeliException unknown = assertThrows(MeliException.class, () -> FieldSelection.parse("title,colour"));
+        MeliException notNested = assertThrows(MeliException.class, () -> FieldSelection.parse("price.amount"));
+        MeliException unknownNested = assertThrows(MeliException.class, () -> FieldSelection.parse("sellers.address.street"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getHttpStatus());
+        assertEquals("001009", unknown.getErrorCode());
+        assertEquals("001009", notNested.getErrorCode());
+        assertEquals("001009", unknownNested.getErrorCode());
+    }
+
+    @Test
+    void apply_ShouldKeepOnlySelectedFields() throws MeliException {
+        ProductDetailDto product = new ProductDetailDto(1L, "MLA123456789", "iPhone 13 Pro 128GB", "new", "MLA1055",
+                null, null, new BigDecimal("599999.99"), "ARS", 10, 5, null, "active", null, null, null)
+                .withChildren(List.of(), List.of(), List.of(new SellerDto(30L, "TechStore_AR", "professional",
+                        new SellerAddressDto(40L, "Buenos Aires", "CABA", "Argentina", "C1000"))));
+
+        JsonNode result = FieldSelection.parse("title,price,sellers.nickname,sellers.address.city")
+                .apply(objectMapper.valueToTree(product));
+
+        assertEquals(List.of("title", "price", "sellers"), fieldNames(result));
+        JsonNode seller = result.get("sellers").get(0);
+        assertEquals(List.of("nickname", "address"), fieldNames(seller));
+        assertEquals("TechStore_AR", seller.get("nickname").asText());
+        assertEquals(List.of("city"), fieldNames(seller.get("address")));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,44 @@
+package com.meli.product_detail.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para WireFormat.
+ *
+ * Valida que los formatos binarios solo se elijan cuando el cliente los pide
+ * explícitamente y que JSON sea el formato por defecto.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+class WireFormatTest {
+
+    @Test
+    void negotiate_NoHeader_ShouldReturnJson() {
+        assertEquals(WireFormat.JSON, WireFormat.negotiate(null));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate(" "));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("no es un media type"));
+    }
+
+    @Test
+    void negotiate_ExplicitBinary_ShouldReturnBinaryFormat() {
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor"));
+        assertEquals(WireFormat.SMILE, WireFormat.negotiate("application/x-jackson-smile"));
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor, application/json;q=0.5"));
+    }
+
+    @Test
+    void negotiate_Wildcards_ShouldPreferJson() {
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("*/*"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/*"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/cbor, */*"));
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor, */*;q=0.1"));
+    }
+
+    @Test
+    void negotiate_QualityValues_ShouldPickHighest() {
+        assertEquals(WireFormat.SMILE, WireFormat.negotiate("application/cbor;q=0.5, application/x-jackson-smile;q=0.9"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/cbor;q=0.5, application/json"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.meli.product_detail.repositories;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración del perfil de almacenamiento prod.
+ *
+ * Levanta un servidor H2 TCP local como sustituto de la base de producción y
+ * verifica el pool, la configuración de Hibernate y que Liquibase migre sin
+ * borrar datos existentes. Solo activa prod: application-test.yml fuerza
+ * drop-first y ocultaría lo que se quiere verificar.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@DataJpaTest
+@ActiveProfiles("prod")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductDetailStorageProfileTest {
+
+    private static Server server;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SpringLiquibase liquibase;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        server = Server.createTcpServer("-tcpPort", String.valueOf(freePort()), "-ifNotExists").start();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:storage;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Valor según application.yml con el perfil activo, sin las propiedades que agrega el test
+    private String configuredProperty(String name) {
+        for (PropertySource<?> source : ((ConfigurableEnvironment) environment).getPropertySources()) {
+            if (source.getName().startsWith("Config resource") && source.containsProperty(name)) {
+                return String.valueOf(source.getProperty(name));
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void pool_ShouldUseFixedSizeWithoutAutoCommit() {
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+
+        assertEquals("product-detail-pool", hikari.getPoolName());
+        assertEquals(25, hikari.getMaximumPoolSize());
+        assertEquals(hikari.getMaximumPoolSize(), hikari.getMinimumIdle());
+        assertFalse(hikari.isAutoCommit());
+        assertTrue(hikari.getJdbcUrl().startsWith("jdbc:h2:tcp://"));
+    }
+
+    @Test
+    void hibernate_ShouldNotLogSqlAndDisableOpenInView() {
+        // @DataJpaTest fuerza show-sql=true por encima de los archivos de configuración
+        assertEquals("false", configuredProperty("spring.jpa.show-sql"));
+        assertEquals("false", environment.getProperty("spring.jpa.open-in-view"));
+        assertEquals("true", environment.getProperty("spring.jpa.properties.hibernate.connection.provider_disables_autocommit"));
+    }
+
+    @Test
+    void liquibase_WithoutDocumentMode_ShouldNotInstallJavaTriggers() {
+        // El servidor H2 no necesita las clases de product-detail salvo en modo documento
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.triggers where trigger_name like '%_DOCUMENT'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'PRODUCT_DOCUMENT_STALE'", Integer.class));
+    }
+
+    @Test
+    void liquibase_RerunShouldMigrateWithoutDroppingData() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer seeded = jdbcTemplate.queryForObject("select count(*) from product_detail", Integer.class);
+        assertNotNull(seeded);
+        assertTrue(seeded > 0);
+
+        // Given: un producto que no viene de los CSV
+        // (id explícito: la carga de los CSV fija los ids sin avanzar la identidad de la columna)
+        transaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "insert into product_detail (id, product_id, title) "
+                        + "select max(id) + 1, 'MLA-STORAGE-TEST', 'Persistente' from product_detail"));
+
+        // When: un reinicio vuelve a ejecutar Liquibase
+        liquibase.afterPropertiesSet();
+
+        // Then: los changesets ya aplicados no se repiten y el dato sigue ahí
+        assertFalse(liquibase.isDropFirst());
+        assertEquals(seeded + 1, jdbcTemplate.queryForObject("select count(*) from product_detail", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from product_detail where product_id = 'MLA-STORAGE-TEST'", Integer.class));
+    }
+}
@@ -0,0 +1,258 @@
+package com.meli.product_detail.services;
+
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ProductDetailCacheServiceImpl.
+ *
+ * Valida aciertos de caché, caché negativa de productos inexistentes,
+ * que los errores internos no se cacheen, la carga única por llave
+ * y la publicación de métricas.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductDetailCacheServiceImplTest {
+
+    @Mock
+    private ProductDetailService delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductDetailCacheServiceImpl cacheService;
+    private ProductDetailDto sampleProductDetail;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new ProductDetailCacheServiceImpl(delegate, meterRegistry, true, 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30), 50);
+
+        sampleProductDetail = new ProductDetailDto(1L, "MLA123456789", "iPhone 13 Pro 128GB", "new", null,
+                null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void getProductDetailByProductId_SecondCall_ShouldBeServedFromCache() throws MeliException {
+        // Given
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+
+        // When
+        ProductDetailDto first = cacheService.getProductDetailByProductId("MLA123456789");
+        ProductDetailDto second = cacheService.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        assertSame(first, second);
+        assertEquals("iPhone 13 Pro 128GB", second.title());
+        verify(delegate, times(1)).getProductDetailByProductId("MLA123456789");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void getProductDetailByProductId_Fields_ShouldUseCachedEntryOrLoadPartialWithoutCaching() throws MeliException {
+        // Given
+        FieldSelection fields = FieldSelection.parse("title,price");
+        when(delegate.getProductDetailByProductId("MLA123456789", fields)).thenReturn(sampleProductDetail);
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+
+        // When: sin entrada completa, carga parcial que no se guarda
+        cacheService.getProductDetailByProductId("MLA123456789", fields);
+        cacheService.getProductDetailByProductId("MLA123456789", fields);
+        // Con la entrada completa en caché, la selección ya no va a la base de datos
+        cacheService.getProductDetailByProductId("MLA123456789");
+        ProductDetailDto result = cacheService.getProductDetailByProductId("MLA123456789", fields);
+
+        // Then
+        assertSame(sampleProductDetail, result);
+        verify(delegate, times(2)).getProductDetailByProductId("MLA123456789", fields);
+        verify(delegate, times(1)).getProductDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void getProductDetailByProductId_NotFound_ShouldCacheNegativeResult() throws MeliException {
+        // Given
+        String productId = "MLA999999999";
+        when(delegate.getProductDetailByProductId(productId))
+                .thenThrow(new MeliException(HttpStatus.NOT_FOUND, productId, "001002"));
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            MeliException exception = assertThrows(MeliException.class,
+                    () -> cacheService.getProductDetailByProductId(productId));
+            assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+            assertEquals("001002", exception.getErrorCode());
+            assertEquals(productId, exception.getRelatedObject());
+        }
+        verify(delegate, times(1)).getProductDetailByProductId(productId);
+    }
+
+    @Test
+    void getProductDetailByProductId_InternalError_ShouldNotBeCached() throws MeliException {
+        // Given
+        String productId = "MLA123456789";
+        when(delegate.getProductDetailByProductId(productId))
+                .thenThrow(new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001003"))
+                .thenReturn(sampleProductDetail);
+
+        // When
+        MeliException exception = assertThrows(MeliException.class,
+                () -> cacheService.getProductDetailByProductId(productId));
+        ProductDetailDto result = cacheService.getProductDetailByProductId(productId);
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getHttpStatus());
+        assertEquals("001003", exception.getErrorCode());
+        assertSame(sampleProductDetail, result);
+        verify(delegate, times(2)).getProductDetailByProductId(productId);
+    }
+
+    @Test
+    void getProductDetailByProductId_ConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return sampleProductDetail;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<ProductDetailDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> cacheService.getProductDetailByProductId("MLA123456789")));
+        }
+        Thread.sleep(200);
+        loading.countDown();
+
+        // Then
+        for (Future<ProductDetailDto> future : futures) {
+            assertSame(sampleProductDetail, future.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        verify(delegate, times(1)).getProductDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void getProductDetailByProductId_Disabled_ShouldAlwaysDelegate() throws MeliException {
+        // Given
+        cacheService = new ProductDetailCacheServiceImpl(delegate, meterRegistry, false, 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30), 50);
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+
+        // When
+        cacheService.getProductDetailByProductId("MLA123456789");
+        cacheService.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        verify(delegate, times(2)).getProductDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void evict_ShouldForceReload() throws MeliException {
+        // Given
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+        cacheService.getProductDetailByProductId("MLA123456789");
+
+        // When
+        cacheService.evict("MLA123456789");
+        cacheService.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        verify(delegate, times(2)).getProductDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void getAllProductDetails_ShouldDelegate() throws MeliException {
+        // Given
+        when(delegate.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(List.of(sampleProductDetail), null));
+
+        // When
+        ProductDetailPageDto result = cacheService.getAllProductDetails(null, 50);
+
+        // Then
+        assertEquals(1, result.items().size());
+        verify(delegate, times(1)).getAllProductDetails(null, 50);
+    }
+
+    @Test
+    void getProductDetailsByProductIds_ShouldServeHitsAndLoadMissesInOneCall() throws MeliException {
+        // Given - Un producto ya cacheado
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+        cacheService.getProductDetailByProductId("MLA123456789");
+        ProductDetailDto other = new ProductDetailDto(2L, "MLA987654321", "Samsung Galaxy S21", "new", null,
+                null, null, null, null, null, null, null, null, null, null, null);
+        when(delegate.getProductDetailsByProductIds(anyList()))
+                .thenReturn(new ProductDetailBatchDto(List.of(other), List.of("MLA000000000")));
+
+        // When
+        ProductDetailBatchDto result = cacheService.getProductDetailsByProductIds(
+                List.of("MLA987654321", "MLA123456789", "MLA000000000"));
+
+        // Then
+        assertEquals(List.of(other, sampleProductDetail), result.items());
+        assertEquals(List.of("MLA000000000"), result.notFound());
+        verify(delegate, times(1)).getProductDetailsByProductIds(anyList());
+
+        // Una segunda consulta sale completa de la caché (incluido el negativo)
+        cacheService.getProductDetailsByProductIds(List.of("MLA987654321", "MLA000000000"));
+        verify(delegate, times(1)).getProductDetailsByProductIds(anyList());
+        assertThrows(MeliException.class, () -> cacheService.getProductDetailByProductId("MLA000000000"));
+        verify(delegate, never()).getProductDetailByProductId("MLA000000000");
+    }
+
+    @Test
+    void getProductDetailsByProductIds_TooManyIds_ShouldDelegateRejection() throws MeliException {
+        // Given
+        cacheService = new ProductDetailCacheServiceImpl(delegate, meterRegistry, true, 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30), 1);
+        List<String> requested = List.of("MLA1", "MLA2");
+        when(delegate.getProductDetailsByProductIds(requested))
+                .thenThrow(new MeliException(HttpStatus.BAD_REQUEST, "productIds", "001005"));
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class,
+                () -> cacheService.getProductDetailsByProductIds(requested));
+        assertEquals("001005", exception.getErrorCode());
+    }
+
+    @Test
+    void getProductDetailsByProductIds_InternalError_ShouldNotBeCached() throws MeliException {
+        // Given
+        when(delegate.getProductDetailsByProductIds(anyList()))
+                .thenThrow(new MeliException(HttpStatus.INTERNAL_SERVER_ERROR, null, "001006"))
+                .thenReturn(new ProductDetailBatchDto(List.of(sampleProductDetail), List.of()));
+
+        // When
+        MeliException exception = assertThrows(MeliException.class,
+                () -> cacheService.getProductDetailsByProductIds(List.of("MLA123456789")));
+        ProductDetailBatchDto result = cacheService.getProductDetailsByProductIds(List.of("MLA123456789"));
+
+        // Then
+        assertEquals("001006", exception.getErrorCode());
+        assertEquals(List.of(sampleProductDetail), result.items());
+    }
+}
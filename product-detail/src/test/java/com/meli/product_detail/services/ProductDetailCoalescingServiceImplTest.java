@@ -0,0 +1,208 @@
+package com.meli.product_detail.services;
+
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.exceptions.MeliException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ProductDetailCoalescingServiceImpl.
+ *
+ * Valida que las consultas concurrentes del mismo producto compartan una
+ * sola carga, la propagación de errores y del timeout a los seguidores
+ * y las métricas de agrupamiento.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductDetailCoalescingServiceImplTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private ProductDetailService delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductDetailCoalescingServiceImpl coalescingService;
+    private ProductDetailDto sampleProductDetail;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescingService = new ProductDetailCoalescingServiceImpl(delegate, meterRegistry, true, Duration.ofSeconds(5));
+        executor = Executors.newFixedThreadPool(CALLERS);
+
+        sampleProductDetail = new ProductDetailDto(1L, "MLA123456789", "iPhone 13 Pro 128GB", "new", null,
+                null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getProductDetailByProductId_ConcurrentCalls_ShouldShareOneLoad() throws Exception {
+        // Given
+        CountDownLatch loading = blockDelegate("MLA123456789");
+
+        // When
+        List<Future<ProductDetailDto>> futures = submitCallers("MLA123456789");
+        awaitFollowers(CALLERS - 1);
+        loading.countDown();
+
+        // Then
+        for (Future<ProductDetailDto> future : futures) {
+            assertSame(sampleProductDetail, future.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).getProductDetailByProductId("MLA123456789");
+        assertEquals(1.0, requests("leader"));
+        assertEquals(CALLERS - 1.0, requests("follower"));
+        assertEquals(0.0, meterRegistry.get("product_detail.coalescing.inflight").gauge().value());
+    }
+
+    @Test
+    void getProductDetailByProductId_LoadFails_ShouldPropagateToAllCallers() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        when(delegate.getProductDetailByProductId("MLA999999999")).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            throw new MeliException(HttpStatus.NOT_FOUND, "MLA999999999", "001002");
+        });
+
+        // When
+        List<Future<ProductDetailDto>> futures = submitCallers("MLA999999999");
+        awaitFollowers(CALLERS - 1);
+        loading.countDown();
+
+        // Then
+        for (Future<ProductDetailDto> future : futures) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            MeliException cause = assertInstanceOf(MeliException.class, exception.getCause());
+            assertEquals(HttpStatus.NOT_FOUND, cause.getHttpStatus());
+            assertEquals("001002", cause.getErrorCode());
+        }
+        verify(delegate, times(1)).getProductDetailByProductId("MLA999999999");
+    }
+
+    @Test
+    void getProductDetailByProductId_FollowerTimeout_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        coalescingService = new ProductDetailCoalescingServiceImpl(delegate, meterRegistry, true, Duration.ofMillis(50));
+        CountDownLatch loading = blockDelegate("MLA123456789");
+        Future<ProductDetailDto> leader = executor.submit(() -> coalescingService.getProductDetailByProductId("MLA123456789"));
+        awaitInFlight();
+
+        // When
+        MeliException exception = assertThrows(MeliException.class,
+                () -> coalescingService.getProductDetailByProductId("MLA123456789"));
+        loading.countDown();
+
+        // Then - El líder termina su carga sin afectarse
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+        assertEquals("001007", exception.getErrorCode());
+        assertEquals("MLA123456789", exception.getRelatedObject());
+        assertSame(sampleProductDetail, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("product_detail.coalescing.timeouts").counter().count());
+    }
+
+    @Test
+    void getProductDetailByProductId_SequentialCalls_ShouldNotReuseResult() throws MeliException {
+        // Given
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+
+        // When
+        coalescingService.getProductDetailByProductId("MLA123456789");
+        coalescingService.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        verify(delegate, times(2)).getProductDetailByProductId("MLA123456789");
+        assertEquals(2.0, requests("leader"));
+        assertEquals(0.0, requests("follower"));
+    }
+
+    @Test
+    void getProductDetailByProductId_Disabled_ShouldAlwaysDelegate() throws MeliException {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        coalescingService = new ProductDetailCoalescingServiceImpl(delegate, meterRegistry, false, Duration.ofSeconds(5));
+        when(delegate.getProductDetailByProductId("MLA123456789")).thenReturn(sampleProductDetail);
+
+        // When
+        ProductDetailDto result = coalescingService.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        assertSame(sampleProductDetail, result);
+        assertEquals(0.0, requests("leader"));
+    }
+
+    @Test
+    void getAllProductDetails_ShouldDelegate() throws MeliException {
+        // Given
+        when(delegate.getAllProductDetails(null, 50)).thenReturn(new ProductDetailPageDto(List.of(sampleProductDetail), null));
+
+        // When
+        ProductDetailPageDto result = coalescingService.getAllProductDetails(null, 50);
+
+        // Then
+        assertEquals(1, result.items().size());
+        verify(delegate, times(1)).getAllProductDetails(null, 50);
+    }
+
+    private CountDownLatch blockDelegate(String productId) throws MeliException {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(delegate.getProductDetailByProductId(productId)).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return sampleProductDetail;
+        });
+        return loading;
+    }
+
+    private List<Future<ProductDetailDto>> submitCallers(String productId) {
+        List<Future<ProductDetailDto>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> coalescingService.getProductDetailByProductId(productId)));
+        }
+        return futures;
+    }
+
+    private void awaitFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests("follower") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("product_detail.coalescing.inflight").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double requests(String role) {
+        return meterRegistry.get("product_detail.coalescing.requests").tag("role", role).counter().count();
+    }
+}
@@ -0,0 +1,223 @@
+package com.meli.product_detail.services;
+
+import com.meli.product_detail.dtos.AttributeDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.SellerAddressDto;
+import com.meli.product_detail.dtos.SellerDto;
+import com.meli.product_detail.dtos.ShippingDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.repositories.ProductDetailReactiveRepositories;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ProductDetailReactiveServiceImpl.
+ *
+ * Valida el armado del agregado, la paginación, el stream con backpressure
+ * y el mapeo de errores a los mismos códigos que la variante MVC.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductDetailReactiveServiceImplTest {
+
+    @Mock
+    private ProductDetailReactiveRepositories repositories;
+
+    @Mock
+    private Tracer tracer;
+
+    @Mock
+    private Span span;
+
+    @Mock
+    private TraceContext traceContext;
+
+    private ProductDetailReactiveServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(tracer.nextSpan()).thenReturn(span);
+        when(span.name(anyString())).thenReturn(span);
+        when(span.start()).thenReturn(span);
+        when(span.context()).thenReturn(traceContext);
+        when(traceContext.traceId()).thenReturn("test-trace-id-123456789");
+
+        // Colecciones vacías salvo que el test indique lo contrario
+        when(repositories.findAttributes(anyCollection())).thenReturn(Flux.empty());
+        when(repositories.findShipping(anyCollection())).thenReturn(Flux.empty());
+        when(repositories.findSellers(anyCollection())).thenReturn(Flux.empty());
+
+        service = new ProductDetailReactiveServiceImpl(repositories, tracer);
+    }
+
+    private static ProductDetailDto product(long id) {
+        return new ProductDetailDto(id, "MLA" + id, "Producto " + id, "new", "MLA1055", null, null,
+                new BigDecimal("1000.00"), "ARS", 1, 0, null, "active", null, null, List.of());
+    }
+
+    @Test
+    void getProductDetailByProductId_Success_ShouldAssembleAggregate() {
+        // Given
+        when(repositories.findDetailByProductId("MLA1")).thenReturn(Mono.just(product(1L)));
+        when(repositories.findAttributes(List.of(1L)))
+                .thenReturn(Flux.just(Map.entry(1L, new AttributeDto(10L, "Marca", "Apple"))));
+        when(repositories.findShipping(List.of(1L)))
+                .thenReturn(Flux.just(Map.entry(1L, new ShippingDto(20L, true, "fulfillment", "me2"))));
+        when(repositories.findSellers(List.of(1L)))
+                .thenReturn(Flux.just(Map.entry(1L, new SellerDto(30L, "VENDEDOR", "professional",
+                        new SellerAddressDto(40L, "CABA", "Buenos Aires", "AR", "1000")))));
+
+        // When & Then
+        StepVerifier.create(service.getProductDetailByProductId("MLA1"))
+                .assertNext(detail -> {
+                    assertEquals("MLA1", detail.productId());
+                    assertEquals("Apple", detail.attributes().get(0).valueName());
+                    assertTrue(detail.shipping().get(0).freeShipping());
+                    assertEquals("CABA", detail.sellers().get(0).address().city());
+                })
+                .verifyComplete();
+        verify(span, times(1)).name("ProductDetailReactiveServiceImpl.getProductDetailByProductId");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDetailByProductId_NotFound_ShouldEmitMeliException() {
+        // Given
+        when(repositories.findDetailByProductId("MLA999")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(service.getProductDetailByProductId("MLA999"))
+                .expectErrorSatisfies(ex -> {
+                    MeliException meliException = assertInstanceOf(MeliException.class, ex);
+                    assertEquals(HttpStatus.NOT_FOUND, meliException.getHttpStatus());
+                    assertEquals("001002", meliException.getErrorCode());
+                    assertEquals("MLA999", meliException.getRelatedObject());
+                })
+                .verify();
+        verify(repositories, never()).findAttributes(anyCollection());
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDetailByProductId_RepositoryError_ShouldEmitInternalError() {
+        // Given
+        when(repositories.findDetailByProductId("MLA1")).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        // When & Then
+        StepVerifier.create(service.getProductDetailByProductId("MLA1"))
+                .expectErrorSatisfies(ex -> {
+                    MeliException meliException = assertInstanceOf(MeliException.class, ex);
+                    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, meliException.getHttpStatus());
+                    assertEquals("001003", meliException.getErrorCode());
+                })
+                .verify();
+        verify(span, times(1)).tag("error", "true");
+    }
+
+    @Test
+    void getAllProductDetails_MorePages_ShouldReturnCursor() {
+        // Given: se piden limit + 1 para saber si hay más
+        when(repositories.findDetailsAfter(0L, 3)).thenReturn(Flux.just(product(1L), product(2L), product(3L)));
+
+        // When & Then
+        StepVerifier.create(service.getAllProductDetails(null, 2))
+                .assertNext(page -> {
+                    assertEquals(2, page.items().size());
+                    assertEquals(2L, page.nextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllProductDetails_LastPage_ShouldReturnNullCursor() {
+        // Given
+        when(repositories.findDetailsAfter(5L, 51)).thenReturn(Flux.just(product(6L)));
+
+        // When & Then
+        StepVerifier.create(service.getAllProductDetails(5L, 50))
+                .assertNext(page -> {
+                    assertEquals(1, page.items().size());
+                    assertNull(page.nextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllProductDetails_RepositoryError_ShouldEmitInternalError() {
+        // Given
+        when(repositories.findDetailsAfter(0L, 51)).thenReturn(Flux.error(new RuntimeException("db down")));
+
+        // When & Then
+        StepVerifier.create(service.getAllProductDetails(null, 50))
+                .expectErrorSatisfies(ex -> assertEquals("001001", ((MeliException) ex).getErrorCode()))
+                .verify();
+    }
+
+    @Test
+    void streamAllProductDetails_ShouldRespectDemandAndLoadChildrenPerChunk() {
+        // Given: 250 productos en el cursor
+        when(repositories.streamAllDetails())
+                .thenReturn(Flux.fromStream(LongStream.rangeClosed(1, 250).mapToObj(ProductDetailReactiveServiceImplTest::product)));
+
+        // When & Then: el cliente pide de a pocos y cancela antes del final
+        StepVerifier.create(service.streamAllProductDetails(), 10)
+                .expectNextCount(10)
+                .thenRequest(150)
+                .expectNextCount(150)
+                .thenCancel()
+                .verify();
+
+        // Solo se completaron los lotes que el cliente alcanzó a pedir
+        verify(repositories, atMost(2)).findAttributes(anyCollection());
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void streamAllProductDetails_Complete_ShouldEmitEveryProduct() {
+        // Given
+        when(repositories.streamAllDetails())
+                .thenReturn(Flux.fromStream(LongStream.rangeClosed(1, 250).mapToObj(ProductDetailReactiveServiceImplTest::product)));
+
+        // When & Then
+        StepVerifier.create(service.streamAllProductDetails())
+                .expectNextCount(250)
+                .verifyComplete();
+        verify(repositories, times(3)).findAttributes(anyCollection());
+    }
+
+    @Test
+    void streamAllProductDetails_RepositoryError_ShouldEmitStreamError() {
+        // Given
+        when(repositories.streamAllDetails()).thenReturn(Flux.error(new RuntimeException("cursor closed")));
+
+        // When & Then
+        StepVerifier.create(service.streamAllProductDetails())
+                .expectErrorSatisfies(ex -> assertEquals("001004", ((MeliException) ex).getErrorCode()))
+                .verify();
+        verify(span, times(1)).end();
+    }
+}
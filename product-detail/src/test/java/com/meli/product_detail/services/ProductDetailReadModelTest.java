@@ -0,0 +1,200 @@
+package com.meli.product_detail.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
+import com.meli.product_detail.entities.ProductDetail;
+import com.meli.product_detail.helpers.FieldSelection;
+import com.meli.product_detail.repositories.ProductDetailRepositories;
+import io.micrometer.tracing.Tracer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración del modelo de lectura de ProductDetailServiceImpl.
+ *
+ * Compara el JSON de las proyecciones con el de las entidades usando los
+ * datos de Liquibase y cuenta las sentencias SQL de cada lectura, también
+ * con selección de campos.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductDetailServiceImpl.class, ProductDetailReadModelTest.TracingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductDetailReadModelTest {
+
+    @TestConfiguration
+    static class TracingConfig {
+        @Bean
+        Tracer tracer() {
+            return Tracer.NOOP;
+        }
+
+        // @DataJpaTest no configura Jackson; el servicio lo usa en modo documento
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private ProductDetailServiceImpl service;
+
+    @Autowired
+    private ProductDetailRepositories repositories;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllProductDetails_ShouldKeepEntityJsonContract() throws Exception {
+        // Given - JSON serializado desde las entidades
+        JsonNode expected = new TransactionTemplate(transactionManager).execute(status -> {
+            List<ProductDetail> entities = repositories.findAll();
+            entities.sort(Comparator.comparing(ProductDetail::getId));
+            return objectMapper.valueToTree(entities);
+        });
+
+        // When
+        JsonNode actual = objectMapper.valueToTree(service.getAllProductDetails(null, 100).items());
+
+        // Then
+        assertTrue(expected.size() > 1);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void getProductDetailByProductId_ShouldUseFourStatementsWithoutManagedEntities() throws Exception {
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId("MLA123456789");
+
+        // Then
+        assertFalse(result.attributes().isEmpty());
+        assertNotNull(result.sellers().get(0).address());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getProductDetailByProductId_ScalarFields_ShouldUseOneStatement() throws Exception {
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId("MLA123456789", FieldSelection.parse("title,price"));
+
+        // Then - solo la proyección del producto
+        assertNotNull(result.title());
+        assertTrue(result.sellers().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProductDetailByProductId_SellerNickname_ShouldSkipOtherCollections() throws Exception {
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId("MLA123456789",
+                FieldSelection.parse("title,sellers.nickname"));
+
+        // Then - producto y vendedores, sin atributos, envío ni direcciones
+        assertFalse(result.sellers().isEmpty());
+        assertNull(result.sellers().get(0).address());
+        assertTrue(result.attributes().isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllProductDetails_ShouldNotDependOnProductCount() throws Exception {
+        // When
+        List<ProductDetailDto> result = service.getAllProductDetails(null, 100).items();
+
+        // Then
+        assertTrue(result.size() > 1);
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getAllProductDetails_KeysetPages_ShouldWalkWholeCatalogOnce() throws Exception {
+        // Given
+        List<ProductDetailDto> expected = service.getAllProductDetails(null, 100).items();
+        List<ProductDetailDto> walked = new ArrayList<>();
+
+        // When - Páginas de 4 siguiendo el cursor
+        Long cursor = null;
+        do {
+            ProductDetailPageDto page = service.getAllProductDetails(cursor, 4);
+            assertTrue(page.items().size() <= 4);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void streamAllProductDetails_ShouldEmitWholeCatalogWithFixedStatements() throws Exception {
+        // Given
+        List<ProductDetailDto> expected = service.getAllProductDetails(null, 100).items();
+        statistics.clear();
+        List<ProductDetailDto> emitted = new ArrayList<>();
+
+        // When
+        service.streamAllProductDetails(emitted::add);
+
+        // Then - cursor del catálogo + un lote de atributos, envío y vendedores
+        assertEquals(expected, emitted);
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getProductDetailsByProductIds_ShouldUseFourStatements() throws Exception {
+        // When
+        ProductDetailBatchDto result = service.getProductDetailsByProductIds(
+                List.of("MLA987654321", "MLA000000000", "MLA123456789"));
+
+        // Then
+        assertEquals(2, result.items().size());
+        assertEquals("MLA987654321", result.items().get(0).productId());
+        assertEquals(service.getProductDetailByProductId("MLA123456789"), result.items().get(1));
+        assertEquals(List.of("MLA000000000"), result.notFound());
+        // 4 del lote + 4 de la consulta individual usada como referencia
+        assertEquals(8, statistics.getPrepareStatementCount());
+    }
+}
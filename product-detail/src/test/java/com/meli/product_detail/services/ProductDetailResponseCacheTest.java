@@ -0,0 +1,199 @@
+package com.meli.product_detail.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.ContentCoding;
+import com.meli.product_detail.services.ProductDetailResponseCache.CachedResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ProductDetailResponseCache.
+ *
+ * Valida que los bytes se serialicen una sola vez por producto, el ETag
+ * derivado del contenido, la comparación de If-None-Match, las variantes
+ * precomprimidas con sus umbrales y que los productos inexistentes no se guarden.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductDetailResponseCacheTest {
+
+    @Mock
+    private ProductDetailService productDetailService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ProductDetailResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = cache(DataSize.ofKilobytes(1), false);
+    }
+
+    private ProductDetailResponseCache cache(DataSize minSize, boolean documentsEnabled) {
+        return cache(List.of("gzip"), minSize, List.of("application/json"), documentsEnabled);
+    }
+
+    private ProductDetailResponseCache cache(List<String> encodings, DataSize minSize, List<String> mimeTypes,
+                                             boolean documentsEnabled) {
+        return new ProductDetailResponseCache(productDetailService, objectMapper, meterRegistry, true,
+                DataSize.ofMegabytes(1), Duration.ofMinutes(1), encodings, minSize, mimeTypes, documentsEnabled);
+    }
+
+    private static ProductDetailDto product(String title) {
+        return new ProductDetailDto(1L, "MLA123456789", title, "new", null,
+                null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void get_SecondCall_ShouldReuseSerializedBytes() throws Exception {
+        // Given
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone 13"));
+
+        // When
+        CachedResponse first = responseCache.get("MLA123456789");
+        CachedResponse second = responseCache.get("MLA123456789");
+
+        // Then
+        assertSame(first, second);
+        assertEquals("iPhone 13", objectMapper.readTree(first.body()).get("title").asText());
+        assertTrue(first.etag().matches("\"[A-Za-z0-9_-]{22}\""));
+        verify(productDetailService, times(1)).getProductDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void get_ContentChange_ShouldChangeEtag() throws Exception {
+        // Given
+        when(productDetailService.getProductDetailByProductId("MLA123456789"))
+                .thenReturn(product("iPhone 13"), product("iPhone 13"), product("iPhone 14"));
+
+        // When
+        String first = responseCache.get("MLA123456789").etag();
+        responseCache.evict("MLA123456789");
+        String same = responseCache.get("MLA123456789").etag();
+        responseCache.evict("MLA123456789");
+        String changed = responseCache.get("MLA123456789").etag();
+
+        // Then: mismo contenido, mismo ETag
+        assertEquals(first, same);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void notModified_ShouldMatchEtagListsWeakPrefixAndVariants() throws Exception {
+        // Given
+        responseCache = cache(DataSize.ofBytes(0), false);
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone ".repeat(200)));
+        CachedResponse response = responseCache.get("MLA123456789");
+
+        // When & Then
+        assertTrue(responseCache.notModified(response, response.etag()));
+        assertTrue(responseCache.notModified(response, "\"otro\", W/" + response.etag()));
+        assertTrue(responseCache.notModified(response, response.etag(ContentCoding.GZIP)));
+        assertTrue(responseCache.notModified(response, "*"));
+        assertFalse(responseCache.notModified(response, "\"otro\""));
+        assertFalse(responseCache.notModified(response, null));
+        assertEquals(4.0, meterRegistry.get("product_detail.response_cache.not_modified").counter().count());
+    }
+
+    @Test
+    void get_LargeBody_ShouldKeepGzipVariant() throws Exception {
+        // Given: sin mínimo, cualquier cuerpo que se reduzca se comprime
+        responseCache = cache(DataSize.ofBytes(0), false);
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone ".repeat(200)));
+
+        // When
+        CachedResponse response = responseCache.get("MLA123456789");
+
+        // Then
+        byte[] gzip = response.body(ContentCoding.GZIP);
+        assertEquals(List.of(ContentCoding.GZIP), response.codings());
+        assertTrue(gzip.length < response.body().length);
+        assertArrayEquals(response.body(), gunzip(gzip));
+        assertEquals(response.etag().replace("\"", "").concat("-gzip"), response.etag(ContentCoding.GZIP).replace("\"", ""));
+        assertEquals(1L, meterRegistry.get("product_detail.response_cache.compression").tag("encoding", "gzip").timer().count());
+    }
+
+    @Test
+    void get_ConfiguredEncodings_ShouldKeepAvailableVariantsInServerOrder() throws Exception {
+        // Given: br y zstd solo si la librería nativa cargó en esta plataforma
+        responseCache = cache(List.of("zstd", "br", "gzip", "compress"), DataSize.ofBytes(0),
+                List.of("application/json"), false);
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone ".repeat(200)));
+        List<ContentCoding> expected = Stream.of(ContentCoding.ZSTD, ContentCoding.BROTLI, ContentCoding.GZIP)
+                .filter(ContentCoding::isAvailable).toList();
+
+        // When & Then
+        assertEquals(expected, responseCache.get("MLA123456789").codings());
+    }
+
+    @Test
+    void get_JsonNotInMimeTypes_ShouldNotCompress() throws Exception {
+        // Given
+        responseCache = cache(List.of("gzip"), DataSize.ofBytes(0), List.of("text/html", "application/x-ndjson"), false);
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone ".repeat(200)));
+
+        // When & Then
+        assertTrue(responseCache.get("MLA123456789").variants().isEmpty());
+    }
+
+    @Test
+    void get_SmallBody_ShouldNotCompress() throws Exception {
+        // Given
+        when(productDetailService.getProductDetailByProductId("MLA123456789")).thenReturn(product("iPhone 13"));
+
+        // When & Then
+        assertTrue(responseCache.get("MLA123456789").variants().isEmpty());
+    }
+
+    @Test
+    void get_DocumentsEnabled_ShouldUseStoredDocument() throws Exception {
+        // Given
+        responseCache = cache(DataSize.ofKilobytes(1), true);
+        byte[] document = "{\"productId\":\"MLA123456789\"}".getBytes();
+        when(productDetailService.getProductDocumentByProductId("MLA123456789")).thenReturn(document);
+
+        // When & Then
+        assertArrayEquals(document, responseCache.get("MLA123456789").body());
+        verify(productDetailService, never()).getProductDetailByProductId(anyString());
+    }
+
+    @Test
+    void get_NotFound_ShouldPropagateAndNotCache() throws Exception {
+        // Given
+        when(productDetailService.getProductDetailByProductId("MLA999999999"))
+                .thenThrow(new MeliException(HttpStatus.NOT_FOUND, "MLA999999999", "001002"));
+
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            MeliException exception = assertThrows(MeliException.class, () -> responseCache.get("MLA999999999"));
+            assertEquals("001002", exception.getErrorCode());
+        }
+        verify(productDetailService, times(2)).getProductDetailByProductId("MLA999999999");
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
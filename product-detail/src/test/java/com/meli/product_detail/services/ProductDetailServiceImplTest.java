@@ -1,8 +1,13 @@
 package com.meli.product_detail.services;
 
-import com.meli.product_detail.entities.ProductDetail;
+import com.meli.product_detail.dtos.ProductDetailBatchDto;
+import com.meli.product_detail.dtos.ProductDetailDto;
+import com.meli.product_detail.dtos.ProductDetailPageDto;
 import com.meli.product_detail.exceptions.MeliException;
+import com.meli.product_detail.helpers.FieldSelection;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.meli.product_detail.repositories.ProductDetailRepositories;
+import com.meli.product_detail.repositories.ProductDocumentRepositories;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.TraceContext;
 import io.micrometer.tracing.Tracer;
@@ -11,17 +16,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -40,6 +53,12 @@ class ProductDetailServiceImplTest {
     @Mock
     private ProductDetailRepositories repositories;
 
+    @Mock
+    private ProductDocumentRepositories documentRepositories;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
     private Tracer tracer;
 
@@ -52,8 +71,8 @@ class ProductDetailServiceImplTest {
     @InjectMocks
     private ProductDetailServiceImpl service;
 
-    private ProductDetail sampleProductDetail;
-    private List<ProductDetail> sampleProductList;
+    private ProductDetailDto sampleProductDetail;
+    private List<ProductDetailDto> sampleProductList;
 
     @BeforeEach
     void setUp() {
@@ -64,33 +83,20 @@ class ProductDetailServiceImplTest {
         when(span.context()).thenReturn(traceContext);
         when(traceContext.traceId()).thenReturn("test-trace-id-123456789");
         
+        // Máximo de IDs por lote (inyectado con @Value en ejecución)
+        ReflectionTestUtils.setField(service, "maxBatchIds", 3);
+
         // Crear datos de prueba
         setupTestData();
     }
 
     private void setupTestData() {
-        sampleProductDetail = new ProductDetail();
-        sampleProductDetail.setId(1L);
-        sampleProductDetail.setProductId("MLA123456789");
-        sampleProductDetail.setTitle("iPhone 13 Pro 128GB");
-        sampleProductDetail.setCondition("new");
-        sampleProductDetail.setCategoryId("MLA1055");
-        sampleProductDetail.setPrice(new BigDecimal("599999.99"));
-        sampleProductDetail.setCurrencyId("ARS");
-        sampleProductDetail.setAvailableQuantity(10);
-        sampleProductDetail.setSoldQuantity(5);
-        sampleProductDetail.setStatus("active");
-        sampleProductDetail.setPermalink("https://articulo.mercadolibre.com.ar/MLA123456789");
-        sampleProductDetail.setThumbnail("https://http2.mlstatic.com/D_123456-MLA.jpg");
-
-        ProductDetail secondProduct = new ProductDetail();
-        secondProduct.setId(2L);
-        secondProduct.setProductId("MLA987654321");
-        secondProduct.setTitle("Samsung Galaxy S21");
-        secondProduct.setCondition("new");
-        secondProduct.setPrice(new BigDecimal("450000.00"));
-        secondProduct.setCurrencyId("ARS");
-        secondProduct.setAvailableQuantity(15);
+        sampleProductDetail = new ProductDetailDto(1L, "MLA123456789", "iPhone 13 Pro 128GB", "new", "MLA1055",
+                null, null, new BigDecimal("599999.99"), "ARS", 10, 5, null, "active",
+                "https://articulo.mercadolibre.com.ar/MLA123456789", "https://http2.mlstatic.com/D_123456-MLA.jpg", null);
+
+        ProductDetailDto secondProduct = new ProductDetailDto(2L, "MLA987654321", "Samsung Galaxy S21", "new", null,
+                null, null, new BigDecimal("450000.00"), "ARS", 15, null, null, null, null, null, null);
 
         sampleProductList = Arrays.asList(sampleProductDetail, secondProduct);
     }
@@ -98,21 +104,21 @@ class ProductDetailServiceImplTest {
     @Test
     void getAllProductDetails_Success_ShouldReturnListOfProducts() throws MeliException {
         // Given
-        when(repositories.findAll()).thenReturn(sampleProductList);
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenReturn(sampleProductList);
 
         // When
-        List<ProductDetail> result = service.getAllProductDetails();
+        List<ProductDetailDto> result = service.getAllProductDetails(null, 50).items();
 
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("MLA123456789", result.get(0).getProductId());
-        assertEquals("iPhone 13 Pro 128GB", result.get(0).getTitle());
-        assertEquals("MLA987654321", result.get(1).getProductId());
-        assertEquals("Samsung Galaxy S21", result.get(1).getTitle());
+        assertEquals("MLA123456789", result.get(0).productId());
+        assertEquals("iPhone 13 Pro 128GB", result.get(0).title());
+        assertEquals("MLA987654321", result.get(1).productId());
+        assertEquals("Samsung Galaxy S21", result.get(1).title());
 
         // Verify interactions
-        verify(repositories, times(1)).findAll();
+        verify(repositories, times(1)).findDetailsAfter(0L, Limit.of(51));
         verify(tracer, times(1)).nextSpan();
         verify(span, times(1)).name("ProductDetailServiceImpl.getAllProductDetails");
         verify(span, times(1)).start();
@@ -122,16 +128,16 @@ class ProductDetailServiceImplTest {
     @Test
     void getAllProductDetails_EmptyList_ShouldReturnEmptyList() throws MeliException {
         // Given
-        when(repositories.findAll()).thenReturn(Arrays.asList());
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenReturn(Arrays.asList());
 
         // When
-        List<ProductDetail> result = service.getAllProductDetails();
+        List<ProductDetailDto> result = service.getAllProductDetails(null, 50).items();
 
         // Then
         assertNotNull(result);
         assertEquals(0, result.size());
 
-        verify(repositories, times(1)).findAll();
+        verify(repositories, times(1)).findDetailsAfter(0L, Limit.of(51));
         verify(span, times(1)).end();
     }
 
@@ -139,18 +145,18 @@ class ProductDetailServiceImplTest {
     void getAllProductDetails_RepositoryException_ShouldThrowMeliException() {
         // Given
         RuntimeException repositoryException = new RuntimeException("Database connection error");
-        when(repositories.findAll()).thenThrow(repositoryException);
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenThrow(repositoryException);
 
         // When & Then
         MeliException exception = assertThrows(MeliException.class, () -> {
-            service.getAllProductDetails();
+            service.getAllProductDetails(null, 50);
         });
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getHttpStatus());
         assertEquals("001001", exception.getErrorCode());
         assertNull(exception.getRelatedObject());
 
-        verify(repositories, times(1)).findAll();
+        verify(repositories, times(1)).findDetailsAfter(0L, Limit.of(51));
         verify(span, times(1)).end();
     }
 
@@ -158,21 +164,21 @@ class ProductDetailServiceImplTest {
     void getProductDetailByProductId_Success_ShouldReturnProduct() throws MeliException {
         // Given
         String productId = "MLA123456789";
-        when(repositories.findByProductId(productId)).thenReturn(Optional.of(sampleProductDetail));
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.of(sampleProductDetail));
 
         // When
-        ProductDetail result = service.getProductDetailByProductId(productId);
+        ProductDetailDto result = service.getProductDetailByProductId(productId);
 
         // Then
         assertNotNull(result);
-        assertEquals(productId, result.getProductId());
-        assertEquals("iPhone 13 Pro 128GB", result.getTitle());
-        assertEquals("new", result.getCondition());
-        assertEquals(new BigDecimal("599999.99"), result.getPrice());
-        assertEquals("ARS", result.getCurrencyId());
-        assertEquals(10, result.getAvailableQuantity());
-
-        verify(repositories, times(1)).findByProductId(productId);
+        assertEquals(productId, result.productId());
+        assertEquals("iPhone 13 Pro 128GB", result.title());
+        assertEquals("new", result.condition());
+        assertEquals(new BigDecimal("599999.99"), result.price());
+        assertEquals("ARS", result.currencyId());
+        assertEquals(10, result.availableQuantity());
+
+        verify(repositories, times(1)).findDetailByProductId(productId);
         verify(tracer, times(1)).nextSpan();
         verify(span, times(1)).name("ProductDetailServiceImpl.getProductDetailByProductId");
         verify(span, times(1)).start();
@@ -183,7 +189,7 @@ class ProductDetailServiceImplTest {
     void getProductDetailByProductId_NotFound_ShouldThrowMeliException() {
         // Given
         String productId = "MLA999999999";
-        when(repositories.findByProductId(productId)).thenReturn(Optional.empty());
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.empty());
 
         // When & Then
         MeliException exception = assertThrows(MeliException.class, () -> {
@@ -196,7 +202,7 @@ class ProductDetailServiceImplTest {
         assertTrue(exception.getMessage().contains("001002"));
         assertTrue(exception.getMessage().contains("not found"));
 
-        verify(repositories, times(1)).findByProductId(productId);
+        verify(repositories, times(1)).findDetailByProductId(productId);
         verify(span, times(1)).end();
     }
 
@@ -205,7 +211,7 @@ class ProductDetailServiceImplTest {
         // Given
         String productId = "MLA123456789";
         RuntimeException repositoryException = new RuntimeException("Database timeout");
-        when(repositories.findByProductId(productId)).thenThrow(repositoryException);
+        when(repositories.findDetailByProductId(productId)).thenThrow(repositoryException);
 
         // When & Then
         MeliException exception = assertThrows(MeliException.class, () -> {
@@ -216,7 +222,7 @@ class ProductDetailServiceImplTest {
         assertEquals("001003", exception.getErrorCode());
         assertNull(exception.getRelatedObject());
 
-        verify(repositories, times(1)).findByProductId(productId);
+        verify(repositories, times(1)).findDetailByProductId(productId);
         verify(span, times(1)).end();
     }
 
@@ -224,7 +230,7 @@ class ProductDetailServiceImplTest {
     void getProductDetailByProductId_NullProductId_ShouldHandleGracefully() {
         // Given
         String productId = null;
-        when(repositories.findByProductId(productId)).thenReturn(Optional.empty());
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.empty());
 
         // When & Then
         MeliException exception = assertThrows(MeliException.class, () -> {
@@ -234,14 +240,14 @@ class ProductDetailServiceImplTest {
         assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
         assertEquals("001002", exception.getErrorCode());
 
-        verify(repositories, times(1)).findByProductId(productId);
+        verify(repositories, times(1)).findDetailByProductId(productId);
     }
 
     @Test
     void getProductDetailByProductId_EmptyProductId_ShouldHandleGracefully() {
         // Given
         String productId = "";
-        when(repositories.findByProductId(productId)).thenReturn(Optional.empty());
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.empty());
 
         // When & Then
         MeliException exception = assertThrows(MeliException.class, () -> {
@@ -251,16 +257,16 @@ class ProductDetailServiceImplTest {
         assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
         assertEquals("001002", exception.getErrorCode());
 
-        verify(repositories, times(1)).findByProductId(productId);
+        verify(repositories, times(1)).findDetailByProductId(productId);
     }
 
     @Test
     void testTracingIntegration_ShouldCreateAndManageSpansCorrectly() throws MeliException {
         // Given
-        when(repositories.findAll()).thenReturn(sampleProductList);
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenReturn(sampleProductList);
 
         // When
-        service.getAllProductDetails();
+        service.getAllProductDetails(null, 50);
 
         // Then - Verify tracing interactions
         verify(tracer, times(1)).nextSpan();
@@ -274,38 +280,95 @@ class ProductDetailServiceImplTest {
 
     @Test
     void testTransactionalAnnotation_ShouldBePresent() {
-        // Verify that the service class has @Transactional annotation
+        // Verify that the service class has a read-only @Transactional annotation
         var serviceClass = ProductDetailServiceImpl.class;
-        var transactionalAnnotation = serviceClass.getAnnotation(jakarta.transaction.Transactional.class);
+        var transactionalAnnotation = serviceClass.getAnnotation(org.springframework.transaction.annotation.Transactional.class);
         
         assertNotNull(transactionalAnnotation, "Service should have @Transactional annotation");
+        assertTrue(transactionalAnnotation.readOnly(), "Read path should use read-only transactions");
     }
 
     @Test
-    void getAllProductDetails_LargeDataset_ShouldHandleCorrectly() throws MeliException {
-        // Given - Create a large list of products
-        List<ProductDetail> largeProductList = createLargeProductList(1000);
-        when(repositories.findAll()).thenReturn(largeProductList);
+    void getAllProductDetails_LargeDataset_ShouldBoundPageAndReturnCursor() throws MeliException {
+        // Given - El límite solicitado excede el máximo y hay más productos que la página
+        List<ProductDetailDto> largeProductList = createLargeProductList(101);
+        when(repositories.findDetailsAfter(0L, Limit.of(101))).thenReturn(largeProductList);
 
         // When
-        List<ProductDetail> result = service.getAllProductDetails();
+        ProductDetailPageDto result = service.getAllProductDetails(null, 1000);
 
         // Then
         assertNotNull(result);
-        assertEquals(1000, result.size());
-        verify(repositories, times(1)).findAll();
+        assertEquals(100, result.items().size());
+        assertEquals(100L, result.nextCursor());
+        verify(repositories, times(1)).findDetailsAfter(0L, Limit.of(101));
+    }
+
+    @Test
+    void getAllProductDetails_WithCursor_ShouldQueryAfterCursor() throws MeliException {
+        // Given - Última página
+        when(repositories.findDetailsAfter(1L, Limit.of(3))).thenReturn(List.of(sampleProductList.get(1)));
+
+        // When
+        ProductDetailPageDto result = service.getAllProductDetails(1L, 2);
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertEquals("MLA987654321", result.items().get(0).productId());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void streamAllProductDetails_ShouldEmitEveryProductInChunks() throws MeliException {
+        // Given - 250 productos: tres lotes de colecciones (100, 100, 50)
+        when(repositories.streamAllDetails()).thenReturn(createLargeProductList(250).stream());
+        List<ProductDetailDto> emitted = new ArrayList<>();
+
+        // When
+        service.streamAllProductDetails(emitted::add);
+
+        // Then
+        assertEquals(250, emitted.size());
+        assertEquals("MLA000000250", emitted.get(249).productId());
+        verify(repositories, times(3)).findAttributeRows(anyCollection());
+        verify(span, times(1)).name("ProductDetailServiceImpl.streamAllProductDetails");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void streamAllProductDetails_ShouldCloseStream() throws MeliException {
+        // Given
+        boolean[] closed = {false};
+        Stream<ProductDetailDto> details = IntStream.range(0, 0).mapToObj(i -> sampleProductDetail)
+                                                    .onClose(() -> closed[0] = true);
+        when(repositories.streamAllDetails()).thenReturn(details);
+
+        // When
+        service.streamAllProductDetails(detail -> { });
+
+        // Then
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void streamAllProductDetails_ConsumerFailure_ShouldThrowMeliException() {
+        // Given - El cliente se desconecta a mitad del envío
+        when(repositories.streamAllDetails()).thenReturn(Stream.of(sampleProductDetail));
+        Consumer<ProductDetailDto> failing = detail -> { throw new IllegalStateException("Broken pipe"); };
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class, () -> service.streamAllProductDetails(failing));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getHttpStatus());
+        assertEquals("001004", exception.getErrorCode());
+        verify(span, times(1)).end();
     }
 
-    private List<ProductDetail> createLargeProductList(int size) {
-        List<ProductDetail> products = new java.util.ArrayList<>();
+    private List<ProductDetailDto> createLargeProductList(int size) {
+        List<ProductDetailDto> products = new ArrayList<>();
         for (int i = 0; i < size; i++) {
-            ProductDetail product = new ProductDetail();
-            product.setId((long) (i + 1));
-            product.setProductId("MLA" + String.format("%09d", i + 1));
-            product.setTitle("Product " + (i + 1));
-            product.setCondition("new");
-            product.setPrice(new BigDecimal("100.00").multiply(new BigDecimal(i + 1)));
-            products.add(product);
+            products.add(new ProductDetailDto((long) (i + 1), "MLA" + String.format("%09d", i + 1), "Product " + (i + 1),
+                    "new", null, null, null, new BigDecimal("100.00").multiply(new BigDecimal(i + 1)),
+                    null, null, null, null, null, null, null, null));
         }
         return products;
     }
@@ -314,21 +377,238 @@ class ProductDetailServiceImplTest {
     void getProductDetailByProductId_WithSpecialCharacters_ShouldWork() throws MeliException {
         // Given
         String productIdWithSpecialChars = "MLA123-456_789";
-        ProductDetail productWithSpecialId = new ProductDetail();
-        productWithSpecialId.setProductId(productIdWithSpecialChars);
-        productWithSpecialId.setTitle("Special Product");
+        ProductDetailDto productWithSpecialId = new ProductDetailDto(3L, productIdWithSpecialChars, "Special Product",
+                null, null, null, null, null, null, null, null, null, null, null, null, null);
         
-        when(repositories.findByProductId(productIdWithSpecialChars))
+        when(repositories.findDetailByProductId(productIdWithSpecialChars))
                 .thenReturn(Optional.of(productWithSpecialId));
 
         // When
-        ProductDetail result = service.getProductDetailByProductId(productIdWithSpecialChars);
+        ProductDetailDto result = service.getProductDetailByProductId(productIdWithSpecialChars);
 
         // Then
         assertNotNull(result);
-        assertEquals(productIdWithSpecialChars, result.getProductId());
-        assertEquals("Special Product", result.getTitle());
+        assertEquals(productIdWithSpecialChars, result.productId());
+        assertEquals("Special Product", result.title());
 
-        verify(repositories, times(1)).findByProductId(productIdWithSpecialChars);
+        verify(repositories, times(1)).findDetailByProductId(productIdWithSpecialChars);
+    }
+
+    @Test
+    void getProductDetailByProductId_WithChildren_ShouldAssembleCollections() throws MeliException {
+        // Given
+        String productId = "MLA123456789";
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.of(sampleProductDetail));
+        when(repositories.findAttributeRows(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 10L, "Color", "Azul"}, new Object[]{1L, 11L, "Marca", "Apple"}));
+        when(repositories.findShippingRows(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 20L, true, "fulfillment", "me2"}));
+        when(repositories.findSellerRows(List.of(1L)))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{1L, 30L, "TechStore_AR", "professional", 40L, "Buenos Aires", "CABA", "Argentina", "C1000"},
+                        new Object[]{1L, 31L, "OtherStore", "basic", null, null, null, null, null}));
+
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId(productId);
+
+        // Then
+        assertEquals(2, result.attributes().size());
+        assertEquals("Color", result.attributes().get(0).name());
+        assertEquals("Azul", result.attributes().get(0).valueName());
+        assertEquals(1, result.shipping().size());
+        assertTrue(result.shipping().get(0).freeShipping());
+        assertEquals("me2", result.shipping().get(0).mode());
+        assertEquals(2, result.sellers().size());
+        assertEquals("TechStore_AR", result.sellers().get(0).nickname());
+        assertEquals("C1000", result.sellers().get(0).address().zipCode());
+        assertNull(result.sellers().get(1).address());
+        assertThrows(UnsupportedOperationException.class, () -> result.attributes().clear());
+    }
+
+    @Test
+    void getProductDetailByProductId_ScalarFields_ShouldNotQueryCollections() throws MeliException {
+        // Given
+        String productId = "MLA123456789";
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.of(sampleProductDetail));
+
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId(productId, FieldSelection.parse("title,price"));
+
+        // Then: una sola consulta, la del producto
+        assertEquals("iPhone 13 Pro 128GB", result.title());
+        assertTrue(result.attributes().isEmpty());
+        verify(repositories, never()).findAttributeRows(anyCollection());
+        verify(repositories, never()).findShippingRows(anyCollection());
+        verify(repositories, never()).findSellerRows(anyCollection());
+        verify(repositories, never()).findSellerRowsWithoutAddress(anyCollection());
+    }
+
+    @Test
+    void getProductDetailByProductId_SellerFieldsWithoutAddress_ShouldSkipAddressJoin() throws MeliException {
+        // Given
+        String productId = "MLA123456789";
+        when(repositories.findDetailByProductId(productId)).thenReturn(Optional.of(sampleProductDetail));
+        when(repositories.findSellerRowsWithoutAddress(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 30L, "TechStore_AR", "professional"}));
+
+        // When
+        ProductDetailDto result = service.getProductDetailByProductId(productId, FieldSelection.parse("title,sellers.nickname"));
+
+        // Then
+        assertEquals("TechStore_AR", result.sellers().get(0).nickname());
+        assertNull(result.sellers().get(0).address());
+        verify(repositories, never()).findSellerRows(anyCollection());
+        verify(repositories, never()).findAttributeRows(anyCollection());
+        verify(repositories, never()).findShippingRows(anyCollection());
+    }
+
+    @Test
+    void getAllProductDetails_WithChildren_ShouldQueryEachCollectionOnce() throws MeliException {
+        // Given
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenReturn(sampleProductList);
+        when(repositories.findAttributeRows(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 10L, "Color", "Negro"}));
+
+        // When
+        List<ProductDetailDto> result = service.getAllProductDetails(null, 50).items();
+
+        // Then
+        assertTrue(result.get(0).attributes().isEmpty());
+        assertEquals("Negro", result.get(1).attributes().get(0).valueName());
+        assertTrue(result.get(1).sellers().isEmpty());
+        verify(repositories, times(1)).findAttributeRows(List.of(1L, 2L));
+        verify(repositories, times(1)).findShippingRows(List.of(1L, 2L));
+        verify(repositories, times(1)).findSellerRows(List.of(1L, 2L));
+    }
+
+    @Test
+    void getAllProductDetails_EmptyList_ShouldNotQueryCollections() throws MeliException {
+        // Given
+        when(repositories.findDetailsAfter(0L, Limit.of(51))).thenReturn(List.of());
+
+        // When
+        service.getAllProductDetails(null, 50);
+
+        // Then
+        verify(repositories, never()).findAttributeRows(anyCollection());
+        verify(repositories, never()).findShippingRows(anyCollection());
+        verify(repositories, never()).findSellerRows(anyCollection());
+    }
+
+    @Test
+    void getProductDetailsByProductIds_ShouldKeepOrderAndReportNotFound() throws MeliException {
+        // Given - Duplicados y vacíos se normalizan
+        List<String> requested = List.of("MLA987654321", "MLA000000000", " MLA123456789 ", "MLA987654321", "");
+        List<String> normalized = List.of("MLA987654321", "MLA000000000", "MLA123456789");
+        when(repositories.findDetailsByProductIds(normalized)).thenReturn(sampleProductList);
+
+        // When
+        ProductDetailBatchDto result = service.getProductDetailsByProductIds(requested);
+
+        // Then
+        assertEquals(2, result.items().size());
+        assertEquals("MLA987654321", result.items().get(0).productId());
+        assertEquals("MLA123456789", result.items().get(1).productId());
+        assertEquals(List.of("MLA000000000"), result.notFound());
+        verify(repositories, times(1)).findDetailsByProductIds(normalized);
+        verify(repositories, times(1)).findAttributeRows(List.of(1L, 2L));
+        verify(span, times(1)).name("ProductDetailServiceImpl.getProductDetailsByProductIds");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDetailsByProductIds_TooManyIds_ShouldThrowBadRequest() {
+        // Given
+        List<String> requested = List.of("MLA1", "MLA2", "MLA3", "MLA4");
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class,
+                () -> service.getProductDetailsByProductIds(requested));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertEquals("001005", exception.getErrorCode());
+        verify(repositories, never()).findDetailsByProductIds(anyCollection());
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDetailsByProductIds_EmptyIds_ShouldNotQuery() throws MeliException {
+        // When
+        ProductDetailBatchDto result = service.getProductDetailsByProductIds(List.of());
+
+        // Then
+        assertTrue(result.items().isEmpty());
+        assertTrue(result.notFound().isEmpty());
+        verify(repositories, never()).findDetailsByProductIds(anyCollection());
+    }
+
+    @Test
+    void getProductDetailsByProductIds_RepositoryException_ShouldThrowMeliException() {
+        // Given
+        when(repositories.findDetailsByProductIds(anyCollection())).thenThrow(new RuntimeException("Database timeout"));
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class,
+                () -> service.getProductDetailsByProductIds(List.of("MLA123456789")));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getHttpStatus());
+        assertEquals("001006", exception.getErrorCode());
+    }
+
+    @Test
+    void getProductDocumentByProductId_StoredDocument_ShouldReturnBytesWithoutBuilding() throws MeliException {
+        // Given
+        byte[] stored = "{\"productId\":\"MLA123456789\"}".getBytes();
+        when(documentRepositories.findDocumentByProductId("MLA123456789")).thenReturn(Optional.of(stored));
+
+        // When
+        byte[] result = service.getProductDocumentByProductId("MLA123456789");
+
+        // Then: una sola consulta por clave primaria, sin modelo de lectura ni Jackson
+        assertSame(stored, result);
+        verify(repositories, never()).findDetailByProductId(anyString());
+        verifyNoInteractions(objectMapper);
+        verify(span, times(1)).name("ProductDetailServiceImpl.getProductDocumentByProductId");
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    void getProductDocumentByProductId_MissingDocument_ShouldSerializeAggregate() throws Exception {
+        // Given
+        when(documentRepositories.findDocumentByProductId("MLA123456789")).thenReturn(Optional.empty());
+        when(repositories.findDetailByProductId("MLA123456789")).thenReturn(Optional.of(sampleProductDetail));
+
+        // When
+        byte[] result = service.getProductDocumentByProductId("MLA123456789");
+
+        // Then
+        assertEquals("MLA123456789", objectMapper.readTree(result).get("productId").asText());
+        verify(repositories, times(1)).findDetailByProductId("MLA123456789");
+    }
+
+    @Test
+    void getProductDocumentByProductId_NotFound_ShouldThrowMeliException() {
+        // Given
+        when(documentRepositories.findDocumentByProductId("MLA999999999")).thenReturn(Optional.empty());
+        when(repositories.findDetailByProductId("MLA999999999")).thenReturn(Optional.empty());
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class,
+                () -> service.getProductDocumentByProductId("MLA999999999"));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        assertEquals("001002", exception.getErrorCode());
+    }
+
+    @Test
+    void getProductDocumentByProductId_RepositoryException_ShouldThrowMeliException() {
+        // Given
+        when(documentRepositories.findDocumentByProductId("MLA123456789")).thenThrow(new RuntimeException("Database timeout"));
+
+        // When & Then
+        MeliException exception = assertThrows(MeliException.class,
+                () -> service.getProductDocumentByProductId("MLA123456789"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getHttpStatus());
+        assertEquals("001008", exception.getErrorCode());
+        verify(span, atLeastOnce()).end();
     }
-}
\ No newline at end of file
+}
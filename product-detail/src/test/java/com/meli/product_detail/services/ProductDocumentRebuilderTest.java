@@ -0,0 +1,162 @@
+package com.meli.product_detail.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.product_detail.repositories.ProductDocumentRepositories;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración de ProductDocumentRebuilder y de los triggers de
+ * Liquibase que marcan documentos desactualizados.
+ *
+ * Usa los datos de Liquibase con el modo documento activo (el que instala
+ * los triggers); cada test parte de los documentos construidos para todo el
+ * catálogo y las transacciones se confirman de verdad.
+ *
+ * @author Osneider Manuel Acevedo Naranjo
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "application.document.product-detail.enabled=true")
+@Import({ProductDetailServiceImpl.class, ProductDocumentRebuilderTest.TestBeans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductDocumentRebuilderTest {
+
+    private static final String PRODUCT_ID = "MLA123456789";
+
+    @TestConfiguration
+    static class TestBeans {
+
+        @Bean
+        Tracer tracer() {
+            return Tracer.NOOP;
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private ProductDocumentRepositories repositories;
+
+    // @Import registra el bean con el nombre completo de la clase: se inyecta por tipo
+    @Autowired
+    private ProductDetailServiceImpl productDetailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    private ProductDocumentRebuilder rebuilder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(transactionManager);
+        rebuilder = new ProductDocumentRebuilder(repositories, productDetailService, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 2, 50, Duration.ofSeconds(1));
+        rebuilder.buildMissing();
+        rebuilder.rebuildStale();
+    }
+
+    private JsonNode document(String productId) throws Exception {
+        byte[] bytes = repositories.findDocumentByProductId(productId).orElseThrow();
+        return objectMapper.readTree(bytes);
+    }
+
+    private void execute(String sql, Object... args) {
+        transaction.executeWithoutResult(status -> jdbcTemplate.update(sql, args));
+    }
+
+    @Test
+    void buildMissing_ShouldStoreOneDocumentPerProduct() throws Exception {
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from product_detail", Long.class), repositories.count());
+
+        JsonNode document = document(PRODUCT_ID);
+        assertEquals(PRODUCT_ID, document.get("productId").asText());
+        assertFalse(document.get("attributes").isEmpty());
+        assertFalse(document.get("sellers").isEmpty());
+    }
+
+    @Test
+    void childChange_ShouldMarkStaleAndRebuildOnlyThatProduct() throws Exception {
+        // Given: cambia un atributo del producto
+        Long productDetailId = jdbcTemplate.queryForObject(
+                "select id from product_detail where product_id = ?", Long.class, PRODUCT_ID);
+        Long attributeId = jdbcTemplate.queryForObject(
+                "select min(id) from attribute where id_product_detail = ?", Long.class, productDetailId);
+        execute("update attribute set value_name = 'Modificado' where id = ?", attributeId);
+
+        // Then: el trigger lo dejó en la cola
+        assertEquals(productDetailId, jdbcTemplate.queryForObject(
+                "select product_detail_id from product_document_stale", Long.class));
+
+        // When
+        rebuilder.rebuildStale();
+
+        // Then: cola vacía y documento actualizado
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from product_document_stale", Integer.class));
+        assertTrue(document(PRODUCT_ID).get("attributes").toString().contains("Modificado"));
+    }
+
+    @Test
+    void sellerAddressChange_ShouldRebuildOwningProduct() throws Exception {
+        // Given
+        Long productDetailId = jdbcTemplate.queryForObject(
+                "select id from product_detail where product_id = ?", Long.class, PRODUCT_ID);
+        execute("update seller_address set city = 'Rosario' where id_seller in "
+                + "(select id from seller where id_product_detail = ?)", productDetailId);
+
+        // When
+        rebuilder.rebuildStale();
+
+        // Then
+        assertTrue(document(PRODUCT_ID).get("sellers").toString().contains("Rosario"));
+    }
+
+    @Test
+    void productDeleted_ShouldRemoveDocument() {
+        // Given: producto nuevo con documento
+        // (id explícito: la carga de los CSV fija los ids sin avanzar la identidad de la columna)
+        execute("insert into product_detail (id, product_id, title) "
+                + "select max(id) + 1, 'MLA-DOC-TEST', 'Temporal' from product_detail");
+        rebuilder.rebuildStale();
+        assertTrue(repositories.findDocumentByProductId("MLA-DOC-TEST").isPresent());
+
+        // When
+        execute("delete from product_detail where product_id = 'MLA-DOC-TEST'");
+        rebuilder.rebuildStale();
+
+        // Then
+        assertTrue(repositories.findDocumentByProductId("MLA-DOC-TEST").isEmpty());
+    }
+}